@@ -7,6 +7,9 @@ import NewItemForm from "./components/NewItemForm.jsx";
 
 const API = "http://localhost:8080";
 
+// list rows carry warehouseId; items returned by create/update/transfer still embed the warehouse
+const warehouseIdOf = (item) => item.warehouseId ?? item.warehouse?.id;
+
 function App() {
   const [warehouses, setWarehouses] = useState([]);
   const [items, setItems] = useState([]);
@@ -48,19 +51,34 @@ function App() {
     }
   }
 
+  // /api/items is paged: keep following X-Next-Cursor until the last page
+  async function fetchAllItems() {
+    const all = [];
+    let cursor = null;
+    do {
+      const url = cursor ? `${API}/api/items?after=${cursor}` : `${API}/api/items`;
+      const res = await fetch(url);
+      if (!res.ok) throw new Error(await readError(res));
+
+      const page = await res.json();
+      if (Array.isArray(page)) all.push(...page);
+      cursor = res.headers.get("X-Next-Cursor");
+    } while (cursor);
+    return all;
+  }
+
   async function loadData() {
     try {
-      const [whRes, itemRes] = await Promise.all([
+      const [whRes, itemData] = await Promise.all([
         fetch(`${API}/api/warehouses`),
-        fetch(`${API}/api/items`),
+        fetchAllItems(),
       ]);
 
       if (!whRes.ok) throw new Error(await readError(whRes));
-      if (!itemRes.ok) throw new Error(await readError(itemRes));
 
-      const [whData, itemData] = await Promise.all([whRes.json(), itemRes.json()]);
+      const whData = await whRes.json();
       setWarehouses(Array.isArray(whData) ? whData : []);
-      setItems(Array.isArray(itemData) ? itemData : []);
+      setItems(itemData);
     } catch (err) {
       console.error("Load error:", err);
       alert(err.message || "Could not load data (check backend).");
@@ -149,7 +167,7 @@ function App() {
       sku: item.sku || "",
       size: item.size || "",
       quantity: Number(item.quantity || 0),
-      warehouseId: item.warehouse?.id || "",
+      warehouseId: warehouseIdOf(item) || "",
     });
   }
 
@@ -191,6 +209,7 @@ function App() {
       size: editForm.size,
       quantity: qty,
       imageUrl: original?.imageUrl || null,
+      reorderPoint: original?.reorderPoint ?? null,
       warehouse: { id: wid },
     };
 
@@ -287,7 +306,7 @@ function App() {
   const visibleItems =
     selectedWarehouseId === "all"
       ? items
-      : items.filter((i) => i.warehouse && i.warehouse.id === Number(selectedWarehouseId));
+      : items.filter((i) => warehouseIdOf(i) === Number(selectedWarehouseId));
 
   return (
     <div className="page">
@@ -310,6 +329,7 @@ function App() {
 
           <ItemList
             items={visibleItems}
+            warehouses={warehouses}
             onDelete={handleDeleteItem}
             onEdit={handleStartEdit}
             isAdmin={isAdmin}
@@ -393,7 +413,7 @@ function App() {
                   >
                     <option value="">Select warehouse</option>
                     {warehouses
-                      .filter((wh) => wh.id !== transferItem.warehouse?.id)
+                      .filter((wh) => wh.id !== warehouseIdOf(transferItem))
                       .map((wh) => (
                         <option key={wh.id} value={wh.id}>
                           {wh.name}
@@ -4,11 +4,18 @@ import React from "react";
 
 function ItemList({
   items = [],
+  warehouses = [],
   onDelete = () => {},
   onEdit = () => {},
   isAdmin = false,
   onTransfer = () => {},
 }) {
+  // list rows only carry warehouseId; the name comes from the warehouse list
+  const warehouseName = (item) => {
+    const id = item.warehouseId ?? item.warehouse?.id;
+    return warehouses.find((wh) => wh.id === id)?.name ?? item.warehouse?.name;
+  };
+
   return (
     <div className="card">
       <p className="section-subtitle">Showing all items</p>
@@ -32,7 +39,7 @@ function ItemList({
               <td>{item.sku}</td>
               <td>{item.size}</td>
               <td>{item.quantity}</td>
-              <td>{item.warehouse?.name}</td>
+              <td>{warehouseName(item)}</td>
 
               <td className="actions-col">
                 {isAdmin ? (
@@ -0,0 +1,57 @@
+package com.godsvessel.inventory_warehouse.benchmark;
+
+import com.godsvessel.inventory_warehouse.service.FulfilmentPlanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// FulfilmentPlanner on synthetic stock, without the database: the in-memory part of one allocation.
+// Sparse stock (a quarter of warehouses carry a given sku) so orders really do split.
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class FulfilmentBenchmarks {
+
+    @Param({"50", "300"})
+    public int warehouses;
+
+    @Param({"10", "50"})
+    public int lines;
+
+    int[][] stock;
+    int[] need;
+    int[] cost;
+
+    @Setup(Level.Trial)
+    public void seed() {
+        Random random = new Random(42);
+        stock = new int[warehouses][lines];
+        cost = new int[warehouses];
+        need = new int[lines];
+        for (int w = 0; w < warehouses; w++) {
+            cost[w] = 1 + random.nextInt(20);
+            for (int l = 0; l < lines; l++) stock[w][l] = random.nextInt(4) == 0 ? random.nextInt(10) : 0;
+        }
+        for (int l = 0; l < lines; l++) need[l] = 1 + random.nextInt(8);
+    }
+
+    @Benchmark
+    public FulfilmentPlanner.Plan plan() {
+        return FulfilmentPlanner.plan(stock, need, cost, 12, 200_000);
+    }
+}
@@ -0,0 +1,110 @@
+package com.godsvessel.inventory_warehouse.benchmark;
+
+import com.godsvessel.inventory_warehouse.InventoryWarehouseApplication;
+import com.godsvessel.inventory_warehouse.repository.ItemRepository;
+import com.godsvessel.inventory_warehouse.repository.WarehouseRepository;
+import com.godsvessel.inventory_warehouse.service.ItemService;
+import com.godsvessel.inventory_warehouse.service.SearchService;
+import com.godsvessel.inventory_warehouse.service.WarehouseService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+// One Spring context + seeded H2 (PostgreSQL mode) database per trial, shared by all threads.
+@State(Scope.Benchmark)
+public class InventoryState {
+
+    @Param({"10000", "1000000"})
+    public int items;
+
+    @Param({"4", "500"})
+    public int warehouses;
+
+    ConfigurableApplicationContext ctx;
+    ItemService itemService;
+    SearchService searchService;
+    ItemRepository itemRepo;
+    WarehouseRepository warehouseRepo;
+    TransactionTemplate tx;
+    JdbcTemplate jdbc;
+
+    List<Long> warehouseIds;
+    long minItemId;
+    long maxItemId;
+
+    @Setup(Level.Trial)
+    public void start() {
+        ctx = new SpringApplicationBuilder(InventoryWarehouseApplication.class)
+                .logStartupInfo(false)
+                .properties(
+                        "server.port=0",   // SecurityConfig needs the servlet stack; any free port will do
+                        "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID()
+                                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.hibernate.ddl-auto=create",
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=warn")
+                .run();
+
+        itemService = ctx.getBean(ItemService.class);
+        searchService = ctx.getBean(SearchService.class);
+        itemRepo = ctx.getBean(ItemRepository.class);
+        warehouseRepo = ctx.getBean(WarehouseRepository.class);
+        tx = ctx.getBean(TransactionTemplate.class);
+        jdbc = ctx.getBean(JdbcTemplate.class);
+
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        ctx.close();
+    }
+
+    // set-based seeding via H2's system_range: items are spread evenly, each row starts at quantity 10
+    private void seed() {
+        jdbc.update("""
+                insert into warehouse (id, name, location, max_capacity, used_capacity)
+                select nextval('warehouse_id_seq'), 'Warehouse ' || r."X", 'Bench', 2000000000, 0
+                from system_range(1, ?) r
+                """, warehouses);
+        warehouseIds = jdbc.queryForList("select id from warehouse order by id", Long.class);
+
+        // every warehouse stocks the same skus, so the catalog has one entry per sku
+        int perWarehouse = Math.max(1, items / warehouses);
+        jdbc.update("""
+                insert into product (id, name, sku, description, image_url)
+                select nextval('product_id_seq'), 'Tee ' || r."X", 'SKU-' || r."X", 'Benchmark tee', null
+                from system_range(1, ?) r
+                """, perWarehouse);
+        for (Long warehouseId : warehouseIds) {
+            jdbc.update("""
+                    insert into item (id, sku, size, quantity, warehouse_id, version)
+                    select nextval('item_id_seq'), 'SKU-' || r."X", 'M', 10, ?, 0
+                    from system_range(1, ?) r
+                    """, warehouseId, perWarehouse);
+        }
+
+        ctx.getBean(WarehouseService.class).reconcileCounters();
+        minItemId = jdbc.queryForObject("select min(id) from item", Long.class);
+        maxItemId = jdbc.queryForObject("select max(id) from item", Long.class);
+    }
+
+    // ids of the first n items in a warehouse, for threads that need rows of their own
+    List<Long> itemIdsIn(Long warehouseId, int n) {
+        return jdbc.queryForList("select id from item where warehouse_id = ? order by id limit ?",
+                Long.class, warehouseId, n);
+    }
+}
@@ -0,0 +1,185 @@
+package com.godsvessel.inventory_warehouse.benchmark;
+
+import com.godsvessel.inventory_warehouse.dto.ItemView;
+import com.godsvessel.inventory_warehouse.model.Item;
+import com.godsvessel.inventory_warehouse.model.Warehouse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Hot paths of ItemService and ItemRepository. *Latency = one thread, sampled per call;
+// *Throughput = 8 threads, each on rows of its own so they measure the path, not row contention.
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class ItemServiceBenchmarks {
+
+    private static final int THREADS = 8;
+    private static final AtomicLong SKU_SEQ = new AtomicLong();
+
+    @State(Scope.Thread)
+    public static class Rows {
+        Item own;           // this thread's row in the first warehouse
+        Long there;         // its copy's warehouse for transfers
+        Long backId;        // id of the copy once the first transfer created it
+        boolean forward = true;
+        int flip;
+
+        @Setup(Level.Trial)
+        public void pick(InventoryState s, ThreadParams threads) {
+            Long first = s.warehouseIds.get(0);
+            Long id = s.itemIdsIn(first, THREADS).get(threads.getThreadIndex() % THREADS);
+            own = s.itemService.getById(id);
+            there = s.warehouseIds.get(1);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Item saveLatency(InventoryState s, Rows r) {
+        return save(s, r);
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public Item saveThroughput(InventoryState s, Rows r) {
+        return save(s, r);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Item transferLatency(InventoryState s, Rows r) {
+        return transfer(s, r);
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public Item transferThroughput(InventoryState s, Rows r) {
+        return transfer(s, r);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<ItemView> listPageLatency(InventoryState s) {
+        return listPage(s);
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public List<ItemView> listPageThroughput(InventoryState s) {
+        return listPage(s);
+    }
+
+    // SampleTime reports the percentiles (p99 is the one to track); a sku prefix plus a word that every
+    // seeded row has, so the text match can't short-circuit
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<ItemView> searchLatency(InventoryState s) {
+        return search(s);
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public List<ItemView> searchThroughput(InventoryState s) {
+        return search(s);
+    }
+
+    // the capacity check: conditional reserve on the warehouse counter (released again so it stays flat)
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Integer capacityCounter(InventoryState s) {
+        Long warehouseId = randomWarehouse(s);
+        return s.tx.execute(status -> {
+            int reserved = s.warehouseRepo.reserveCapacity(warehouseId, 1);
+            s.warehouseRepo.releaseCapacity(warehouseId, 1);
+            return reserved;
+        });
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public Integer capacityCounterThroughput(InventoryState s) {
+        return capacityCounter(s);
+    }
+
+    // 500 new rows in one transaction: shows what pooled ids + JDBC batching buy on inserts
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Item> insertBatch(InventoryState s) {
+        Warehouse wh = new Warehouse();
+        wh.setId(s.warehouseIds.get(0));
+        return s.tx.execute(status -> {
+            List<Item> batch = new ArrayList<>(500);
+            for (int i = 0; i < 500; i++) {
+                batch.add(new Item("Bench tee", "INS-" + SKU_SEQ.incrementAndGet(), null, "M", 0, null, wh));
+            }
+            return s.itemRepo.saveAll(batch);
+        });
+    }
+
+    private static Item save(InventoryState s, Rows r) {
+        Item update = new Item(r.own.getName(), r.own.getSku(), r.own.getDescription(), r.own.getSize(),
+                10 + (r.flip ^= 1), r.own.getImageUrl(), r.own.getWarehouse());
+        update.setId(r.own.getId());
+        return s.itemService.save(update);
+    }
+
+    // one unit out and back, so stock and capacity never drift
+    private static Item transfer(InventoryState s, Rows r) {
+        Item moved;
+        if (r.forward) {
+            moved = s.itemService.transfer(r.own.getId(), r.there, 1);
+            r.backId = moved.getId();
+        } else {
+            moved = s.itemService.transfer(r.backId, r.own.getWarehouse().getId(), 1);
+        }
+        r.forward = !r.forward;
+        return moved;
+    }
+
+    private static List<ItemView> listPage(InventoryState s) {
+        long after = ThreadLocalRandom.current().nextLong(s.minItemId, s.maxItemId + 1);
+        return s.itemService.getPage(null, after, 200);
+    }
+
+    private static List<ItemView> search(InventoryState s) {
+        String prefix = "SKU-" + ThreadLocalRandom.current().nextInt(1, 100);
+        return s.searchService.searchItems("tee", prefix, "M", randomWarehouse(s), 0, 50);
+    }
+
+    private static Long randomWarehouse(InventoryState s) {
+        return s.warehouseIds.get(ThreadLocalRandom.current().nextInt(s.warehouseIds.size()));
+    }
+}
@@ -0,0 +1,119 @@
+package com.godsvessel.inventory_warehouse.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.godsvessel.inventory_warehouse.config.JacksonConfig;
+import com.godsvessel.inventory_warehouse.dto.ItemView;
+import com.godsvessel.inventory_warehouse.model.Item;
+import com.godsvessel.inventory_warehouse.model.Warehouse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Serialization cost of one 200-item list page: the entity shape the list endpoints used to return
+// (nested warehouse on every row) against ItemView as JSON, Smile and CBOR, plus a ?fields= subset.
+// No database: the same in-memory rows for every encoding. Raw and gzipped sizes are printed at setup.
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class PayloadBenchmarks {
+
+    private static final int PAGE = 200;
+
+    List<Item> entities;
+    List<ItemView> views;
+    ObjectWriter entityJson;
+    ObjectWriter viewJson;
+    ObjectWriter viewSmile;
+    ObjectWriter viewCbor;
+    ObjectWriter viewJsonFields;
+
+    @Setup(Level.Trial)
+    public void seed() throws Exception {
+        Warehouse wh = new Warehouse();
+        wh.setId(1L);
+        wh.setName("Main Warehouse");
+        wh.setLocation("Greensboro, NC");
+        wh.setMaxCapacity(100_000);
+
+        entities = new ArrayList<>(PAGE);
+        views = new ArrayList<>(PAGE);
+        for (int i = 0; i < PAGE; i++) {
+            Item item = new Item("Jehovah Jireh Definition Tee " + i, "GV-JJ-BLK-" + i,
+                    "Black heavyweight tee with the Jehovah Jireh definition printed on the back", "M", 10 + i,
+                    "https://cdn.example.com/items/GV-JJ-BLK-" + i + ".png", wh);
+            item.setId((long) i + 1);
+            item.setVersion(0L);
+            entities.add(item);
+            views.add(new ItemView(item.getId(), item.getSku(), item.getName(), item.getDescription(), item.getSize(),
+                    item.getQuantity(), item.getReserved(), item.getReorderPoint(), item.getImageUrl(), item.getVersion(),
+                    wh.getId()));
+        }
+
+        entityJson = new ObjectMapper().writer();
+        viewJson = new ObjectMapper().writer(JacksonConfig.allFields());
+        viewSmile = new ObjectMapper(new SmileFactory()).writer(JacksonConfig.allFields());
+        viewCbor = new ObjectMapper(new CBORFactory()).writer(JacksonConfig.allFields());
+        viewJsonFields = new ObjectMapper().writer(JacksonConfig.allFields().addFilter(ItemView.FIELDS,
+                SimpleBeanPropertyFilter.filterOutAllExcept("id", "sku", "quantity", "warehouseId")));
+
+        report("entity json", entityJson.writeValueAsBytes(entities));
+        report("view json", viewJson.writeValueAsBytes(views));
+        report("view smile", viewSmile.writeValueAsBytes(views));
+        report("view cbor", viewCbor.writeValueAsBytes(views));
+        report("view json ?fields=id,sku,quantity,warehouseId", viewJsonFields.writeValueAsBytes(views));
+    }
+
+    @Benchmark
+    public byte[] entityJson() throws Exception {
+        return entityJson.writeValueAsBytes(entities);
+    }
+
+    @Benchmark
+    public byte[] viewJson() throws Exception {
+        return viewJson.writeValueAsBytes(views);
+    }
+
+    @Benchmark
+    public byte[] viewSmile() throws Exception {
+        return viewSmile.writeValueAsBytes(views);
+    }
+
+    @Benchmark
+    public byte[] viewCbor() throws Exception {
+        return viewCbor.writeValueAsBytes(views);
+    }
+
+    @Benchmark
+    public byte[] viewJsonFields() throws Exception {
+        return viewJsonFields.writeValueAsBytes(views);
+    }
+
+    private static void report(String name, byte[] body) throws Exception {
+        ByteArrayOutputStream gz = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(gz)) {
+            out.write(body);
+        }
+        System.out.printf("%-48s %8d bytes, %7d gzipped%n", name, body.length, gz.size());
+    }
+}
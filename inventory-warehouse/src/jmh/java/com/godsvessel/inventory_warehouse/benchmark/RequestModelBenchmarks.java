@@ -0,0 +1,128 @@
+package com.godsvessel.inventory_warehouse.benchmark;
+
+import com.godsvessel.inventory_warehouse.InventoryWarehouseApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Load test for the request model: CLIENTS concurrent callers against the real HTTP stack, which is
+// far more than the Tomcat pool (and the connection pool) can serve at once.
+//   platform = Tomcat's default platform-thread pool, no bulkhead (the current model)
+//   virtual  = spring.threads.virtual.enabled + the JDBC bulkhead; needs a Java 21 JVM (-Pjava21)
+// Compare pageThroughput and the p99/p99.9 of pageLatency between the two.
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+public class RequestModelBenchmarks {
+
+    private static final int CLIENTS = 512;
+
+    @State(Scope.Benchmark)
+    public static class Server {
+
+        @Param({"platform", "virtual"})
+        public String model;
+
+        ConfigurableApplicationContext ctx;
+        HttpClient http;
+        String baseUrl;
+        long maxItemId;
+
+        @Setup(Level.Trial)
+        public void start() {
+            boolean virtual = model.equals("virtual");
+            if (virtual && Runtime.version().feature() < 21) {
+                throw new IllegalStateException("model=virtual needs Java 21, this JVM is " + Runtime.version());
+            }
+
+            ctx = new SpringApplicationBuilder(InventoryWarehouseApplication.class)
+                    .logStartupInfo(false)
+                    .properties(
+                            "server.port=0",
+                            "spring.datasource.url=jdbc:h2:mem:requests-" + UUID.randomUUID()
+                                    + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                            "spring.datasource.username=sa",
+                            "spring.datasource.password=",
+                            "spring.jpa.hibernate.ddl-auto=create",
+                            "spring.jpa.show-sql=false",
+                            "spring.threads.virtual.enabled=" + virtual,
+                            "inventory.jdbc.bulkhead.enabled=" + virtual,
+                            "logging.level.root=warn")
+                    .run();
+
+            JdbcTemplate jdbc = ctx.getBean(JdbcTemplate.class);
+            jdbc.update("""
+                    insert into warehouse (id, name, location, max_capacity, used_capacity)
+                    values (nextval('warehouse_id_seq'), 'Load', 'Bench', 2000000000, 0)
+                    """);
+            Long warehouseId = jdbc.queryForObject("select max(id) from warehouse", Long.class);
+            jdbc.update("""
+                    insert into product (id, name, sku, description, image_url)
+                    select nextval('product_id_seq'), 'Tee ' || r."X", 'SKU-' || r."X", 'Benchmark tee', null
+                    from system_range(1, 20000) r
+                    """);
+            jdbc.update("""
+                    insert into item (id, sku, size, quantity, warehouse_id, version)
+                    select nextval('item_id_seq'), 'SKU-' || r."X", 'M', 10, ?, 0
+                    from system_range(1, 20000) r
+                    """, warehouseId);
+            maxItemId = jdbc.queryForObject("select max(id) from item", Long.class);
+
+            http = HttpClient.newHttpClient();
+            baseUrl = "http://localhost:" + ctx.getEnvironment().getProperty("local.server.port");
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            ctx.close();
+        }
+    }
+
+    @Benchmark
+    @Threads(CLIENTS)
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int pageLatency(Server s) throws Exception {
+        return page(s);
+    }
+
+    @Benchmark
+    @Threads(CLIENTS)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public int pageThroughput(Server s) throws Exception {
+        return page(s);
+    }
+
+    private static int page(Server s) throws Exception {
+        long after = ThreadLocalRandom.current().nextLong(s.maxItemId);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(s.baseUrl + "/api/items?limit=50&after=" + after))
+                .GET()
+                .build();
+        HttpResponse<Void> response = s.http.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) throw new IllegalStateException("HTTP " + response.statusCode());
+        return response.statusCode();
+    }
+}
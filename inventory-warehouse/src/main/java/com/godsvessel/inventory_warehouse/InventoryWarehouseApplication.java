@@ -1,9 +1,17 @@
 package com.godsvessel.inventory_warehouse;
 
+import com.godsvessel.inventory_warehouse.dto.Availability;
+import com.godsvessel.inventory_warehouse.dto.ItemView;
+import com.godsvessel.inventory_warehouse.dto.WarehouseSummary;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.annotation.RegisterReflection;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
+// native image: Hibernate builds these through the constructors named in "select new" queries
 @SpringBootApplication
+@RegisterReflection(classes = {ItemView.class, Availability.class, WarehouseSummary.class},
+		memberCategories = MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)
 public class InventoryWarehouseApplication {
 
 	public static void main(String[] args) {
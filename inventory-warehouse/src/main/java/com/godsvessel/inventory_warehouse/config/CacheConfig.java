@@ -0,0 +1,37 @@
+//--- in-process read-through caches (Caffeine, sized/expired in application.yml) ---
+package com.godsvessel.inventory_warehouse.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // cache names, also listed under spring.cache.cache-names so their metrics exist from startup
+    public static final String WAREHOUSES = "warehouses";
+    public static final String PRODUCTS = "products";
+    public static final String PRODUCT_BY_ID = "productById";
+    public static final String PRODUCT_BY_SKU = "productBySku";
+
+    // every item read joins its catalog fields from productBySku, so it is sized for the whole catalog
+    // (inventory.catalog.*) instead of sharing the spring.cache.caffeine.spec limit: a catalog bigger
+    // than the cache sends most list pages back to the database
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> catalogCache(
+            @Value("${inventory.catalog.cache-size:200000}") long size,
+            @Value("${inventory.catalog.cache-ttl-ms:600000}") long ttlMs) {
+        return manager -> manager.registerCustomCache(PRODUCT_BY_SKU, Caffeine.newBuilder()
+                .maximumSize(size)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build());
+    }
+}
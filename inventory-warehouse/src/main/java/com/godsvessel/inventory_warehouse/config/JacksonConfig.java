@@ -0,0 +1,43 @@
+//--- JSON filters and the binary (Smile / CBOR) encodings, all from the one configured ObjectMapper ---
+package com.godsvessel.inventory_warehouse.config;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.godsvessel.inventory_warehouse.dto.ItemView;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+@Configuration
+public class JacksonConfig {
+
+    public static final String SMILE = "application/x-jackson-smile";
+    public static final String CBOR = "application/cbor";
+
+    // without ?fields= every field is written; a request's own filter (MappingJacksonValue) wins
+    public static SimpleFilterProvider allFields() {
+        return new SimpleFilterProvider().addFilter(ItemView.FIELDS, SimpleBeanPropertyFilter.serializeAll());
+    }
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer itemFieldFilter() {
+        return builder -> builder.filters(allFields());
+    }
+
+    // opt-in with Accept: application/x-jackson-smile or application/cbor (internal callers); same
+    // modules, filters and settings as JSON. These replace Spring's defaults, which use a plain mapper
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
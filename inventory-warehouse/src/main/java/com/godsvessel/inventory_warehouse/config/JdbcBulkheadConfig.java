@@ -0,0 +1,34 @@
+//--- optional bulkhead in front of the connection pool (inventory.jdbc.bulkhead.*) ---
+package com.godsvessel.inventory_warehouse.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+public class JdbcBulkheadConfig {
+
+    // static: post-processors are built before the beans they wrap. Permits default to the pool size,
+    // so requests wait on the semaphore rather than inside Hikari. One bulkhead per pool: with a read
+    // replica (ReadReplicaConfig) the routing DataSource in front of the pools is left alone
+    @Bean
+    @ConditionalOnProperty(name = "inventory.jdbc.bulkhead.enabled", havingValue = "true")
+    static BeanPostProcessor jdbcBulkhead(Environment env) {
+        Integer permits = env.getProperty("inventory.jdbc.bulkhead.permits", Integer.class);
+        long acquireTimeoutMs = env.getProperty("inventory.jdbc.bulkhead.acquire-timeout-ms", Long.class, 5000L);
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource pool) {
+                    return new BulkheadDataSource(pool, (permits == null) ? pool.getMaximumPoolSize() : permits,
+                            acquireTimeoutMs);
+                }
+                return bean;
+            }
+        };
+    }
+}
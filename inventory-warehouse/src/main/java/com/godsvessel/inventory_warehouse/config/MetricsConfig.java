@@ -0,0 +1,39 @@
+//--- observability: slow SQL statements (meters themselves are configured in application.yml) ---
+package com.godsvessel.inventory_warehouse.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.util.DriverDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class MetricsConfig {
+
+    // puts SlowQueryDataSource between every Hikari pool and the driver, so all SQL is timed, not just
+    // repository calls. The pool bean itself stays as it is (its shutdown, metrics and the bulkhead in
+    // front of it don't change); it just gets its raw connections from the wrapper. Runs before
+    // initialization, once spring.datasource.* is bound and before anything has started the pool
+    @Bean
+    static BeanPostProcessor slowQueryLog(Environment env) {
+        long thresholdMs = env.getProperty("inventory.metrics.slow-query-ms", Long.class, 250L);
+        int maxPerMinute = env.getProperty("inventory.metrics.slow-query-max-per-minute", Integer.class, 60);
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource pool) {
+                    // with only a jdbc-url Hikari would build this DriverDataSource itself
+                    DataSource driver = (pool.getDataSource() != null) ? pool.getDataSource()
+                            : new DriverDataSource(pool.getJdbcUrl(), pool.getDriverClassName(),
+                            pool.getDataSourceProperties(), pool.getUsername(), pool.getPassword());
+                    pool.setDataSource(new SlowQueryDataSource(driver, thresholdMs, maxPerMinute));
+                }
+                return bean;
+            }
+        };
+    }
+}
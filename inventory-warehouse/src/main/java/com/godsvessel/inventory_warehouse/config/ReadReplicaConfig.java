@@ -0,0 +1,86 @@
+//--- optional read replica (inventory.datasource.replica.*) ---
+package com.godsvessel.inventory_warehouse.config;
+
+import com.godsvessel.inventory_warehouse.service.ItemService;
+import com.godsvessel.inventory_warehouse.service.ProductService;
+import com.godsvessel.inventory_warehouse.service.WarehouseService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Two Hikari pools, "primary" (spring.datasource.*) and "replica" (inventory.datasource.replica.*),
+// behind one routing DataSource that everything else (JPA, JdbcTemplate, schema init) uses.
+// Read-only transactions of the services below may go to the replica; writes, capacity checks (they
+// run inside the write transactions) and everything else stay on the primary.
+@Configuration
+@ConditionalOnProperty(name = "inventory.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    static final Set<String> REPLICA_READERS = Stream.of(ItemService.class, ProductService.class, WarehouseService.class)
+            .map(Class::getName)
+            .collect(Collectors.toUnmodifiableSet());
+
+    // what Boot would have built on its own; it backs off once any DataSource bean exists.
+    // Flyway migrates through this pool directly rather than the router
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource ds = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        ds.setPoolName("primary");
+        return ds;
+    }
+
+    @Bean
+    @ConfigurationProperties("inventory.datasource.replica.hikari")
+    HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                       @Value("${inventory.datasource.replica.url}") String url,
+                                       @Value("${inventory.datasource.replica.username:}") String username,
+                                       @Value("${inventory.datasource.replica.password:}") String password) {
+        HikariDataSource ds = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url)
+                .username(username.isEmpty() ? properties.determineUsername() : username)
+                .password(password.isEmpty() ? properties.determinePassword() : password)
+                .build();
+        ds.setPoolName("replica");
+        ds.setReadOnly(true);
+        return ds;
+    }
+
+    // typed DataSource: with the JDBC bulkhead on, the pools are wrapped by the time they get here
+    @Bean
+    ReadWriteRoutingDataSource replicaRouter(@Qualifier("primaryDataSource") DataSource primary,
+                                             @Qualifier("replicaDataSource") DataSource replica,
+                                             MeterRegistry registry,
+                                             @Value("${inventory.datasource.replica.lag-query:}") String lagQuery,
+                                             @Value("${inventory.datasource.replica.max-lag-ms:1000}") long maxLagMs,
+                                             @Value("${inventory.datasource.replica.lag-check-ms:1000}") long lagCheckMs) {
+        return new ReadWriteRoutingDataSource(primary, replica, REPLICA_READERS, lagQuery, maxLagMs, lagCheckMs, registry);
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(ReadWriteRoutingDataSource replicaRouter) {
+        return new LazyConnectionDataSourceProxy(replicaRouter);
+    }
+
+    @Bean
+    ReadYourWritesFilter readYourWritesFilter(@Value("${inventory.datasource.replica.read-your-writes-ms:5000}") long windowMs) {
+        return new ReadYourWritesFilter(windowMs);
+    }
+}
@@ -0,0 +1,139 @@
+package com.godsvessel.inventory_warehouse.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Primary/replica switch. Must sit behind a LazyConnectionDataSourceProxy: the transaction manager
+// asks for a connection before it marks the transaction read-only, the proxy defers that until the
+// first statement, and by then the flags below are set.
+// A connection goes to the replica only when all of these hold, otherwise to the primary:
+//  - it's for a read-only transaction started by one of the replica readers (the transaction name is
+//    the outermost @Transactional method, so a read joined into a write transaction stays on the primary)
+//  - the request hasn't written recently (ReadYourWritesFilter)
+//  - the last lag probe got an answer under maxLagMs
+final class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    enum Role { PRIMARY, REPLICA }
+
+    private final DataSource replica;
+    private final Set<String> replicaReaders;
+    private final String lagQuery;
+    private final long maxLagMs;
+    private final long lagCheckMs;
+    private final Counter fallbacks;
+
+    private volatile boolean replicaOk;
+    private volatile double lagMs = Double.NaN;
+    private ScheduledExecutorService prober;
+
+    ReadWriteRoutingDataSource(DataSource primary, DataSource replica, Set<String> replicaReaders,
+                               String lagQuery, long maxLagMs, long lagCheckMs, MeterRegistry registry) {
+        this.replica = replica;
+        this.replicaReaders = replicaReaders;
+        this.lagQuery = (lagQuery == null || lagQuery.isBlank()) ? null : lagQuery;
+        this.maxLagMs = maxLagMs;
+        this.lagCheckMs = lagCheckMs;
+        // without a probe the replica is trusted as is
+        this.replicaOk = this.lagQuery == null;
+        setTargetDataSources(Map.of(Role.PRIMARY, primary, Role.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+
+        Gauge.builder("inventory.datasource.replica.lag", this, r -> r.lagMs)
+                .description("Replica replay lag at the last probe, ms (NaN = unreachable)")
+                .baseUnit("milliseconds")
+                .register(registry);
+        this.fallbacks = Counter.builder("inventory.datasource.replica.fallbacks")
+                .description("Replica-eligible reads sent to the primary (lag, outage or a recent write)")
+                .register(registry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return route();
+    }
+
+    Role route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            // auto-commit statements outside a transaction are housekeeping, not a client's write
+            if (TransactionSynchronizationManager.isActualTransactionActive()) ReadYourWritesFilter.wrote();
+            return Role.PRIMARY;
+        }
+        if (!replicaReader(TransactionSynchronizationManager.getCurrentTransactionName())) return Role.PRIMARY;
+        if (!replicaOk || ReadYourWritesFilter.pinned()) {
+            fallbacks.increment();
+            return Role.PRIMARY;
+        }
+        return Role.REPLICA;
+    }
+
+    private boolean replicaReader(String transactionName) {
+        if (transactionName == null) return false;
+        int dot = transactionName.lastIndexOf('.');
+        return dot > 0 && replicaReaders.contains(transactionName.substring(0, dot));
+    }
+
+    // one probe; runs every lagCheckMs while started
+    void probe() {
+        boolean ok;
+        try (Connection c = replica.getConnection();
+             Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery(lagQuery)) {
+            lagMs = rs.next() ? rs.getDouble(1) : Double.NaN;
+            ok = lagMs <= maxLagMs;
+        } catch (SQLException | RuntimeException e) {
+            lagMs = Double.NaN;
+            ok = false;
+        }
+        if (ok != replicaOk) {
+            if (ok) log.info("Replica back in use (lag {} ms).", lagMs);
+            else log.warn("Replica lagging or unreachable (lag {} ms), reads go to the primary.", lagMs);
+        }
+        replicaOk = ok;
+    }
+
+    boolean isReplicaOk() {
+        return replicaOk;
+    }
+
+    @Override
+    public void start() {
+        if (lagQuery == null || prober != null) return;
+        probe();
+        prober = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "replica-lag");
+            t.setDaemon(true);
+            return t;
+        });
+        prober.scheduleWithFixedDelay(this::probe, lagCheckMs, lagCheckMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (prober != null) prober.shutdownNow();
+        prober = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return prober != null;
+    }
+}
@@ -0,0 +1,87 @@
+package com.godsvessel.inventory_warehouse.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Read-your-writes across requests. The first write a request makes (ReadWriteRoutingDataSource sees a
+// connection for a read-write transaction) sets a short-lived cookie; while a client carries it, its
+// replica-eligible reads go to the primary, so a save followed by a list shows the save even when the
+// replica is behind. Within the request itself every read after the write is pinned the same way.
+final class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "gv-primary";
+
+    private static final ThreadLocal<Request> CURRENT = new ThreadLocal<>();
+
+    private final long windowMs;
+
+    ReadYourWritesFilter(long windowMs) {
+        this.windowMs = windowMs;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        CURRENT.set(new Request(response, windowMs, pinnedUntil(request) > System.currentTimeMillis()));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    // outside a request (schedulers, the ledger writer, async streams) nothing is pinned
+    static boolean pinned() {
+        Request current = CURRENT.get();
+        return current != null && current.pinned;
+    }
+
+    static void wrote() {
+        Request current = CURRENT.get();
+        if (current == null || current.wrote) return;
+        current.wrote = true;
+        current.pinned = true;
+        // too late once the body has started; the request itself is still pinned
+        if (current.response.isCommitted()) return;
+        long until = System.currentTimeMillis() + current.windowMs;
+        Cookie cookie = new Cookie(COOKIE, Long.toString(until));
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge((int) Math.max(1, (current.windowMs + 999) / 1000));
+        cookie.setAttribute("SameSite", "Lax");
+        current.response.addCookie(cookie);
+    }
+
+    private static long pinnedUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) return 0;
+        for (Cookie c : cookies) {
+            if (!COOKIE.equals(c.getName())) continue;
+            try {
+                return Long.parseLong(c.getValue());
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+
+    private static final class Request {
+        private final HttpServletResponse response;
+        private final long windowMs;
+        private boolean pinned;
+        private boolean wrote;
+
+        private Request(HttpServletResponse response, long windowMs, boolean pinned) {
+            this.response = response;
+            this.windowMs = windowMs;
+            this.pinned = pinned;
+        }
+    }
+}
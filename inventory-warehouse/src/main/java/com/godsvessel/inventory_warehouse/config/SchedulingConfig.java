@@ -0,0 +1,10 @@
+//--- @Scheduled background jobs (stock snapshots) ---
+package com.godsvessel.inventory_warehouse.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
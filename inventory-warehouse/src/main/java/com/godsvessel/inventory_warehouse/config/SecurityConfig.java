@@ -39,6 +39,9 @@ public class SecurityConfig {
         // allow any headers from the client
         cfg.setAllowedHeaders(List.of("*"));
 
+        // let the browser read the paging cursor on item lists, the summary ETag and idempotent replays
+        cfg.setExposedHeaders(List.of("X-Next-Cursor", "ETag", "Idempotent-Replayed"));
+
         // allow cookies / auth headers if we add them later
         cfg.setAllowCredentials(true);
 
@@ -0,0 +1,142 @@
+package com.godsvessel.inventory_warehouse.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Replaces show-sql: every statement run on a pooled connection is timed, whoever runs it (repositories,
+// Hibernate, JdbcTemplate, Flyway), and the ones slower than the threshold are logged with their SQL
+// (never the bind values), at most maxPerMinute a minute. The rest are counted and reported with the
+// next line that gets out, so one bad minute can't flood the log. Only execute* calls are timed: waiting
+// for a connection isn't a query, and COPY through the unwrapped driver connection isn't seen.
+final class SlowQueryDataSource extends DelegatingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryDataSource.class);
+    private static final int MAX_SQL_LENGTH = 1000;
+
+    private final long thresholdNanos;
+    private final int maxPerMinute;
+    private final AtomicLong slow = new AtomicLong();
+    private long minute;
+    private int logged;
+    private int suppressed;
+
+    SlowQueryDataSource(DataSource target, long thresholdMs, int maxPerMinute) {
+        super(target);
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        this.maxPerMinute = maxPerMinute;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return timed(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return timed(super.getConnection(username, password));
+    }
+
+    // statements over the threshold so far, logged or not
+    long slowStatements() {
+        return slow.get();
+    }
+
+    // statements made on the connection report back here; everything else goes straight to the pool
+    private Connection timed(Connection target) {
+        InvocationHandler handler = (proxy, method, args) -> switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            default -> {
+                Object result = invoke(target, method, args);
+                if (result instanceof Statement statement) {
+                    String sql = (args != null && args.length > 0 && args[0] instanceof String s) ? s : null;
+                    yield timed(statement, sql);
+                }
+                yield result;
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, handler);
+    }
+
+    // sql: what a PreparedStatement was prepared with; a plain Statement passes it to execute* (or to
+    // addBatch, where the first one stands for the batch)
+    private Statement timed(Statement target, String preparedSql) {
+        Class<?> type = (target instanceof CallableStatement) ? CallableStatement.class
+                : (target instanceof PreparedStatement) ? PreparedStatement.class : Statement.class;
+        String[] batchSql = {preparedSql};
+        InvocationHandler handler = (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.equals("equals")) return proxy == args[0];
+            if (name.equals("hashCode")) return System.identityHashCode(proxy);
+            if (name.equals("addBatch") && batchSql[0] == null && args != null && args[0] instanceof String s) {
+                batchSql[0] = s;
+            }
+            if (!name.startsWith("execute")) return invoke(target, method, args);
+
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                Object result = invoke(target, method, args);
+                failed = false;
+                return result;
+            } finally {
+                long nanos = System.nanoTime() - start;
+                if (nanos >= thresholdNanos) {
+                    String sql = (args != null && args.length > 0 && args[0] instanceof String s) ? s : batchSql[0];
+                    report(name.contains("Batch") ? "batch: " + sql : sql, nanos, failed);
+                }
+            }
+        };
+        return (Statement) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private void report(String sql, long nanos, boolean failed) {
+        slow.incrementAndGet();
+        int skipped;
+        synchronized (this) {
+            long now = System.currentTimeMillis() / 60_000;
+            if (now != minute) {
+                minute = now;
+                logged = 0;
+            }
+            if (logged >= maxPerMinute) {
+                suppressed++;
+                return;
+            }
+            logged++;
+            skipped = suppressed;
+            suppressed = 0;
+        }
+
+        log.warn("Slow query took {} ms{}: {}{}", TimeUnit.NANOSECONDS.toMillis(nanos), failed ? " (failed)" : "",
+                (sql == null) ? "?" : abbreviate(sql.strip()),
+                (skipped > 0) ? " [" + skipped + " more not logged]" : "");
+    }
+
+    private static String abbreviate(String sql) {
+        return (sql.length() <= MAX_SQL_LENGTH) ? sql : sql.substring(0, MAX_SQL_LENGTH) + "...";
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.godsvessel.inventory_warehouse.controller;
+
+import com.godsvessel.inventory_warehouse.dto.AllocationRequest;
+import com.godsvessel.inventory_warehouse.dto.AllocationResult;
+import com.godsvessel.inventory_warehouse.service.FulfilmentService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("/api/fulfilment")
+@CrossOrigin(origins = "http://localhost:5173")
+public class FulfilmentController {
+
+    private final FulfilmentService service;
+
+    public FulfilmentController(FulfilmentService service) {
+        this.service = service;
+    }
+
+    // which warehouses should ship this order; read-only, nothing is reserved
+    @PostMapping("/allocations")
+    public AllocationResult allocate(@RequestBody AllocationRequest request) {
+        try {
+            return service.allocate(request);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
+        }
+    }
+}
@@ -1,36 +1,231 @@
 package com.godsvessel.inventory_warehouse.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.godsvessel.inventory_warehouse.dto.ImportResult;
+import com.godsvessel.inventory_warehouse.dto.ItemView;
+import com.godsvessel.inventory_warehouse.dto.ReceiveRequest;
+import com.godsvessel.inventory_warehouse.dto.ReceiveResult;
+import com.godsvessel.inventory_warehouse.dto.StockChange;
+import com.godsvessel.inventory_warehouse.dto.TransferBatchRequest;
+import com.godsvessel.inventory_warehouse.dto.TransferBatchResult;
 import com.godsvessel.inventory_warehouse.model.Item;
+import com.godsvessel.inventory_warehouse.service.IdempotencyKeyReusedException;
+import com.godsvessel.inventory_warehouse.service.IdempotencyService;
+import com.godsvessel.inventory_warehouse.service.ImportService;
 import com.godsvessel.inventory_warehouse.service.ItemService;
+import com.godsvessel.inventory_warehouse.service.ReceivingService;
+import com.godsvessel.inventory_warehouse.service.SearchService;
+import com.godsvessel.inventory_warehouse.service.StockBroadcaster;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/items")
 @CrossOrigin(origins = "http://localhost:5173")
 public class ItemController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String NDJSON = "application/x-ndjson";
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final ItemService service;
+    private final ImportService importService;
+    private final SearchService searchService;
+    private final IdempotencyService idempotency;
+    private final StockBroadcaster broadcaster;
+    private final ReceivingService receiving;
+    private final ObjectMapper objectMapper;
+    private final long streamTimeoutMs;
 
-    public ItemController(ItemService service) {
+    public ItemController(ItemService service, ImportService importService, SearchService searchService,
+                          IdempotencyService idempotency, StockBroadcaster broadcaster, ReceivingService receiving,
+                          ObjectMapper objectMapper,
+                          @Value("${inventory.stream.timeout-ms:1800000}") long streamTimeoutMs) {
         this.service = service;
+        this.importService = importService;
+        this.searchService = searchService;
+        this.idempotency = idempotency;
+        this.broadcaster = broadcaster;
+        this.receiving = receiving;
+        this.objectMapper = objectMapper;
+        this.streamTimeoutMs = streamTimeoutMs;
     }
 
+    // paged with ?after=<last id seen>&limit=<n>; X-Next-Cursor is set while more rows may follow.
+    // Lists are ItemView rows (warehouse by id); ?fields=id,sku,quantity trims them further, in any
+    // encoding: JSON, or Smile / CBOR with Accept: application/x-jackson-smile / application/cbor
     @GetMapping
-    public List<Item> getAll() {
-        return service.getAll();
+    public ResponseEntity<MappingJacksonValue> getAll(@RequestParam(required = false) Long after,
+                                                      @RequestParam(required = false) Integer limit,
+                                                      @RequestParam(required = false) String fields) {
+        return page(null, after, limit, fields);
     }
 
     @GetMapping("/warehouse/{warehouseId}")
-    public List<Item> getByWarehouse(@PathVariable Long warehouseId) {
-        return service.getByWarehouse(warehouseId);
+    public ResponseEntity<MappingJacksonValue> getByWarehouse(@PathVariable Long warehouseId,
+                                                              @RequestParam(required = false) Long after,
+                                                              @RequestParam(required = false) Integer limit,
+                                                              @RequestParam(required = false) String fields) {
+        return page(warehouseId, after, limit, fields);
+    }
+
+    // Accept: application/x-ndjson -> one item per line, streamed straight from the db cursor
+    @GetMapping(produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamAll(@RequestParam(required = false) String fields) {
+        return stream(null, fields);
+    }
+
+    @GetMapping(value = "/warehouse/{warehouseId}", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamByWarehouse(@PathVariable Long warehouseId,
+                                                                   @RequestParam(required = false) String fields) {
+        return stream(warehouseId, fields);
+    }
+
+    // live stock changes instead of polling the item list: "stock" events, each a JSON array of
+    // {itemId, warehouseId, quantity, movementId} committed since the last one (older movementIds for a
+    // row can arrive after newer ones: keep the highest). ?warehouseId= narrows it to one
+    // warehouse. The stream ends after inventory.stream.timeout-ms, or early if the client can't keep
+    // up; EventSource reconnects on its own, and the client should reload the list when it does
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam(required = false) Long warehouseId) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        StockBroadcaster.Subscription sub;
+        try {
+            sub = broadcaster.subscribe(warehouseId, new StockBroadcaster.Sink() {
+                @Override
+                public void send(List<StockChange> changes) throws IOException {
+                    emitter.send(SseEmitter.event().name("stock").data(changes, MediaType.APPLICATION_JSON));
+                }
+
+                @Override
+                public void heartbeat() throws IOException {
+                    emitter.send(SseEmitter.event().comment("ping"));
+                }
+
+                @Override
+                public void close() {
+                    try {
+                        emitter.complete();
+                    } catch (RuntimeException ignored) {
+                        // already completed by the container
+                    }
+                }
+            });
+        } catch (IllegalStateException ex) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), ex);
+        }
+        emitter.onCompletion(sub::cancel);
+        emitter.onTimeout(sub::cancel);
+        emitter.onError(e -> sub.cancel());
+        return emitter;
+    }
+
+    // ?q=free text&sku=prefix&size=M&warehouseId=1, all optional. Best matches first; paged with
+    // ?offset=&limit=, and X-Next-Cursor carries the next offset
+    @GetMapping("/search")
+    public ResponseEntity<MappingJacksonValue> search(@RequestParam(required = false) String q,
+                                                     @RequestParam(required = false) String sku,
+                                                     @RequestParam(required = false) String size,
+                                                     @RequestParam(required = false) Long warehouseId,
+                                                     @RequestParam(required = false) Integer offset,
+                                                     @RequestParam(required = false) Integer limit,
+                                                     @RequestParam(required = false) String fields) {
+        List<ItemView> items;
+        Set<String> selected;
+        try {
+            selected = ItemView.fields(fields);
+            items = searchService.searchItems(q, sku, size, warehouseId, offset, limit);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
+        }
+
+        ResponseEntity.BodyBuilder res = ResponseEntity.ok();
+        int requested = (limit == null) ? searchService.getDefaultPageSize() : limit;
+        if (items.size() == requested) {
+            res.header(NEXT_CURSOR_HEADER, String.valueOf((offset == null ? 0 : offset) + requested));
+        }
+        return res.body(select(items, selected));
     }
 
+    private ResponseEntity<MappingJacksonValue> page(Long warehouseId, Long after, Integer limit, String fields) {
+        List<ItemView> items;
+        Set<String> selected;
+        try {
+            selected = ItemView.fields(fields);
+            items = service.getPage(warehouseId, after, limit);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
+        }
+
+        ResponseEntity.BodyBuilder res = ResponseEntity.ok();
+        int requested = (limit == null) ? service.getDefaultPageSize() : limit;
+        if (!items.isEmpty() && items.size() == requested) {
+            res.header(NEXT_CURSOR_HEADER, String.valueOf(items.get(items.size() - 1).id()));
+        }
+        return res.body(select(items, selected));
+    }
+
+    // the body goes to whichever Jackson converter was negotiated, with the ?fields= filter applied
+    private static MappingJacksonValue select(List<ItemView> items, Set<String> fields) {
+        MappingJacksonValue body = new MappingJacksonValue(items);
+        if (fields != null) body.setFilters(only(fields));
+        return body;
+    }
+
+    private static SimpleFilterProvider only(Set<String> fields) {
+        return new SimpleFilterProvider().addFilter(ItemView.FIELDS, SimpleBeanPropertyFilter.filterOutAllExcept(fields));
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(Long warehouseId, String fields) {
+        Set<String> selected;
+        try {
+            selected = ItemView.fields(fields);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
+        }
+        ObjectWriter writer = (selected == null) ? objectMapper.writer() : objectMapper.writer(only(selected));
+        StreamingResponseBody body = out -> service.streamAll(warehouseId, item -> {
+            try {
+                out.write(writer.writeValueAsBytes(item));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().header("Content-Type", NDJSON).body(body);
+    }
+
+    // with an Idempotency-Key header a retry returns the first response instead of creating again
     @PostMapping
-    public Item create(@RequestBody Item item) {
+    public ResponseEntity<?> create(@RequestBody Item item,
+                                    @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        if (idempotencyKey == null) return ResponseEntity.ok(doCreate(item));
+        return idempotent(idempotencyKey, "POST /api/items " + json(item), () -> doCreate(item));
+    }
+
+    private Item doCreate(Item item) {
         try {
             return service.save(item);
         } catch (IllegalArgumentException ex) {
@@ -40,6 +235,17 @@ public class ItemController {
         }
     }
 
+    // bulk load: text/csv with a header row or application/x-ndjson, one item per record
+    @PostMapping(value = "/import", consumes = {"text/csv", NDJSON})
+    public ImportResult importItems(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                    InputStream body) {
+        try {
+            return importService.importItems(body, contentType);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
+        }
+    }
+
     @PutMapping("/{id}")
     public Item update(@PathVariable Long id, @RequestBody Item item) {
         try {
@@ -58,13 +264,23 @@ public class ItemController {
             service.delete(id);
         } catch (IllegalArgumentException ex) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, ex.getMessage(), ex);
+        } catch (IllegalStateException ex) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, ex.getMessage(), ex);
         }
     }
 
+    // Idempotency-Key as on create: a retried transfer moves the stock once
     @PostMapping("/{id}/transfer")
-    public Item transfer(@PathVariable Long id,
-                         @RequestParam Long targetWarehouseId,
-                         @RequestParam int quantity) {
+    public ResponseEntity<?> transfer(@PathVariable Long id,
+                                      @RequestParam Long targetWarehouseId,
+                                      @RequestParam int quantity,
+                                      @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        if (idempotencyKey == null) return ResponseEntity.ok(doTransfer(id, targetWarehouseId, quantity));
+        String request = "POST /api/items/" + id + "/transfer?targetWarehouseId=" + targetWarehouseId + "&quantity=" + quantity;
+        return idempotent(idempotencyKey, request, () -> doTransfer(id, targetWarehouseId, quantity));
+    }
+
+    private Item doTransfer(Long id, Long targetWarehouseId, int quantity) {
         try {
             return service.transfer(id, targetWarehouseId, quantity);
         } catch (IllegalArgumentException ex) {
@@ -74,6 +290,66 @@ public class ItemController {
         }
     }
 
+    // dock scans: {sku, warehouseId, delta}. Scans for the same row are merged for a few ms and written
+    // together; the response comes once that write has committed. 503 = backed up or the write failed,
+    // nothing was applied, scan again
+    @PostMapping("/receive")
+    public CompletableFuture<ReceiveResult> receive(@RequestBody ReceiveRequest request) {
+        CompletableFuture<ReceiveResult> ack;
+        try {
+            ack = receiving.receive(request);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
+        } catch (IllegalStateException ex) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), ex);
+        }
+        return ack.handle((result, ex) -> {
+            if (ex == null) return result;
+            if (ex instanceof IllegalArgumentException)
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
+            if (ex instanceof IllegalStateException)
+                throw new ResponseStatusException(HttpStatus.CONFLICT, ex.getMessage(), ex);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Scan was not recorded, scan again.", ex);
+        });
+    }
+
+    @PostMapping("/transfers:batch")
+    public TransferBatchResult transferBatch(@RequestBody TransferBatchRequest request) {
+        try {
+            return service.transferBatch(request);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
+        } catch (IllegalStateException ex) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, ex.getMessage(), ex);
+        }
+    }
+
+    // the stored response is the serialized body, so a replay is byte-for-byte the first answer
+    private ResponseEntity<byte[]> idempotent(String key, String request, Supplier<Object> action) {
+        IdempotencyService.Result result;
+        try {
+            result = idempotency.execute(key, request, () -> json(action.get()).getBytes(StandardCharsets.UTF_8));
+        } catch (IdempotencyKeyReusedException ex) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage(), ex);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
+        } catch (IllegalStateException ex) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, ex.getMessage(), ex);
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(result.replayed()))
+                .body(result.body());
+    }
+
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @GetMapping("/{id}")
     public Item getOne(@PathVariable Long id) {
         try {
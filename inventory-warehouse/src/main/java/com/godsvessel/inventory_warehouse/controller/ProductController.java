@@ -1,9 +1,18 @@
 package com.godsvessel.inventory_warehouse.controller;
 
+import com.godsvessel.inventory_warehouse.dto.ImportResult;
 import com.godsvessel.inventory_warehouse.model.Product;
+import com.godsvessel.inventory_warehouse.service.ImportService;
 import com.godsvessel.inventory_warehouse.service.ProductService;
+import com.godsvessel.inventory_warehouse.service.SearchService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -12,9 +21,13 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService service;
+    private final ImportService importService;
+    private final SearchService searchService;
 
-    public ProductController(ProductService service) {
+    public ProductController(ProductService service, ImportService importService, SearchService searchService) {
         this.service = service;
+        this.importService = importService;
+        this.searchService = searchService;
     }
 
     @GetMapping
@@ -22,6 +35,27 @@ public class ProductController {
         return service.getAll();
     }
 
+    // same contract as /api/items/search: ?q=&sku=&offset=&limit=, next offset in X-Next-Cursor
+    @GetMapping("/search")
+    public ResponseEntity<List<Product>> search(@RequestParam(required = false) String q,
+                                                @RequestParam(required = false) String sku,
+                                                @RequestParam(required = false) Integer offset,
+                                                @RequestParam(required = false) Integer limit) {
+        List<Product> products;
+        try {
+            products = searchService.searchProducts(q, sku, offset, limit);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
+        }
+
+        ResponseEntity.BodyBuilder res = ResponseEntity.ok();
+        int requested = (limit == null) ? searchService.getDefaultPageSize() : limit;
+        if (products.size() == requested) {
+            res.header(ItemController.NEXT_CURSOR_HEADER, String.valueOf((offset == null ? 0 : offset) + requested));
+        }
+        return res.body(products);
+    }
+
     @GetMapping("/{id}")
     public Product getById(@PathVariable Long id) {
         return service.getById(id);
@@ -30,7 +64,11 @@ public class ProductController {
     @PutMapping("/{id}")
     public Product update(@PathVariable Long id, @RequestBody Product product) {
         product.setId(id);
-        return service.save(product);
+        try {
+            return service.save(product);
+        } catch (IllegalStateException ex) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, ex.getMessage(), ex);
+        }
     }
 
     @PostMapping
@@ -38,8 +76,23 @@ public class ProductController {
         return service.save(product);
     }
 
+    // bulk catalog load: text/csv with a header row or application/x-ndjson
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ImportResult importProducts(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                       InputStream body) {
+        try {
+            return importService.importProducts(body, contentType);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
+        }
+    }
+
     @DeleteMapping("/{id}")
     public void delete(@PathVariable Long id) {
-        service.delete(id);
+        try {
+            service.delete(id);
+        } catch (IllegalStateException ex) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, ex.getMessage(), ex);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.godsvessel.inventory_warehouse.controller;
+
+import com.godsvessel.inventory_warehouse.dto.ReplenishmentReport;
+import com.godsvessel.inventory_warehouse.service.ReplenishmentService;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/replenishment")
+@CrossOrigin(origins = "http://localhost:5173")
+public class ReplenishmentController {
+
+    private final ReplenishmentService service;
+
+    public ReplenishmentController(ReplenishmentService service) {
+        this.service = service;
+    }
+
+    // low stock and what to do about it, as of the last committed change (rebuilt in the background)
+    @GetMapping
+    public ReplenishmentReport report() {
+        return service.getReport();
+    }
+}
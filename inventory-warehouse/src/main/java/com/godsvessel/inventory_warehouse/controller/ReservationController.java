@@ -0,0 +1,74 @@
+package com.godsvessel.inventory_warehouse.controller;
+
+import com.godsvessel.inventory_warehouse.dto.Availability;
+import com.godsvessel.inventory_warehouse.dto.ReservationRequest;
+import com.godsvessel.inventory_warehouse.model.Reservation;
+import com.godsvessel.inventory_warehouse.service.ReservationService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+// checkout holds: reserve -> confirm (sold) or release; unconfirmed holds expire on their own
+@RestController
+@RequestMapping("/api/reservations")
+@CrossOrigin(origins = "http://localhost:5173")
+public class ReservationController {
+
+    private final ReservationService service;
+
+    public ReservationController(ReservationService service) {
+        this.service = service;
+    }
+
+    @PostMapping
+    public Reservation reserve(@RequestBody ReservationRequest request) {
+        try {
+            return service.reserve(request);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
+        } catch (IllegalStateException ex) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, ex.getMessage(), ex);
+        }
+    }
+
+    // available to promise = quantity - active holds
+    @GetMapping("/availability")
+    public Availability availability(@RequestParam String sku, @RequestParam Long warehouseId) {
+        try {
+            return service.getAvailability(sku, warehouseId);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, ex.getMessage(), ex);
+        }
+    }
+
+    @GetMapping("/{id}")
+    public Reservation getOne(@PathVariable Long id) {
+        try {
+            return service.getById(id);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, ex.getMessage(), ex);
+        }
+    }
+
+    @PostMapping("/{id}/confirm")
+    public Reservation confirm(@PathVariable Long id) {
+        try {
+            return service.confirm(id);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, ex.getMessage(), ex);
+        } catch (IllegalStateException ex) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, ex.getMessage(), ex);
+        }
+    }
+
+    @PostMapping("/{id}/release")
+    public Reservation release(@PathVariable Long id) {
+        try {
+            return service.release(id);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, ex.getMessage(), ex);
+        } catch (IllegalStateException ex) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, ex.getMessage(), ex);
+        }
+    }
+}
@@ -1,9 +1,17 @@
 // src/main/java/com/godsvessel/inventory_warehouse/controller/WarehouseController.java
 package com.godsvessel.inventory_warehouse.controller;
 
+import com.godsvessel.inventory_warehouse.dto.StockAt;
+import com.godsvessel.inventory_warehouse.dto.WarehouseSummary;
 import com.godsvessel.inventory_warehouse.model.Warehouse;
+import com.godsvessel.inventory_warehouse.service.StockHistoryService;
 import com.godsvessel.inventory_warehouse.service.WarehouseService;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -13,6 +21,12 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 
 import java.util.List;
 
@@ -22,9 +36,11 @@ import java.util.List;
 public class WarehouseController {
 
     private final WarehouseService service;
+    private final StockHistoryService history;
 
-    public WarehouseController(WarehouseService service) {
+    public WarehouseController(WarehouseService service, StockHistoryService history) {
         this.service = service;
+        this.history = history;
     }
 
     @GetMapping
@@ -32,11 +48,44 @@ public class WarehouseController {
         return service.getAllWh();
     }
 
+    // dashboard poll: every warehouse's fill level in one response. The ETag is a digest of the rows, so
+    // an unchanged summary costs one small query and a 304 instead of a body
+    @GetMapping("/summary")
+    public ResponseEntity<List<WarehouseSummary>> summary(WebRequest request) {
+        List<WarehouseSummary> rows = service.getSummary();
+        String etag = summaryEtag(rows);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(rows);
+    }
+
+    // maintenance: recount the summary counters from the items (after manual SQL edits). Scans the item
+    // table and holds every warehouse row while it runs, so item writes wait
+    @PostMapping("/counters:reconcile")
+    public List<WarehouseSummary> reconcileCounters() {
+        return service.reconcileCounters();
+    }
+
     @GetMapping("/{id}")
     public Warehouse getById(@PathVariable Long id) {
         return service.getWhById(id);
     }
 
+    // stock on hand at ?at= (ISO-8601 instant, default now), rebuilt from the movement history
+    @GetMapping("/{id}/stock")
+    public StockAt stockAt(@PathVariable Long id,
+                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant at) {
+        try {
+            return history.stockAt(id, at);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, ex.getMessage(), ex);
+        }
+    }
+
     @PostMapping
     public Warehouse create(@RequestBody Warehouse warehouse) {
         return service.saveWh(warehouse);
@@ -52,4 +101,10 @@ public class WarehouseController {
     public void delete(@PathVariable Long id) {
         service.deleteWh(id);
     }
+
+    private static String summaryEtag(List<WarehouseSummary> rows) {
+        StringBuilder sb = new StringBuilder();
+        for (WarehouseSummary row : rows) sb.append(row).append('\n');
+        return "\"" + DigestUtils.md5DigestAsHex(sb.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
 }
\ No newline at end of file
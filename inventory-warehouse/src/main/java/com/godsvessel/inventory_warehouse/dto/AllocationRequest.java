@@ -0,0 +1,10 @@
+package com.godsvessel.inventory_warehouse.dto;
+
+import java.util.List;
+
+// an order to source: destination (optional) selects lane costs, lines are sku + units
+public record AllocationRequest(String destination, List<Line> lines) {
+
+    public record Line(String sku, int quantity) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.godsvessel.inventory_warehouse.dto;
+
+import java.util.List;
+
+// exact = the split was proven minimal (shipments, then cost); otherwise it is the greedy answer
+public record AllocationResult(int shipmentCount, long totalCost, boolean exact,
+                               List<Shipment> shipments, List<Shortfall> shortfalls) {
+
+    public record Shipment(Long warehouseId, String warehouseName, String location, int cost, List<Pick> picks) {
+    }
+
+    public record Pick(String sku, Long itemId, int quantity) {
+    }
+
+    // units no warehouse has available
+    public record Shortfall(String sku, int missing) {
+    }
+}
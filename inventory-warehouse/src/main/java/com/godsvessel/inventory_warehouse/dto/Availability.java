@@ -0,0 +1,5 @@
+package com.godsvessel.inventory_warehouse.dto;
+
+// available to promise for one (sku, warehouse) row: quantity minus active reservation holds
+public record Availability(Long itemId, String sku, Long warehouseId, int quantity, int reserved, int available) {
+}
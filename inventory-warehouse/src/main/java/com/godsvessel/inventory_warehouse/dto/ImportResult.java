@@ -0,0 +1,11 @@
+package com.godsvessel.inventory_warehouse.dto;
+
+import java.util.List;
+
+// rejects is capped (inventory.import.max-reported-rejects); rejected is always the full count
+public record ImportResult(long received, long imported, long rejected, List<RejectedRow> rejects) {
+
+    // row = 1-based record number in the uploaded file (header not counted)
+    public record RejectedRow(long row, String sku, String reason) {
+    }
+}
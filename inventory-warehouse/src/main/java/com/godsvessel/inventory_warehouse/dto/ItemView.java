@@ -0,0 +1,55 @@
+package com.godsvessel.inventory_warehouse.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.godsvessel.inventory_warehouse.model.Product;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Read shape for item lists: the warehouse by id only, nulls left out, selected straight from the
+// columns (ItemRepository) so no entity, proxy or warehouse row is loaded to produce it. name,
+// description and imageUrl come from the catalog afterwards (withCatalog).
+// ?fields=id,sku,quantity narrows it further through the FIELDS filter (JacksonConfig).
+@JsonFilter(ItemView.FIELDS)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ItemView(Long id, String sku, String name, String description, String size, Integer quantity,
+                       int reserved, Integer reorderPoint, String imageUrl, Long version, Long warehouseId) {
+
+    public static final String FIELDS = "itemFields";
+
+    // the item columns only (ItemRepository.VIEW)
+    public ItemView(Long id, String sku, String size, Integer quantity, int reserved, Integer reorderPoint,
+                    Long version, Long warehouseId) {
+        this(id, sku, null, null, size, quantity, reserved, reorderPoint, null, version, warehouseId);
+    }
+
+    private static final Set<String> NAMES = Arrays.stream(ItemView.class.getRecordComponents())
+            .map(c -> c.getName())
+            .collect(Collectors.toUnmodifiableSet());
+
+    // product null (no catalog entry) leaves the catalog fields empty
+    public ItemView withCatalog(Product product) {
+        if (product == null) return this;
+        return new ItemView(id, sku, product.getName(), product.getDescription(), size, quantity, reserved,
+                reorderPoint, product.getImageUrl(), version, warehouseId);
+    }
+
+    // "id, SKU,quantity" -> {id, sku, quantity}; null or blank = every field
+    public static Set<String> fields(String csv) {
+        if (csv == null || csv.isBlank()) return null;
+        Set<String> picked = new LinkedHashSet<>();
+        for (String raw : csv.split(",")) {
+            String name = raw.trim();
+            if (name.isEmpty()) continue;
+            String match = NAMES.stream().filter(n -> n.equalsIgnoreCase(name)).findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown field: " + name.toLowerCase(Locale.ROOT)
+                            + ". Known fields: " + String.join(", ", NAMES.stream().sorted().toList()) + "."));
+            picked.add(match);
+        }
+        return picked.isEmpty() ? null : picked;
+    }
+}
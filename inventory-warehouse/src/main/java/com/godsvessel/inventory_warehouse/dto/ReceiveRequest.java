@@ -0,0 +1,5 @@
+package com.godsvessel.inventory_warehouse.dto;
+
+// one scan at the dock: delta > 0 received, delta < 0 taken out (damage, miscount)
+public record ReceiveRequest(String sku, Long warehouseId, int delta) {
+}
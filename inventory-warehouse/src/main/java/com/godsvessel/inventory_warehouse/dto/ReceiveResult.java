@@ -0,0 +1,6 @@
+package com.godsvessel.inventory_warehouse.dto;
+
+// sent once the flush holding the scan has committed; quantity is the row after that flush, and
+// coalesced is how many scans (this one included) went into it for this sku and warehouse
+public record ReceiveResult(String sku, Long warehouseId, Long itemId, int quantity, int coalesced) {
+}
@@ -0,0 +1,27 @@
+package com.godsvessel.inventory_warehouse.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+// GET /api/replenishment: rows under their reorder point, most urgent first, and how to refill them.
+// Transfers come out of other warehouses' surplus first; purchase orders cover what's left.
+// lowStockCount can be larger than lowStock.size() when the list is capped.
+public record ReplenishmentReport(Instant generatedAt, int lowStockCount, List<LowStock> lowStock,
+                                  List<Transfer> transfers, List<PurchaseOrder> purchaseOrders) {
+
+    public static ReplenishmentReport empty() {
+        return new ReplenishmentReport(Instant.now(), 0, List.of(), List.of(), List.of());
+    }
+
+    // target = the level a refill aims for (reorder point x inventory.replenishment.target-factor)
+    public record LowStock(Long itemId, String sku, Long warehouseId, int quantity, int reorderPoint, int target) {
+    }
+
+    public record Transfer(String sku, Long fromWarehouseId, Long fromItemId, Long toWarehouseId, Long toItemId,
+                           int quantity) {
+    }
+
+    // capacityLimited: the warehouse has no room for the full shortfall, so this is what fits
+    public record PurchaseOrder(String sku, Long warehouseId, Long itemId, int quantity, boolean capacityLimited) {
+    }
+}
@@ -0,0 +1,5 @@
+package com.godsvessel.inventory_warehouse.dto;
+
+// ttlSeconds optional: inventory.reservations.default-ttl-seconds, capped at max-ttl-seconds
+public record ReservationRequest(String sku, Long warehouseId, int quantity, Integer ttlSeconds) {
+}
@@ -0,0 +1,11 @@
+package com.godsvessel.inventory_warehouse.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+// a warehouse's stock as of `at`; snapshotAt is the snapshot it was rebuilt from (null = full replay)
+public record StockAt(Long warehouseId, Instant at, Instant snapshotAt, List<Line> lines) {
+
+    public record Line(Long itemId, String sku, int quantity) {
+    }
+}
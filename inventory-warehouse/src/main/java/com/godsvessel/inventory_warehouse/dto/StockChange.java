@@ -0,0 +1,8 @@
+package com.godsvessel.inventory_warehouse.dto;
+
+// one pushed stock update: the item row's quantity in that warehouse after the commit;
+// quantity null = the row left the warehouse (deleted or moved).
+// movementId is the ledger id of the movement behind it. Commit hooks can run out of order, so for one
+// (itemId, warehouseId) keep the highest movementId seen and drop anything lower
+public record StockChange(Long itemId, Long warehouseId, Integer quantity, long movementId) {
+}
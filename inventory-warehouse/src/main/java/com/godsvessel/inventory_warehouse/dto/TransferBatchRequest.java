@@ -0,0 +1,15 @@
+package com.godsvessel.inventory_warehouse.dto;
+
+import java.util.List;
+
+// body of POST /api/items/transfers:batch
+public record TransferBatchRequest(Mode mode, List<Line> lines) {
+
+    public enum Mode {
+        ALL_OR_NOTHING,  // any rejected line rolls the whole batch back
+        PARTIAL          // valid lines commit, rejected lines are reported
+    }
+
+    public record Line(Long itemId, Long targetWarehouseId, int quantity) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.godsvessel.inventory_warehouse.dto;
+
+import java.util.List;
+
+public record TransferBatchResult(boolean committed, List<LineResult> lines) {
+
+    public enum Status {
+        OK,
+        REJECTED,
+        ROLLED_BACK  // line was fine, but another line failed an ALL_OR_NOTHING batch
+    }
+
+    // targetItemId is the row the stock landed in (null unless OK)
+    public record LineResult(int index, Long itemId, Long targetWarehouseId, int quantity,
+                             Status status, Long targetItemId, String message) {
+    }
+}
@@ -0,0 +1,6 @@
+package com.godsvessel.inventory_warehouse.dto;
+
+// one dashboard row; lowStockCount = item rows below their reorder point (as in ReplenishmentService)
+public record WarehouseSummary(Long id, String name, String location, int maxCapacity, int usedCapacity,
+                               int freeCapacity, int skuCount, int lowStockCount) {
+}
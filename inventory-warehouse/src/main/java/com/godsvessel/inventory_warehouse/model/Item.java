@@ -1,34 +1,64 @@
 package com.godsvessel.inventory_warehouse.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Check;
+import org.hibernate.annotations.ColumnDefault;
 
 
 @Entity
+@Check(constraints = "reserved >= 0 and reserved <= quantity")
 public class Item {
 
+    // pooled sequence, not IDENTITY: ids come 50 at a time without an INSERT, so writes can batch.
+    // Hibernate follows the sequence's real INCREMENT BY (increment_size_mismatch_strategy: fix)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_seq")
+    @SequenceGenerator(name = "item_seq", sequenceName = "item_id_seq", allocationSize = 50)
     private Long id;
 
-    private String name;        // e.g. "Jehovah Jireh Tee"
-    private String sku;         // shirt code
-    private String description;
+    private String sku;         // shirt code; also the catalog key (product.sku)
     private String size;        // S, M, L, XL
-    private int quantity;
+    private Integer quantity;
 
+    // catalog fields, kept once per sku on Product rather than on every stock row. Not columns: on
+    // writes they are what ItemService puts in the catalog, on reads it fills them in from the cached catalog
+    @Transient
+    private String name;        // e.g. "Jehovah Jireh Tee"
+    @Transient
+    private String description;
+    @Transient
+    private String imageUrl;
 
-    @ManyToOne
+    // units held by open checkout reservations (still on the shelf, so still in quantity); only ever
+    // changed by the conditional updates in ItemRepository. Available to promise = quantity - reserved
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private int reserved;
+
+    // LAZY: read paths fetch it on purpose (join fetch / entity graph in ItemRepository). The counters
+    // move with every write and are served by /api/warehouses, not repeated (possibly stale) per item
+    @JsonIgnoreProperties({"usedCapacity", "skuCount", "lowStockCount"})
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "warehouse_id")
     private Warehouse warehouse;
 
-    @Column(name = "image_url")
-    private String imageUrl;
+    // restock when quantity drops below this (ReplenishmentService); null = inventory.replenishment.default-reorder-point
+    @Column(name = "reorder_point")
+    private Integer reorderPoint;
+
+    // optimistic lock; clients may send it back on PUT to reject stale edits
+    @Version
+    @ColumnDefault("0")
+    private Long version;
 
     public Item() {
     }
 
     public Item(String name, String sku, String description,
-                String size, int quantity, String imageUrl, Warehouse warehouse) {
+                String size, Integer quantity, String imageUrl, Warehouse warehouse) {
         this.name = name;
         this.sku = sku;
         this.description = description;
@@ -73,13 +103,17 @@ public class Item {
         this.size = size;
     }
 
-    public int getQuantity() {
+    public Integer getQuantity() {
         return quantity;
     }
-    public void setQuantity(int quantity) {
+    public void setQuantity(Integer quantity) {
         this.quantity = quantity;
     }
 
+    public int getReserved() {
+        return reserved;
+    }
+
     public String getImageUrl() {
         return imageUrl;
     }
@@ -87,6 +121,20 @@ public class Item {
         this.imageUrl = imageUrl;
     }
 
+    public Integer getReorderPoint() {
+        return reorderPoint;
+    }
+    public void setReorderPoint(Integer reorderPoint) {
+        this.reorderPoint = reorderPoint;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public Warehouse getWarehouse() {
         return warehouse;
     }
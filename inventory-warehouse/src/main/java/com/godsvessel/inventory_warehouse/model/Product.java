@@ -7,9 +7,11 @@ import jakarta.persistence.*;
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_id_seq", allocationSize = 50)
     private Long id;
 
+    @Column(length = 150)
     private String name;
 
     @Column(nullable = false, unique = true)
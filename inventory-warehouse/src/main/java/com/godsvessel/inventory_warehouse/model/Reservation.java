@@ -0,0 +1,66 @@
+package com.godsvessel.inventory_warehouse.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+// A checkout hold on one (sku, warehouse) item row. While HELD its quantity is counted in
+// Item.reserved; confirming turns it into a real decrement, releasing or expiring gives it back.
+@Entity
+@Table(name = "stock_reservation")
+public class Reservation {
+
+    public enum Status { HELD, CONFIRMED, RELEASED, EXPIRED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_reservation_seq")
+    @SequenceGenerator(name = "stock_reservation_seq", sequenceName = "stock_reservation_id_seq", allocationSize = 50)
+    private Long id;
+
+    // NULL once the item row is deleted (fk_stock_reservation_item); sku and warehouse keep the history
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(nullable = false, length = 50)
+    private String sku;
+
+    @Column(name = "warehouse_id", nullable = false)
+    private Long warehouseId;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Status status;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    protected Reservation() {
+    }
+
+    public Reservation(Long itemId, String sku, Long warehouseId, int quantity, Instant createdAt, Instant expiresAt) {
+        this.itemId = itemId;
+        this.sku = sku;
+        this.warehouseId = warehouseId;
+        this.quantity = quantity;
+        this.status = Status.HELD;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public Long getId() { return id; }
+    public Long getItemId() { return itemId; }
+    public String getSku() { return sku; }
+    public Long getWarehouseId() { return warehouseId; }
+    public int getQuantity() { return quantity; }
+    public Instant getCreatedAt() { return createdAt; }
+    public Instant getExpiresAt() { return expiresAt; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+}
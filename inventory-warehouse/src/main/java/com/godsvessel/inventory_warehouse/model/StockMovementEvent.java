@@ -0,0 +1,67 @@
+package com.godsvessel.inventory_warehouse.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// One quantity change, written to the outbox in the same transaction as the item row it describes.
+// StockLedger moves committed rows into the append-only stock_movement table; neither is ever updated.
+@Entity
+@Table(name = "stock_movement_outbox")
+public class StockMovementEvent {
+
+    public enum Reason { CREATED, ADJUSTED, MOVED_OUT, MOVED_IN, DELETED, TRANSFER_OUT, TRANSFER_IN, IMPORTED, SOLD, RECEIVED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_movement_seq")
+    @SequenceGenerator(name = "stock_movement_seq", sequenceName = "stock_movement_id_seq", allocationSize = 50)
+    private Long id;
+
+    // no FKs: the history has to outlive deleted items
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    @Column(name = "warehouse_id", nullable = false)
+    private Long warehouseId;
+
+    @Column(nullable = false, length = 50)
+    private String sku;
+
+    @Column(nullable = false)
+    private int delta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Reason reason;
+
+    // shared by both legs of a transfer
+    @Column(name = "correlation_id")
+    private UUID correlationId;
+
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+
+    protected StockMovementEvent() {
+    }
+
+    public StockMovementEvent(Long itemId, Long warehouseId, String sku, int delta, Reason reason,
+                              UUID correlationId, Instant occurredAt) {
+        this.itemId = itemId;
+        this.warehouseId = warehouseId;
+        this.sku = sku;
+        this.delta = delta;
+        this.reason = reason;
+        this.correlationId = correlationId;
+        this.occurredAt = occurredAt;
+    }
+
+    public Long getId() { return id; }
+    public Long getItemId() { return itemId; }
+    public Long getWarehouseId() { return warehouseId; }
+    public String getSku() { return sku; }
+    public int getDelta() { return delta; }
+    public Reason getReason() { return reason; }
+    public UUID getCorrelationId() { return correlationId; }
+    public Instant getOccurredAt() { return occurredAt; }
+}
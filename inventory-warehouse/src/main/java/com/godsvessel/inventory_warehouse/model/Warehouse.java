@@ -1,21 +1,41 @@
 package com.godsvessel.inventory_warehouse.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.util.List;
 
 @Entity
-@JsonIgnoreProperties("items")
+@JsonIgnoreProperties({"items", "hibernateLazyInitializer", "handler"})
 public class Warehouse {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "warehouse_seq")
+    @SequenceGenerator(name = "warehouse_seq", sequenceName = "warehouse_id_seq", allocationSize = 50)
     private Long id;
 
     private String name;
     private String location;
     private int maxCapacity;
 
+    // running SUM(item.quantity), only ever changed by the conditional updates in WarehouseRepository
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @ColumnDefault("0")
+    @Column(name = "used_capacity", nullable = false, insertable = false, updatable = false)
+    private int usedCapacity;
+
+    // dashboard counters (item rows, rows under the low-stock threshold), kept alongside usedCapacity
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @ColumnDefault("0")
+    @Column(name = "sku_count", nullable = false, insertable = false, updatable = false)
+    private int skuCount;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @ColumnDefault("0")
+    @Column(name = "low_stock_count", nullable = false, insertable = false, updatable = false)
+    private int lowStockCount;
+
     @OneToMany(mappedBy = "warehouse")
     private List<Item> items;
 
@@ -31,6 +51,12 @@ public class Warehouse {
     public int getMaxCapacity() { return maxCapacity; }
     public void setMaxCapacity(int maxCapacity) { this.maxCapacity = maxCapacity; }
 
+    public int getUsedCapacity() { return usedCapacity; }
+
+    public int getSkuCount() { return skuCount; }
+
+    public int getLowStockCount() { return lowStockCount; }
+
     public List<Item> getItems() { return items; }
     public void setItems(List<Item> items) { this.items = items; }
 }
\ No newline at end of file
@@ -1,22 +1,146 @@
 package com.godsvessel.inventory_warehouse.repository;
 
+import com.godsvessel.inventory_warehouse.dto.Availability;
+import com.godsvessel.inventory_warehouse.dto.ItemView;
 import com.godsvessel.inventory_warehouse.model.Item;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
-    @Query("select i from Item i where i.warehouse.id = :warehouseId")
-    List<Item> findByWarehouseId(@Param("warehouseId") Long warehouseId);
+    int FETCH_SIZE = 500;
+
+    @Override
+    @EntityGraph(attributePaths = "warehouse")
+    Optional<Item> findById(Long id);
+
+    // is any warehouse stocking this catalog entry
+    boolean existsBySku(String sku);
+
+    // list reads return ItemView rows built in the select: no entity, no warehouse join (the FK is
+    // the id), nothing for the persistence context to track
+    String VIEW = "select new com.godsvessel.inventory_warehouse.dto.ItemView(i.id, i.sku, i.size, i.quantity, " +
+                  "i.reserved, i.reorderPoint, i.version, i.warehouse.id) from Item i ";
+
+    // keyset pages: "give me the next N rows after this id" (uses the PK index, no OFFSET)
+    @Query(VIEW + "where i.id > :afterId order by i.id")
+    List<ItemView> findPageAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query(VIEW + "where i.warehouse.id = :warehouseId and i.id > :afterId order by i.id")
+    List<ItemView> findPageByWarehouseAfter(@Param("warehouseId") Long warehouseId,
+                                            @Param("afterId") long afterId,
+                                            Pageable pageable);
+
+    // second half of a search: the page of ids SearchService matched
+    @Query(VIEW + "where i.id in :ids")
+    List<ItemView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // streaming reads: the driver pulls FETCH_SIZE rows at a time (needs an open transaction)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + FETCH_SIZE))
+    @Query(VIEW + "order by i.id")
+    Stream<ItemView> streamAll();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + FETCH_SIZE))
+    @Query(VIEW + "where i.warehouse.id = :warehouseId order by i.id")
+    Stream<ItemView> streamByWarehouseId(@Param("warehouseId") Long warehouseId);
+
+    // just enough to decide lock order, without pulling the row into the persistence context
+    @Query("select i.id as id, i.sku as sku, i.warehouse.id as warehouseId from Item i where i.id = :id")
+    Optional<ItemKey> findKeyById(@Param("id") Long id);
+
+    @Query("select i.id as id, i.sku as sku, i.warehouse.id as warehouseId from Item i where i.id in :ids")
+    List<ItemKey> findKeysByIdIn(@Param("ids") Collection<Long> ids);
+
+    // SELECT ... FOR UPDATE; callers must lock rows in (warehouse id, sku) order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = :id")
+    Optional<Item> findByIdForUpdate(@Param("id") Long id);
 
-    @Query("select coalesce(sum(i.quantity), 0) from Item i where i.warehouse.id = :warehouseId")
-    int getTotalQuantityForWarehouse(@Param("warehouseId") Long warehouseId);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.sku = :sku and i.warehouse.id = :warehouseId")
+    Optional<Item> findBySkuAndWarehouseIdForUpdate(@Param("sku") String sku,
+                                                   @Param("warehouseId") Long warehouseId);
+
+    // batch transfers: every (sku, warehouse) row the batch can touch, locked in the same order as above.
+    // skus x warehouses is a superset of the rows needed; the extras are just held until commit
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.sku in :skus and i.warehouse.id in :warehouseIds " +
+           "order by i.warehouse.id, i.sku")
+    List<Item> findBySkuInAndWarehouseIdInForUpdate(@Param("skus") Collection<String> skus,
+                                                   @Param("warehouseIds") Collection<Long> warehouseIds);
 
     @Query("select i from Item i where i.sku = :sku and i.warehouse.id = :warehouseId")
     Optional<Item> findBySkuAndWarehouseId(@Param("sku") String sku,
                                           @Param("warehouseId") Long warehouseId);
-}
\ No newline at end of file
+
+    // reservation holds: 0 when fewer than qty units are available (quantity - reserved). Not
+    // versioned, so a hold doesn't make a client's pending edit of the row stale
+    @Modifying
+    @Query("update Item i set i.reserved = i.reserved + :qty where i.id = :id and i.quantity - i.reserved >= :qty")
+    int reserve(@Param("id") Long id, @Param("qty") int qty);
+
+    @Modifying
+    @Query("update Item i set i.reserved = i.reserved - :qty where i.id = :id and i.reserved >= :qty")
+    int unreserve(@Param("id") Long id, @Param("qty") int qty);
+
+    @Query("select new com.godsvessel.inventory_warehouse.dto.Availability(" +
+           "i.id, i.sku, i.warehouse.id, i.quantity, i.reserved, i.quantity - i.reserved) " +
+           "from Item i where i.sku = :sku and i.warehouse.id = :warehouseId")
+    Optional<Availability> findAvailability(@Param("sku") String sku, @Param("warehouseId") Long warehouseId);
+
+    @Query("select i.quantity - i.reserved from Item i where i.id = :id")
+    Optional<Integer> findAvailableById(@Param("id") Long id);
+
+    // fulfilment: every row that can ship something for these skus, in one query
+    @Query("select i.id as id, i.sku as sku, i.warehouse.id as warehouseId, i.quantity - i.reserved as available " +
+           "from Item i where i.sku in :skus and i.quantity - i.reserved > 0")
+    List<StockRow> findAvailableBySkuIn(@Param("skus") Collection<String> skus);
+
+    // replenishment: rows under their reorder point (startup only; afterwards the engine is fed by writes)
+    @Query("select i.id as id, i.sku as sku, i.warehouse.id as warehouseId, i.quantity as quantity, " +
+           "i.reserved as reserved, i.reorderPoint as reorderPoint " +
+           "from Item i where i.quantity < coalesce(i.reorderPoint, :defaultReorderPoint)")
+    List<StockLevel> findBelowReorderPoint(@Param("defaultReorderPoint") int defaultReorderPoint);
+
+    // replenishment: every row of the short skus, the short rows themselves and their possible sources
+    @Query("select i.id as id, i.sku as sku, i.warehouse.id as warehouseId, i.quantity as quantity, " +
+           "i.reserved as reserved, i.reorderPoint as reorderPoint from Item i where i.sku in :skus")
+    List<StockLevel> findStockLevelsBySkuIn(@Param("skus") Collection<String> skus);
+
+    interface StockLevel {
+        Long getId();
+        String getSku();
+        Long getWarehouseId();
+        Integer getQuantity();
+        Integer getReserved();
+        Integer getReorderPoint();
+    }
+
+    interface StockRow {
+        Long getId();
+        String getSku();
+        Long getWarehouseId();
+        Integer getAvailable();
+    }
+
+    interface ItemKey {
+        Long getId();
+        String getSku();
+        Long getWarehouseId();
+    }
+}
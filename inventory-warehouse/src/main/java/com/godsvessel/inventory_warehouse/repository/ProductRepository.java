@@ -1,11 +1,20 @@
 package com.godsvessel.inventory_warehouse.repository;
 
+import com.godsvessel.inventory_warehouse.config.CacheConfig;
 import com.godsvessel.inventory_warehouse.model.Product;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+    // evicted by ProductService.save/delete; misses are cached too until a product with that sku is saved
+    @Cacheable(cacheNames = CacheConfig.PRODUCT_BY_SKU)
     Optional<Product> findBySku(String sku);
-}
\ No newline at end of file
+
+    // uncached: ProductService fills the productBySku cache from this for catalog lookups, and edits what it returns
+    List<Product> findBySkuIn(Collection<String> skus);
+}
@@ -0,0 +1,27 @@
+package com.godsvessel.inventory_warehouse.repository;
+
+import com.godsvessel.inventory_warehouse.model.Reservation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+
+    // lock order everywhere: reservation rows, then warehouse counters, then item rows
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from Reservation r where r.id = :id")
+    Optional<Reservation> findByIdForUpdate(@Param("id") Long id);
+
+    // next batch for the expiry sweep (index on status, expires_at); id order so two sweeps lock alike
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from Reservation r where r.status = :status and r.expiresAt <= :now order by r.id")
+    List<Reservation> findDueForUpdate(@Param("status") Reservation.Status status, @Param("now") Instant now,
+                                       Pageable pageable);
+}
@@ -1,7 +1,59 @@
 package com.godsvessel.inventory_warehouse.repository;
 
+import com.godsvessel.inventory_warehouse.dto.WarehouseSummary;
 import com.godsvessel.inventory_warehouse.model.Warehouse;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface WarehouseRepository extends JpaRepository<Warehouse, Long> {
-}
\ No newline at end of file
+
+    // returns 0 when the warehouse would go over max capacity (or doesn't exist)
+    @Modifying
+    @Query("update Warehouse w set w.usedCapacity = w.usedCapacity + :qty " +
+           "where w.id = :warehouseId and w.usedCapacity + :qty <= w.maxCapacity")
+    int reserveCapacity(@Param("warehouseId") Long warehouseId, @Param("qty") int qty);
+
+    @Modifying
+    @Query("update Warehouse w set w.usedCapacity = w.usedCapacity - :qty where w.id = :warehouseId")
+    int releaseCapacity(@Param("warehouseId") Long warehouseId, @Param("qty") int qty);
+
+    // sku / low-stock counters behind the dashboard summary; callers only run this when a delta is non-zero
+    @Modifying
+    @Query("update Warehouse w set w.skuCount = w.skuCount + :skus, w.lowStockCount = w.lowStockCount + :lowStock " +
+           "where w.id = :warehouseId")
+    int adjustStockCounts(@Param("warehouseId") Long warehouseId, @Param("skus") int skus,
+                          @Param("lowStock") int lowStock);
+
+    // batch paths lock all touched counters up front, in id order like the single-row updates
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select w from Warehouse w where w.id in :ids order by w.id")
+    List<Warehouse> findAllByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+    // every warehouse row, locked in id order (counter maintenance)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select w from Warehouse w order by w.id")
+    List<Warehouse> findAllForUpdate();
+
+    // rebuilds every counter from the item table (after manual SQL edits); lock the rows first
+    @Modifying
+    @Query("update Warehouse w set " +
+           "w.usedCapacity = (select coalesce(sum(i.quantity), 0) from Item i where i.warehouse = w), " +
+           "w.skuCount = (select count(i) from Item i where i.warehouse = w), " +
+           "w.lowStockCount = (select count(i) from Item i where i.warehouse = w " +
+           "and i.quantity < coalesce(i.reorderPoint, :defaultReorderPoint))")
+    int recalculateCounters(@Param("defaultReorderPoint") int defaultReorderPoint);
+
+    // the whole dashboard in one statement, straight off the counters
+    @Query("select new com.godsvessel.inventory_warehouse.dto.WarehouseSummary(" +
+           "w.id, w.name, w.location, w.maxCapacity, w.usedCapacity, w.maxCapacity - w.usedCapacity, " +
+           "w.skuCount, w.lowStockCount) " +
+           "from Warehouse w order by w.id")
+    List<WarehouseSummary> findSummaries();
+}
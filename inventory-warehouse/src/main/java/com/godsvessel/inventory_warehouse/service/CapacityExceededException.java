@@ -0,0 +1,9 @@
+package com.godsvessel.inventory_warehouse.service;
+
+// a write would push a warehouse over maxCapacity (still a 409 like any IllegalStateException)
+public class CapacityExceededException extends IllegalStateException {
+
+    public CapacityExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.godsvessel.inventory_warehouse.service;
+
+// the (sku, warehouse) pair is already taken (still a 409 like any IllegalStateException)
+public class DuplicateSkuException extends IllegalStateException {
+
+    public DuplicateSkuException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,167 @@
+package com.godsvessel.inventory_warehouse.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// The allocation math behind FulfilmentService, on plain int arrays (no entities, no boxing):
+//   stock[w][l] = units warehouse w can ship for order line l, need[l] = units ordered,
+//   cost[w] = cost of one shipment from w.
+// Goal: fewest shipments (warehouses used), then lowest total shipment cost; a line may be split.
+//  - greedy: repeatedly take the warehouse that covers the most still-open units (cheaper on ties).
+//    O(shipments x warehouses x lines), and it also settles any shortfall
+//  - exact: for small orders, a branch-and-bound over warehouse sets, seeded with the greedy answer
+//    as the bound and stopped after `budget` nodes; `exact` says whether it ran to the end
+public final class FulfilmentPlanner {
+
+    private FulfilmentPlanner() {
+    }
+
+    // take[w][l] = units of line l shipped from w; unfilled[l] = units nobody had
+    public record Plan(int[][] take, int[] unfilled, int shipments, long cost, boolean exact) {
+    }
+
+    public static Plan plan(int[][] stock, int[] need, int[] cost, int exactMaxLines, long budget) {
+        int[] greedy = greedy(stock, need, cost);
+        int[] unfilled = need.clone();
+        for (int w : greedy) {
+            for (int l = 0; l < need.length; l++) unfilled[l] -= Math.min(stock[w][l], unfilled[l]);
+        }
+        boolean covered = Arrays.stream(unfilled).allMatch(u -> u == 0);
+
+        int[] chosen = greedy;
+        // one warehouse that has everything: greedy already took the cheapest of those
+        boolean exact = covered && greedy.length == 1;
+        if (covered && need.length <= exactMaxLines && greedy.length > 1) {
+            Search search = new Search(stock, need, cost, greedy, budget);
+            search.run();
+            chosen = search.best;
+            exact = !search.exhausted;
+        }
+        return new Plan(fill(stock, need, chosen), unfilled, chosen.length, costOf(chosen, cost), exact);
+    }
+
+    private static int[] greedy(int[][] stock, int[] need, int[] cost) {
+        int[] open = need.clone();
+        boolean[] used = new boolean[stock.length];
+        List<Integer> picked = new ArrayList<>();
+        while (true) {
+            int best = -1;
+            long bestCover = 0;
+            for (int w = 0; w < stock.length; w++) {
+                if (used[w]) continue;
+                long cover = 0;
+                for (int l = 0; l < open.length; l++) cover += Math.min(stock[w][l], open[l]);
+                if (cover > bestCover || (cover == bestCover && cover > 0 && cost[w] < cost[best])) {
+                    best = w;
+                    bestCover = cover;
+                }
+            }
+            if (best < 0) break;   // everything covered, or nobody has what is left
+            used[best] = true;
+            picked.add(best);
+            for (int l = 0; l < open.length; l++) open[l] -= Math.min(stock[best][l], open[l]);
+        }
+        return picked.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    // each line is filled from the chosen warehouses in the order they were chosen
+    private static int[][] fill(int[][] stock, int[] need, int[] chosen) {
+        int[][] take = new int[stock.length][need.length];
+        int[] open = need.clone();
+        for (int w : chosen) {
+            for (int l = 0; l < need.length; l++) {
+                int units = Math.min(stock[w][l], open[l]);
+                take[w][l] = units;
+                open[l] -= units;
+            }
+        }
+        return take;
+    }
+
+    private static long costOf(int[] warehouses, int[] cost) {
+        long total = 0;
+        for (int w : warehouses) total += cost[w];
+        return total;
+    }
+
+    private static final class Search {
+        private final int[][] stock;
+        private final int[] need;
+        private final int[] cost;
+        private final int[] candidates;   // useful warehouses, cheapest first
+        private final int[][] rest;       // rest[i][l] = units of line l held by candidates[i..]
+        private final int[] coverage;
+        private final int[] stack;
+        private long budget;
+
+        int[] best;
+        long bestCost;
+        boolean exhausted;
+
+        Search(int[][] stock, int[] need, int[] cost, int[] greedy, long budget) {
+            this.stock = stock;
+            this.need = need;
+            this.cost = cost;
+            this.budget = budget;
+            this.best = greedy;
+            this.bestCost = costOf(greedy, cost);
+
+            List<Integer> useful = new ArrayList<>();
+            for (int w = 0; w < stock.length; w++) {
+                for (int l = 0; l < need.length; l++) {
+                    if (stock[w][l] > 0) { useful.add(w); break; }
+                }
+            }
+            useful.sort((a, b) -> Integer.compare(cost[a], cost[b]));
+            this.candidates = useful.stream().mapToInt(Integer::intValue).toArray();
+
+            this.rest = new int[candidates.length + 1][need.length];
+            for (int i = candidates.length - 1; i >= 0; i--) {
+                for (int l = 0; l < need.length; l++) rest[i][l] = rest[i + 1][l] + stock[candidates[i]][l];
+            }
+            this.coverage = new int[need.length];
+            this.stack = new int[greedy.length];
+        }
+
+        void run() {
+            search(0, 0, 0);
+        }
+
+        private void search(int from, int size, long spent) {
+            if (exhausted) return;
+            if (--budget < 0) { exhausted = true; return; }
+            if (coversAll()) {
+                if (size < best.length || (size == best.length && spent < bestCost)) {
+                    best = Arrays.copyOf(stack, size);
+                    bestCost = spent;
+                }
+                return;
+            }
+            // one more warehouse must still beat the incumbent
+            if (size + 1 > best.length) return;
+            for (int i = from; i < candidates.length; i++) {
+                int w = candidates[i];
+                // candidates are cheapest first: if this one can't win on cost, no later one can
+                if (size + 1 == best.length && spent + cost[w] >= bestCost) return;
+                if (!coverable(i)) return;
+                stack[size] = w;
+                for (int l = 0; l < need.length; l++) coverage[l] += stock[w][l];
+                search(i + 1, size + 1, spent + cost[w]);
+                for (int l = 0; l < need.length; l++) coverage[l] -= stock[w][l];
+                if (exhausted) return;
+            }
+        }
+
+        private boolean coversAll() {
+            for (int l = 0; l < need.length; l++) if (coverage[l] < need[l]) return false;
+            return true;
+        }
+
+        // could candidates[i..] still close every gap?
+        private boolean coverable(int i) {
+            for (int l = 0; l < need.length; l++) if (coverage[l] + rest[i][l] < need[l]) return false;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.godsvessel.inventory_warehouse.service;
+
+import com.godsvessel.inventory_warehouse.dto.AllocationRequest;
+import com.godsvessel.inventory_warehouse.dto.AllocationResult;
+import com.godsvessel.inventory_warehouse.model.Warehouse;
+import com.godsvessel.inventory_warehouse.repository.ItemRepository;
+import com.godsvessel.inventory_warehouse.repository.WarehouseRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Picks source warehouses for an order: fewest shipments first, then the cheapest lanes.
+// Stock is read once per request (one IN query over the order's skus, available = quantity - reserved)
+// into index-addressed int arrays, and FulfilmentPlanner does the rest in memory. The result is
+// advisory: nothing is held, so the caller reserves or transfers against it.
+// Shipment cost comes from inventory.fulfilment.shipment-costs: "origin>destination" lanes first,
+// then "origin", then the default. Locations are compared ignoring case and punctuation.
+@Service
+public class FulfilmentService {
+
+    private final ItemRepository itemRepo;
+    private final WarehouseRepository warehouseRepo;
+    private final InventoryMetrics metrics;
+    private final Map<String, Integer> shipmentCosts = new HashMap<>();
+    private final int defaultShipmentCost;
+    private final int maxLines;
+    private final int exactMaxLines;
+    private final long exactBudget;
+
+    public FulfilmentService(ItemRepository itemRepo, WarehouseRepository warehouseRepo, InventoryMetrics metrics,
+                             @Value("#{${inventory.fulfilment.shipment-costs:{:}}}") Map<String, Integer> shipmentCosts,
+                             @Value("${inventory.fulfilment.default-shipment-cost:10}") int defaultShipmentCost,
+                             @Value("${inventory.fulfilment.max-lines:500}") int maxLines,
+                             @Value("${inventory.fulfilment.exact-max-lines:12}") int exactMaxLines,
+                             @Value("${inventory.fulfilment.exact-budget:200000}") long exactBudget) {
+        this.itemRepo = itemRepo;
+        this.warehouseRepo = warehouseRepo;
+        this.metrics = metrics;
+        shipmentCosts.forEach((lane, cost) -> {
+            int arrow = lane.indexOf('>');
+            String key = (arrow < 0) ? place(lane) : place(lane.substring(0, arrow)) + ">" + place(lane.substring(arrow + 1));
+            this.shipmentCosts.put(key, cost);
+        });
+        this.defaultShipmentCost = defaultShipmentCost;
+        this.maxLines = maxLines;
+        this.exactMaxLines = exactMaxLines;
+        this.exactBudget = exactBudget;
+    }
+
+    @Transactional(readOnly = true)
+    public AllocationResult allocate(AllocationRequest request) {
+        if (request == null || request.lines() == null || request.lines().isEmpty())
+            throw new IllegalArgumentException("At least one order line is required.");
+        if (request.lines().size() > maxLines)
+            throw new IllegalArgumentException("An order can have at most " + maxLines + " lines.");
+
+        // repeated skus are one line
+        Map<String, Integer> ordered = new LinkedHashMap<>();
+        for (AllocationRequest.Line line : request.lines()) {
+            if (line == null || line.sku() == null || line.sku().isBlank())
+                throw new IllegalArgumentException("Every order line needs a SKU.");
+            if (line.quantity() <= 0)
+                throw new IllegalArgumentException("Order quantity must be at least 1 (" + line.sku() + ").");
+            ordered.merge(line.sku(), line.quantity(), Integer::sum);
+        }
+
+        return metrics.time("fulfilment.allocate", null, () -> plan(request.destination(), ordered));
+    }
+
+    private AllocationResult plan(String destination, Map<String, Integer> ordered) {
+        List<String> skus = new ArrayList<>(ordered.keySet());
+        Map<String, Integer> lineOf = new HashMap<>();
+        int[] need = new int[skus.size()];
+        for (int l = 0; l < skus.size(); l++) {
+            lineOf.put(skus.get(l), l);
+            need[l] = ordered.get(skus.get(l));
+        }
+
+        List<ItemRepository.StockRow> rows = itemRepo.findAvailableBySkuIn(skus);
+        Map<Long, Integer> indexOf = new HashMap<>();
+        List<Long> warehouseIds = new ArrayList<>();
+        for (ItemRepository.StockRow row : rows) {
+            indexOf.computeIfAbsent(row.getWarehouseId(), id -> {
+                warehouseIds.add(id);
+                return warehouseIds.size() - 1;
+            });
+        }
+
+        int[][] stock = new int[warehouseIds.size()][need.length];
+        long[][] itemIds = new long[warehouseIds.size()][need.length];
+        for (ItemRepository.StockRow row : rows) {
+            int w = indexOf.get(row.getWarehouseId());
+            int l = lineOf.get(row.getSku());
+            stock[w][l] = row.getAvailable();
+            itemIds[w][l] = row.getId();
+        }
+
+        Map<Long, Warehouse> warehouses = new HashMap<>();
+        for (Warehouse wh : warehouseRepo.findAllById(warehouseIds)) warehouses.put(wh.getId(), wh);
+        int[] cost = new int[warehouseIds.size()];
+        for (int w = 0; w < cost.length; w++) {
+            Warehouse wh = warehouses.get(warehouseIds.get(w));
+            cost[w] = shipmentCost((wh == null) ? null : wh.getLocation(), destination);
+        }
+
+        FulfilmentPlanner.Plan plan = FulfilmentPlanner.plan(stock, need, cost, exactMaxLines, exactBudget);
+
+        List<AllocationResult.Shipment> shipments = new ArrayList<>();
+        for (int w = 0; w < cost.length; w++) {
+            List<AllocationResult.Pick> picks = new ArrayList<>();
+            for (int l = 0; l < need.length; l++) {
+                if (plan.take()[w][l] > 0) picks.add(new AllocationResult.Pick(skus.get(l), itemIds[w][l], plan.take()[w][l]));
+            }
+            if (picks.isEmpty()) continue;
+            Warehouse wh = warehouses.get(warehouseIds.get(w));
+            shipments.add(new AllocationResult.Shipment(warehouseIds.get(w), (wh == null) ? null : wh.getName(),
+                    (wh == null) ? null : wh.getLocation(), cost[w], picks));
+        }
+        List<AllocationResult.Shortfall> shortfalls = new ArrayList<>();
+        for (int l = 0; l < need.length; l++) {
+            if (plan.unfilled()[l] > 0) shortfalls.add(new AllocationResult.Shortfall(skus.get(l), plan.unfilled()[l]));
+        }
+        return new AllocationResult(plan.shipments(), plan.cost(), plan.exact(), shipments, shortfalls);
+    }
+
+    private int shipmentCost(String origin, String destination) {
+        String from = place(origin);
+        if (destination != null) {
+            Integer lane = shipmentCosts.get(from + ">" + place(destination));
+            if (lane != null) return lane;
+        }
+        return shipmentCosts.getOrDefault(from, defaultShipmentCost);
+    }
+
+    // "Greensboro," and "greensboro" are the same place
+    private static String place(String location) {
+        return (location == null) ? "" : location.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+    }
+}
@@ -0,0 +1,9 @@
+package com.godsvessel.inventory_warehouse.service;
+
+// an Idempotency-Key sent again with a different request (422, not a plain 400)
+public class IdempotencyKeyReusedException extends IllegalArgumentException {
+
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,231 @@
+package com.godsvessel.inventory_warehouse.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Idempotency-Key support for retried writes. A key maps to the request it was first used with (a
+// SHA-256 fingerprint) and, once that succeeded, to the JSON response, for inventory.idempotency.ttl.
+//  - hot window: a bounded in-memory LRU answers retries without touching the db, each entry only
+//    until its row's expires_at, so a replay never outlives the stored response
+//  - durable: the idempotency_key table; the row is claimed (inserted) before the write runs, so a
+//    key being executed on another node answers 409 instead of running twice
+//  - concurrent duplicates on this node wait for the one execution and get its response
+// The write and its stored response commit in one transaction, so a key either has its response or
+// nothing of its write happened. A claim without a response is only a lease (inventory.idempotency.
+// lease-seconds): once it runs out the key can be claimed again, which is safe because the write never
+// committed. A failed write drops its claim so the retry runs at once; when the commit itself failed
+// the outcome is unknown and the claim is left to run out instead.
+@Service
+public class IdempotencyService {
+
+    public static final int MAX_KEY_LENGTH = 100;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate txTemplate;
+    private final Duration ttl;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final long waitMs;
+    private final Cache<String, Stored> recent;
+    private final ConcurrentMap<String, CompletableFuture<Stored>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(JdbcTemplate jdbc,
+                              TransactionTemplate txTemplate,
+                              @Value("${inventory.idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${inventory.idempotency.lease-seconds:60}") long leaseSeconds,
+                              @Value("${inventory.idempotency.max-attempts:5}") int maxAttempts,
+                              @Value("${inventory.idempotency.cache-size:10000}") long cacheSize,
+                              @Value("${inventory.idempotency.wait-ms:10000}") long waitMs) {
+        this.jdbc = jdbc;
+        this.txTemplate = txTemplate;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.maxAttempts = maxAttempts;
+        this.waitMs = waitMs;
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(Expiry.writing((String k, Stored stored) -> remaining(stored.expiresAt())))
+                .build();
+    }
+
+    public record Result(byte[] body, boolean replayed) {
+    }
+
+    // runs action once per key; request identifies what the key was sent with (method, path, body)
+    public Result execute(String key, String request, Supplier<byte[]> action) {
+        if (key == null || key.isBlank()) throw new IllegalArgumentException("Idempotency-Key must not be blank.");
+        if (key.length() > MAX_KEY_LENGTH)
+            throw new IllegalArgumentException("Idempotency-Key can be at most " + MAX_KEY_LENGTH + " characters.");
+        String fingerprint = fingerprint(request);
+
+        Stored hit = recent.getIfPresent(key);
+        if (hit != null) return replay(key, hit, fingerprint);
+
+        CompletableFuture<Stored> mine = new CompletableFuture<>();
+        CompletableFuture<Stored> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) return replay(key, await(running), fingerprint);
+
+        try {
+            Instant claimedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+            Stored stored = claim(key, fingerprint, claimedAt);
+            if (stored != null) {
+                mine.complete(stored);
+                return replay(key, stored, fingerprint);
+            }
+
+            Instant expiresAt = Instant.now().plus(ttl);
+            byte[] body = runAndStore(key, claimedAt, expiresAt, action);
+            Stored done = new Stored(fingerprint, body, expiresAt);
+            recent.put(key, done);
+            mine.complete(done);
+            return new Result(body, false);
+        } finally {
+            if (!mine.isDone()) mine.completeExceptionally(new IllegalStateException("Request was not completed."));
+            inFlight.remove(key, mine);
+        }
+    }
+
+    // drops expired keys; the LRU expires its copies on its own
+    @Scheduled(fixedDelayString = "${inventory.idempotency.purge-interval-ms:600000}")
+    public int purgeExpired() {
+        return jdbc.update("delete from idempotency_key where expires_at <= ?", Timestamp.from(Instant.now()));
+    }
+
+    // the action and the response it produced commit together. The writes it runs join this
+    // transaction, so a lock/version conflict rolls back the whole attempt and it is retried here.
+    private byte[] runAndStore(String key, Instant claimedAt, Instant expiresAt, Supplier<byte[]> action) {
+        for (int attempt = 1; ; attempt++) {
+            boolean[] ranToEnd = {false};
+            try {
+                return txTemplate.execute(status -> {
+                    byte[] body = action.get();
+                    // our lease ran out and the key was claimed again: roll back rather than write twice
+                    int stored = jdbc.update("update idempotency_key set response_body = ?, expires_at = ? "
+                                    + "where idem_key = ? and created_at = ? and response_body is null",
+                            new String(body, StandardCharsets.UTF_8), Timestamp.from(expiresAt),
+                            key, Timestamp.from(claimedAt));
+                    if (stored == 0)
+                        throw new IllegalStateException("A request with Idempotency-Key " + key
+                                + " took too long and was taken over by a retry.");
+                    ranToEnd[0] = true;
+                    return body;
+                });
+            } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+                if (!ranToEnd[0] && attempt < maxAttempts) continue;
+                release(key, claimedAt, ranToEnd[0]);
+                throw new IllegalStateException("Request kept conflicting with other updates, try again.", e);
+            } catch (RuntimeException | Error e) {
+                release(key, claimedAt, ranToEnd[0]);
+                throw e;
+            }
+        }
+    }
+
+    // a rollback from inside the action leaves nothing behind, so the retry may run at once; if the
+    // commit itself failed we can't tell whether it landed, and the claim stays until its lease runs out
+    private void release(String key, Instant claimedAt, boolean committing) {
+        if (committing) return;
+        jdbc.update("delete from idempotency_key where idem_key = ? and created_at = ?", key, Timestamp.from(claimedAt));
+    }
+
+    // null = the key is ours now and the action should run; otherwise what is already there
+    private Stored claim(String key, String fingerprint, Instant now) {
+        Stored existing = load(key, now);
+        if (existing != null) return existing;
+
+        // an expired row is either an old response or an abandoned claim whose write never committed
+        jdbc.update("delete from idempotency_key where idem_key = ? and expires_at <= ?", key, Timestamp.from(now));
+        try {
+            jdbc.update("insert into idempotency_key (idem_key, fingerprint, created_at, expires_at) values (?, ?, ?, ?)",
+                    key, fingerprint, Timestamp.from(now), Timestamp.from(now.plus(lease)));
+            return null;
+        } catch (DuplicateKeyException e) {
+            // another node claimed it between our read and insert
+            Stored raced = load(key, now);
+            return (raced != null) ? raced : new Stored(fingerprint, null, null);
+        }
+    }
+
+    private Stored load(String key, Instant now) {
+        List<Stored> rows = jdbc.query(
+                "select fingerprint, response_body, expires_at from idempotency_key where idem_key = ? and expires_at > ?",
+                (rs, i) -> {
+                    String body = rs.getString("response_body");
+                    return new Stored(rs.getString("fingerprint"),
+                            (body == null) ? null : body.getBytes(StandardCharsets.UTF_8),
+                            rs.getTimestamp("expires_at").toInstant());
+                },
+                key, Timestamp.from(now));
+        if (rows.isEmpty()) return null;
+        Stored stored = rows.get(0);
+        if (stored.body() != null) recent.put(key, stored);
+        return stored;
+    }
+
+    private static Result replay(String key, Stored stored, String fingerprint) {
+        if (!stored.fingerprint().equals(fingerprint))
+            throw new IdempotencyKeyReusedException("Idempotency-Key " + key + " was already used for a different request.");
+        if (stored.body() == null)
+            throw new IllegalStateException("A request with Idempotency-Key " + key + " is still in progress, retry later.");
+        return new Result(stored.body(), true);
+    }
+
+    // a failed first execution fails its coalesced duplicates the same way
+    private Stored await(CompletableFuture<Stored> running) {
+        try {
+            return running.get(waitMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException("Request with the same Idempotency-Key failed.", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("A request with the same Idempotency-Key is still in progress, retry later.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a duplicate request.");
+        }
+    }
+
+    private static Duration remaining(Instant until) {
+        Duration left = Duration.between(Instant.now(), until);
+        return left.isNegative() ? Duration.ZERO : left;
+    }
+
+    private static String fingerprint(String request) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha.digest(request.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // body == null: claimed, still running (or died, then the lease runs out)
+    private record Stored(String fingerprint, byte[] body, Instant expiresAt) {
+    }
+}
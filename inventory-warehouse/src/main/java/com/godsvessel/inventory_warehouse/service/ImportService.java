@@ -0,0 +1,444 @@
+package com.godsvessel.inventory_warehouse.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.godsvessel.inventory_warehouse.config.CacheConfig;
+import com.godsvessel.inventory_warehouse.dto.ImportResult;
+import com.godsvessel.inventory_warehouse.model.Warehouse;
+import com.godsvessel.inventory_warehouse.repository.WarehouseRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+// Bulk item/product import. The file is parsed one record at a time, rows that can't be parsed or
+// fail the per-row rules are rejected straight away, the rest are COPY'd into a staging table and merged with a
+// handful of set-based statements (duplicate SKUs and capacity are checked there).
+@Service
+public class ImportService {
+
+    private static final List<String> ITEM_COLUMNS = List.of(
+            "import_id", "line_no", "name", "sku", "description", "size", "quantity", "image_url", "warehouse_id");
+    private static final List<String> PRODUCT_COLUMNS = List.of(
+            "import_id", "line_no", "name", "sku", "description", "image_url");
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final JdbcTemplate jdbc;
+    private final WarehouseRepository warehouseRepo;
+    private final ObjectMapper objectMapper;
+    private final CacheManager cacheManager;
+    private final ReplenishmentService replenishment;
+    private final CsvMapper csvMapper = new CsvMapper();
+    private final int maxReportedRejects;
+
+    public ImportService(JdbcTemplate jdbc, WarehouseRepository warehouseRepo,
+                         ObjectMapper objectMapper,
+                         CacheManager cacheManager, ReplenishmentService replenishment,
+                         @Value("${inventory.import.max-reported-rejects:1000}") int maxReportedRejects) {
+        this.jdbc = jdbc;
+        this.warehouseRepo = warehouseRepo;
+        this.objectMapper = objectMapper;
+        this.cacheManager = cacheManager;
+        this.replenishment = replenishment;
+        this.maxReportedRejects = maxReportedRejects;
+    }
+
+    @Transactional
+    public ImportResult importItems(InputStream in, MediaType contentType) {
+        UUID importId = UUID.randomUUID();
+        Map<Long, Warehouse> warehouses = new HashMap<>();
+        warehouseRepo.findAll().forEach(wh -> warehouses.put(wh.getId(), wh));
+
+        List<ImportResult.RejectedRow> rejects = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        Set<Long> touchedWarehouses = new TreeSet<>();
+        long[] counts = new long[2]; // received, rejected before staging
+
+        stage("item_import", ITEM_COLUMNS, in, contentType, rejects, counts, (row, rec, writer) -> {
+            String sku = text(rec, "sku");
+            String reason = null;
+            Integer quantity = null;
+            Long warehouseId = null;
+            try {
+                quantity = integer(rec, "quantity");
+                warehouseId = longValue(rec, "warehouseId");
+            } catch (NumberFormatException e) {
+                reason = "Quantity and warehouseId must be numbers.";
+            }
+
+            // same rules as ItemService.save; the name is checked once staged, against the catalog
+            if (reason == null) {
+                if (warehouseId == null) reason = "Warehouse is required.";
+                else if (isBlank(sku)) reason = "SKU is required.";
+                else if (quantity == null || quantity < 0) reason = "Quantity cannot be negative.";
+                else if (!warehouses.containsKey(warehouseId)) reason = "Warehouse not found: " + warehouseId;
+                else if (!seen.add(warehouseId + "/" + sku)) reason = "SKU appears more than once for this warehouse.";
+            }
+
+            if (reason != null) {
+                counts[1]++;
+                report(rejects, row, sku, reason);
+                return;
+            }
+            touchedWarehouses.add(warehouseId);
+            String name = text(rec, "name");
+            writer.add(importId, row, isBlank(name) ? null : name, sku, text(rec, "description"), text(rec, "size"),
+                    quantity, text(rec, "imageUrl"), warehouseId);
+        });
+
+        if (!touchedWarehouses.isEmpty()) {
+            // hold the capacity counters while we check against them (same lock order as transfers)
+            warehouseRepo.findAllByIdInForUpdate(touchedWarehouses);
+        }
+
+        jdbc.update("""
+                update item_import s set reject_reason = 'SKU already exists in this warehouse.'
+                where s.import_id = ?
+                  and exists (select 1 from item i where i.sku = s.sku and i.warehouse_id = s.warehouse_id)
+                """, importId);
+
+        rejectUnnamed(importId);
+        rejectOverCapacity(importId);
+        // again: a sku's only named row may just have been turned away for capacity
+        rejectUnnamed(importId);
+
+        // skus new to the catalog get their entry from the first accepted row that names them; skus already
+        // in it keep theirs (item rows don't carry catalog fields, so there's nothing else to merge)
+        int newProducts = jdbc.update("""
+                insert into product (id, name, sku, description, image_url)
+                select nextval('product_id_seq'), s.name, s.sku, s.description, s.image_url
+                from item_import s
+                where s.import_id = ? and s.reject_reason is null
+                  and s.line_no = (select min(x.line_no) from item_import x
+                                   where x.import_id = s.import_id and x.sku = s.sku and x.reject_reason is null
+                                     and x.name is not null)
+                  and not exists (select 1 from product p where p.sku = s.sku)
+                order by s.line_no
+                """, importId);
+        if (newProducts > 0) clearCatalogCachesAfterCommit();
+
+        // one nextval per row: Hibernate treats each value as the start of its own block, so this never
+        // collides with ids it has pooled
+        int imported = jdbc.update("""
+                insert into item (id, sku, size, quantity, warehouse_id, version)
+                select nextval('item_id_seq'), sku, size, quantity, warehouse_id, 0
+                from item_import
+                where import_id = ? and reject_reason is null
+                order by line_no
+                """, importId);
+
+        // ledger rows for the new items, straight into the outbox (StockLedger's sweep moves them)
+        jdbc.update("""
+                insert into stock_movement_outbox (id, item_id, warehouse_id, sku, delta, reason, correlation_id, occurred_at)
+                select nextval('stock_movement_id_seq'), i.id, i.warehouse_id, i.sku, i.quantity, 'IMPORTED', ?, current_timestamp
+                from item_import s
+                join item i on i.sku = s.sku and i.warehouse_id = s.warehouse_id
+                where s.import_id = ? and s.reject_reason is null and s.quantity > 0
+                order by s.line_no
+                """, importId, importId);
+
+        // imports only ever add rows, so every counter just goes up by what was accepted; imported rows
+        // have no reorder point of their own, so low stock is against the default
+        jdbc.update("""
+                update warehouse w
+                set used_capacity = used_capacity + (
+                        select coalesce(sum(s.quantity), 0) from item_import s
+                        where s.import_id = ? and s.reject_reason is null and s.warehouse_id = w.id),
+                    sku_count = sku_count + (
+                        select count(*) from item_import s
+                        where s.import_id = ? and s.reject_reason is null and s.warehouse_id = w.id),
+                    low_stock_count = low_stock_count + (
+                        select count(*) from item_import s
+                        where s.import_id = ? and s.reject_reason is null and s.warehouse_id = w.id
+                          and s.quantity < ?)
+                where w.id in (select warehouse_id from item_import where import_id = ? and reject_reason is null)
+                """, importId, importId, importId, replenishment.getDefaultReorderPoint(), importId);
+
+        // new rows skip the ledger's commit hook, so low stock is re-read once this commits
+        if (imported > 0) replenishment.reloadAfterCommit();
+        return finish("item_import", importId, counts, imported, rejects);
+    }
+
+    @Transactional
+    public ImportResult importProducts(InputStream in, MediaType contentType) {
+        UUID importId = UUID.randomUUID();
+        List<ImportResult.RejectedRow> rejects = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        long[] counts = new long[2];
+
+        stage("product_import", PRODUCT_COLUMNS, in, contentType, rejects, counts, (row, rec, writer) -> {
+            String sku = text(rec, "sku");
+            String reason = null;
+            if (isBlank(text(rec, "name"))) reason = "Name is required.";
+            else if (isBlank(sku)) reason = "SKU is required.";
+            else if (!seen.add(sku)) reason = "SKU appears more than once in the file.";
+
+            if (reason != null) {
+                counts[1]++;
+                report(rejects, row, sku, reason);
+                return;
+            }
+            writer.add(importId, row, text(rec, "name"), sku, text(rec, "description"), text(rec, "imageUrl"));
+        });
+
+        jdbc.update("""
+                update product_import s set reject_reason = 'SKU already exists in the catalog.'
+                where s.import_id = ? and exists (select 1 from product p where p.sku = s.sku)
+                """, importId);
+
+        int imported = jdbc.update("""
+                insert into product (id, name, sku, description, image_url)
+                select nextval('product_id_seq'), name, sku, description, image_url
+                from product_import
+                where import_id = ? and reject_reason is null
+                order by line_no
+                """, importId);
+
+        clearCatalogCachesAfterCommit();
+        return finish("product_import", importId, counts, imported, rejects);
+    }
+
+    // as in ItemService.save, a row needs a name only when its sku has no catalog entry yet, and an
+    // accepted row of the same sku in this file that has one will create it
+    private void rejectUnnamed(UUID importId) {
+        jdbc.update("""
+                update item_import s set reject_reason = 'Name is required.'
+                where s.import_id = ? and s.reject_reason is null and s.name is null
+                  and not exists (select 1 from product p where p.sku = s.sku)
+                  and not exists (select 1 from item_import x
+                                  where x.import_id = s.import_id and x.sku = s.sku
+                                    and x.reject_reason is null and x.name is not null)
+                """, importId);
+    }
+
+    // rows are accepted in file order while they fit; a row turned away doesn't use up room, so smaller rows
+    // after it can still go in. That running total isn't a window sum, so it's one ordered pass over the
+    // staged rows (the warehouses are locked, so their counters hold still meanwhile)
+    private void rejectOverCapacity(UUID importId) {
+        Map<Long, long[]> room = new HashMap<>(); // warehouse id -> {used, max}
+        jdbc.query("""
+                select id, used_capacity, max_capacity from warehouse
+                where id in (select warehouse_id from item_import where import_id = ? and reject_reason is null)
+                """, (RowCallbackHandler) rs ->
+                room.put(rs.getLong("id"), new long[]{rs.getLong("used_capacity"), rs.getLong("max_capacity")}),
+                importId);
+
+        List<Object[]> over = new ArrayList<>();
+        jdbc.query("""
+                select line_no, warehouse_id, quantity from item_import
+                where import_id = ? and reject_reason is null
+                order by line_no
+                """, (RowCallbackHandler) rs -> {
+            long[] wh = room.get(rs.getLong("warehouse_id"));
+            long quantity = rs.getLong("quantity");
+            if (wh[0] + quantity > wh[1]) over.add(new Object[]{importId, rs.getLong("line_no")});
+            else wh[0] += quantity;
+        }, importId);
+
+        jdbc.batchUpdate("""
+                update item_import set reject_reason = 'Saving would exceed warehouse capacity.'
+                where import_id = ? and line_no = ?
+                """, over);
+    }
+
+    // catalog caches are keyed by id/sku; after a bulk insert it's simplest to drop them, once committed
+    private void clearCatalogCachesAfterCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                for (String name : List.of(CacheConfig.PRODUCTS, CacheConfig.PRODUCT_BY_ID, CacheConfig.PRODUCT_BY_SKU)) {
+                    Cache cache = cacheManager.getCache(name);
+                    if (cache != null) cache.clear();
+                }
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface RowHandler {
+        void handle(long row, Map<String, Object> record, ImportStagingWriter writer) throws SQLException;
+    }
+
+    // counts[0] = records read, counts[1] = rejected; records that don't parse are rejected here, the
+    // rest go to the handler
+    private void stage(String table, List<String> columns, InputStream in, MediaType contentType,
+                       List<ImportResult.RejectedRow> rejects, long[] counts, RowHandler handler) {
+        jdbc.execute((ConnectionCallback<Void>) con -> {
+            try (Records records = open(in, contentType);
+                 ImportStagingWriter writer = ImportStagingWriter.open(con, table, columns)) {
+                long row = 0;
+                for (Parsed next = records.next(); next != null; next = records.next()) {
+                    counts[0]++;
+                    row++;
+                    if (next.record() == null) {
+                        counts[1]++;
+                        report(rejects, row, null, "Malformed record: " + next.error());
+                    } else {
+                        handler.handle(row, next.record(), writer);
+                    }
+                }
+                writer.finish();
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Could not read import file: " + e.getMessage());
+            }
+            return null;
+        });
+    }
+
+    // one record, or why it couldn't be parsed
+    private record Parsed(Map<String, Object> record, String error) {
+    }
+
+    // null once the input is used up
+    private interface Records extends Closeable {
+        Parsed next() throws IOException;
+    }
+
+    private Records open(InputStream in, MediaType contentType) throws IOException {
+        if (contentType != null && contentType.isCompatibleWith(NDJSON)) {
+            return ndjsonRecords(in);
+        } else if (contentType != null && contentType.isCompatibleWith(MediaType.parseMediaType("text/csv"))) {
+            ObjectReader reader = csvMapper.readerFor(Map.class).with(CsvSchema.emptySchema().withHeader());
+            return csvRecords(reader.readValues(in));
+        } else {
+            throw new IllegalArgumentException("Import expects text/csv or application/x-ndjson.");
+        }
+    }
+
+    // a line at a time: the streaming JSON parser can't find its feet again after a syntax error, a
+    // line boundary always can. Blank lines are skipped
+    private Records ndjsonRecords(InputStream in) {
+        BufferedReader lines = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        ObjectReader reader = objectMapper.readerFor(Map.class);
+        return new Records() {
+            @Override
+            public Parsed next() throws IOException {
+                String line;
+                do {
+                    line = lines.readLine();
+                    if (line == null) return null;
+                } while (line.isBlank());
+                try {
+                    Map<String, Object> rec = reader.readValue(line);
+                    return (rec == null) ? new Parsed(null, "not a JSON object") : new Parsed(rec, null);
+                } catch (JsonProcessingException e) {
+                    return new Parsed(null, e.getOriginalMessage());
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                lines.close();
+            }
+        };
+    }
+
+    // the CSV parser carries on from the next line after a bad one. If it fails twice at the same
+    // spot (e.g. a quote that's never closed) there's nothing left to read
+    private Records csvRecords(MappingIterator<Map<String, Object>> it) {
+        return new Records() {
+            long lastFailedAt = -1;
+
+            @Override
+            public Parsed next() throws IOException {
+                try {
+                    return it.hasNextValue() ? new Parsed(it.nextValue(), null) : null;
+                } catch (JsonProcessingException | RuntimeJsonMappingException e) {
+                    long at = it.getCurrentLocation().getCharOffset();
+                    if (at == lastFailedAt) return null;
+                    lastFailedAt = at;
+                    String error = (e instanceof JsonProcessingException jpe) ? jpe.getOriginalMessage() : e.getMessage();
+                    return new Parsed(null, error);
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                it.close();
+            }
+        };
+    }
+
+    // rejects found by the merge statements, then clear the staging rows
+    private ImportResult finish(String table, UUID importId, long[] counts, int imported,
+                                List<ImportResult.RejectedRow> rejects) {
+        Long mergeRejected = jdbc.queryForObject(
+                "select count(*) from " + table + " where import_id = ? and reject_reason is not null",
+                Long.class, importId);
+
+        int room = maxReportedRejects - rejects.size();
+        if (room > 0 && mergeRejected != null && mergeRejected > 0) {
+            jdbc.query(con -> {
+                        var ps = con.prepareStatement("select line_no, sku, reject_reason from " + table +
+                                " where import_id = ? and reject_reason is not null order by line_no");
+                        ps.setObject(1, importId);
+                        ps.setMaxRows(room);
+                        return ps;
+                    },
+                    rs -> {
+                        rejects.add(new ImportResult.RejectedRow(
+                                rs.getLong("line_no"), rs.getString("sku"), rs.getString("reject_reason")));
+                    });
+            rejects.sort((a, b) -> Long.compare(a.row(), b.row()));
+        }
+
+        jdbc.update("delete from " + table + " where import_id = ?", importId);
+
+        long rejected = counts[1] + (mergeRejected == null ? 0 : mergeRejected);
+        return new ImportResult(counts[0], imported, rejected, rejects);
+    }
+
+    private void report(List<ImportResult.RejectedRow> rejects, long row, String sku, String reason) {
+        if (rejects.size() < maxReportedRejects) rejects.add(new ImportResult.RejectedRow(row, sku, reason));
+    }
+
+    private static String text(Map<String, Object> rec, String field) {
+        Object v = rec.get(field);
+        if (v == null) return null;
+        String s = v.toString();
+        return s.isEmpty() ? null : s;
+    }
+
+    private static Integer integer(Map<String, Object> rec, String field) {
+        String s = text(rec, field);
+        return (s == null) ? null : Integer.valueOf(s.trim());
+    }
+
+    private static Long longValue(Map<String, Object> rec, String field) {
+        String s = text(rec, field);
+        return (s == null) ? null : Long.valueOf(s.trim());
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.trim().isEmpty();
+    }
+}
@@ -0,0 +1,118 @@
+package com.godsvessel.inventory_warehouse.service;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+// Streams rows into an import staging table. On PostgreSQL this is a single COPY ... FROM STDIN;
+// anywhere else (H2 in tests) it falls back to batched INSERTs.
+abstract class ImportStagingWriter implements AutoCloseable {
+
+    static ImportStagingWriter open(Connection con, String table, List<String> columns) throws SQLException {
+        if (con.isWrapperFor(PGConnection.class)) {
+            return new Copy(con.unwrap(PGConnection.class), table, columns);
+        }
+        return new Batch(con, table, columns);
+    }
+
+    abstract void add(Object... values) throws SQLException;
+
+    // finish the load; the writer must not be used afterwards
+    abstract void finish() throws SQLException;
+
+    @Override
+    public abstract void close() throws SQLException;
+
+    private static final class Copy extends ImportStagingWriter {
+
+        private static final int FLUSH_BYTES = 64 * 1024;
+
+        private final CopyIn copyIn;
+        private final ByteArrayOutputStream buf = new ByteArrayOutputStream(FLUSH_BYTES + 1024);
+
+        Copy(PGConnection con, String table, List<String> columns) throws SQLException {
+            this.copyIn = con.getCopyAPI().copyIn(
+                    "COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN WITH (FORMAT csv)");
+        }
+
+        @Override
+        void add(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) buf.write(',');
+                writeCsv(values[i]);
+            }
+            buf.write('\n');
+            if (buf.size() >= FLUSH_BYTES) flush();
+        }
+
+        @Override
+        void finish() throws SQLException {
+            flush();
+            copyIn.endCopy();
+        }
+
+        @Override
+        public void close() throws SQLException {
+            if (copyIn.isActive()) copyIn.cancelCopy();
+        }
+
+        private void flush() throws SQLException {
+            if (buf.size() == 0) return;
+            copyIn.writeToCopy(buf.toByteArray(), 0, buf.size());
+            buf.reset();
+        }
+
+        // null -> empty unquoted field (COPY csv reads it as NULL); everything else quoted
+        private void writeCsv(Object value) {
+            if (value == null) return;
+            String s = value.toString();
+            buf.write('"');
+            byte[] bytes = s.replace("\"", "\"\"").getBytes(StandardCharsets.UTF_8);
+            buf.write(bytes, 0, bytes.length);
+            buf.write('"');
+        }
+    }
+
+    private static final class Batch extends ImportStagingWriter {
+
+        private static final int BATCH_SIZE = 500;
+
+        private final PreparedStatement ps;
+        private int pending;
+
+        Batch(Connection con, String table, List<String> columns) throws SQLException {
+            String marks = String.join(", ", columns.stream().map(c -> "?").toList());
+            this.ps = con.prepareStatement(
+                    "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES (" + marks + ")");
+        }
+
+        @Override
+        void add(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                ps.setObject(i + 1, values[i]);
+            }
+            ps.addBatch();
+            if (++pending >= BATCH_SIZE) {
+                ps.executeBatch();
+                pending = 0;
+            }
+        }
+
+        @Override
+        void finish() throws SQLException {
+            if (pending > 0) ps.executeBatch();
+            pending = 0;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            ps.close();
+        }
+    }
+}
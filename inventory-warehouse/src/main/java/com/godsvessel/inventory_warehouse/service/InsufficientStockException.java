@@ -0,0 +1,9 @@
+package com.godsvessel.inventory_warehouse.service;
+
+// not enough unreserved stock to hold (still a 409 like any IllegalStateException)
+public class InsufficientStockException extends IllegalStateException {
+
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,68 @@
+package com.godsvessel.inventory_warehouse.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+// Timers for the item write paths, tagged by warehouse and outcome:
+//   ok | validation_error (400) | capacity_conflict | sku_conflict | stock_conflict | conflict (other 409s) | error
+// Timer counts double as the per-outcome counters. Percentile histograms are switched on for every
+// "inventory.*" meter in application.yml.
+@Component
+public class InventoryMetrics {
+
+    private final MeterRegistry registry;
+    private final boolean warehouseTag;
+    private final Counter transferRetries;
+
+    public InventoryMetrics(MeterRegistry registry,
+                            @Value("${inventory.metrics.warehouse-tag:true}") boolean warehouseTag) {
+        this.registry = registry;
+        this.warehouseTag = warehouseTag;
+        this.transferRetries = Counter.builder("inventory.item.transfer.retries")
+                .description("Transfer attempts rolled back on a lock/version conflict and run again")
+                .register(registry);
+    }
+
+    public <T> T time(String operation, Long warehouseId, Supplier<T> work) {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "error";
+        try {
+            T result = work.get();
+            outcome = "ok";
+            return result;
+        } catch (RuntimeException e) {
+            outcome = outcome(e);
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("inventory." + operation)
+                    .tag("warehouse", (warehouseTag && warehouseId != null) ? warehouseId.toString() : "all")
+                    .tag("outcome", outcome)
+                    .register(registry));
+        }
+    }
+
+    public void run(String operation, Long warehouseId, Runnable work) {
+        time(operation, warehouseId, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public void transferRetried() {
+        transferRetries.increment();
+    }
+
+    private static String outcome(RuntimeException e) {
+        if (e instanceof CapacityExceededException) return "capacity_conflict";
+        if (e instanceof DuplicateSkuException) return "sku_conflict";
+        if (e instanceof InsufficientStockException) return "stock_conflict";
+        if (e instanceof IllegalArgumentException) return "validation_error";
+        if (e instanceof IllegalStateException) return "conflict";
+        return "error";
+    }
+}
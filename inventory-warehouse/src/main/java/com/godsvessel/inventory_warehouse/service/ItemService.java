@@ -1,132 +1,729 @@
 package com.godsvessel.inventory_warehouse.service;
 
+import com.godsvessel.inventory_warehouse.dto.ItemView;
+import com.godsvessel.inventory_warehouse.dto.TransferBatchRequest;
+import com.godsvessel.inventory_warehouse.dto.TransferBatchResult;
 import com.godsvessel.inventory_warehouse.model.Item;
+import com.godsvessel.inventory_warehouse.model.Product;
+import com.godsvessel.inventory_warehouse.model.StockMovementEvent;
 import com.godsvessel.inventory_warehouse.model.Warehouse;
 import com.godsvessel.inventory_warehouse.repository.ItemRepository;
 import com.godsvessel.inventory_warehouse.repository.WarehouseRepository;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class ItemService {
 
+    private static final String STALE_ITEM = "Item was changed by someone else, reload and try again.";
+
     private final ItemRepository repo;
     private final WarehouseRepository warehouseRepo;
+    private final WarehouseService warehouseService;
+    private final TransactionTemplate txTemplate;
+    private final InventoryMetrics metrics;
+    private final StockLedger ledger;
+    private final ReplenishmentService replenishment;
+    private final ProductService productService;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int maxTransferAttempts;
+    private final int maxBatchLines;
 
-    public ItemService(ItemRepository repo, WarehouseRepository warehouseRepo) {
+    public ItemService(ItemRepository repo, WarehouseRepository warehouseRepo, WarehouseService warehouseService,
+                       TransactionTemplate txTemplate,
+                       InventoryMetrics metrics, StockLedger ledger, ReplenishmentService replenishment,
+                       ProductService productService,
+                       @Value("${inventory.items.page-size:200}") int defaultPageSize,
+                       @Value("${inventory.items.max-page-size:1000}") int maxPageSize,
+                       @Value("${inventory.transfer.max-attempts:5}") int maxTransferAttempts,
+                       @Value("${inventory.transfer.max-batch-lines:1000}") int maxBatchLines) {
         this.repo = repo;
         this.warehouseRepo = warehouseRepo;
+        this.warehouseService = warehouseService;
+        this.txTemplate = txTemplate;
+        this.metrics = metrics;
+        this.ledger = ledger;
+        this.replenishment = replenishment;
+        this.productService = productService;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.maxTransferAttempts = maxTransferAttempts;
+        this.maxBatchLines = maxBatchLines;
     }
 
-    public List<Item> getAll() {
-        return repo.findAll();
+    public int getDefaultPageSize() {
+        return defaultPageSize;
     }
 
-    public List<Item> getByWarehouse(Long warehouseId) {
-        return repo.findByWarehouseId(warehouseId);
+    // keyset page: rows with id > afterId, in id order (warehouseId is optional)
+    @Transactional(readOnly = true)
+    public List<ItemView> getPage(Long warehouseId, Long afterId, Integer limit) {
+        int size = (limit == null) ? defaultPageSize : limit;
+        if (size < 1 || size > maxPageSize)
+            throw new IllegalArgumentException("Page size must be between 1 and " + maxPageSize + ".");
+
+        long after = (afterId == null) ? 0L : afterId;
+        PageRequest page = PageRequest.of(0, size);
+        return withCatalog((warehouseId == null)
+                ? repo.findPageAfter(after, page)
+                : repo.findPageByWarehouseAfter(warehouseId, after, page));
     }
 
+    // catalog fields for a page of item rows, from the catalog cache (one query for whatever missed)
+    public List<ItemView> withCatalog(List<ItemView> views) {
+        Map<String, Product> catalog = productService.catalog(views.stream().map(ItemView::sku).toList());
+        return views.stream().map(v -> v.withCatalog(catalog.get(v.sku()))).toList();
+    }
+
+    // hands every item to the consumer one at a time; the rows are projections, not entities, so
+    // nothing piles up in the persistence context however big the table is. Catalog fields are
+    // filled a fetch's worth of rows at a time (one lookup for that chunk's skus)
+    @Transactional(readOnly = true)
+    public void streamAll(Long warehouseId, Consumer<ItemView> consumer) {
+        List<ItemView> chunk = new ArrayList<>(ItemRepository.FETCH_SIZE);
+        try (Stream<ItemView> items = (warehouseId == null) ? repo.streamAll() : repo.streamByWarehouseId(warehouseId)) {
+            items.forEach(v -> {
+                chunk.add(v);
+                if (chunk.size() == ItemRepository.FETCH_SIZE) {
+                    withCatalog(chunk).forEach(consumer);
+                    chunk.clear();
+                }
+            });
+        }
+        withCatalog(chunk).forEach(consumer);
+    }
+
+    @Transactional(readOnly = true)
     public Item getById(Long id) {
-        return repo.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Item not found with id " + id));
+        return withCatalog(repo.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Item not found with id " + id)));
     }
 
     @Transactional
     public Item save(Item item) {
-        if (item == null) throw new IllegalArgumentException("Item is required.");
+        Long warehouseId = (item != null && item.getWarehouse() != null) ? item.getWarehouse().getId() : null;
+        return metrics.time("item.save", warehouseId, () -> doSave(item, warehouseId));
+    }
 
-        Long warehouseId = (item.getWarehouse() != null) ? item.getWarehouse().getId() : null;
+    private Item doSave(Item item, Long warehouseId) {
+        if (item == null) throw new IllegalArgumentException("Item is required.");
         if (warehouseId == null) throw new IllegalArgumentException("Warehouse is required.");
 
-        if (isBlank(item.getName())) throw new IllegalArgumentException("Name is required.");
         if (isBlank(item.getSku())) throw new IllegalArgumentException("SKU is required.");
+        // the name lives on the catalog entry: only a sku that has none yet must bring one
+        if (isBlank(item.getName()) && productService.catalogEntry(item.getSku()) == null)
+            throw new IllegalArgumentException("Name is required.");
         if (item.getQuantity() == null || item.getQuantity() < 0)
             throw new IllegalArgumentException("Quantity cannot be negative.");
+        if (item.getReorderPoint() != null && item.getReorderPoint() < 0)
+            throw new IllegalArgumentException("Reorder point cannot be negative.");
 
-        Warehouse wh = warehouseRepo.findById(warehouseId)
-                .orElseThrow(() -> new IllegalArgumentException("Warehouse not found: " + warehouseId));
+        // the cached copy only proves the warehouse exists; it's shared, so the item gets a reference instead
+        if (warehouseService.findCachedWh(warehouseId).isEmpty())
+            throw new IllegalArgumentException("Warehouse not found: " + warehouseId);
+        Warehouse wh = warehouseRepo.getReferenceById(warehouseId);
         item.setWarehouse(wh);
 
-        // IMPORTANT: enforce (sku + warehouse) uniqueness at app-level too
-        repo.findBySkuAndWarehouseId(item.getSku(), warehouseId).ifPresent(existing -> {
-            if (item.getId() == null || !existing.getId().equals(item.getId())) {
-                throw new IllegalStateException("SKU already exists in this warehouse.");
+        // capacity check on create/update: reserve against the warehouse counter instead of SUM-ing items
+        String overCapacity = "Saving would exceed warehouse capacity.";
+        Item toSave = item;
+        Long oldWarehouseId = null;
+        int oldQty = 0;
+        if (item.getId() == null) {
+            requireSkuFree(item.getSku(), warehouseId, null);
+            adjustCapacity(warehouseId, item.getQuantity(), overCapacity);
+            adjustStockCounts(warehouseId, 1, lowStock(item.getQuantity(), item.getReorderPoint()));
+        } else {
+            ItemRepository.ItemKey key = repo.findKeyById(item.getId())
+                    .orElseThrow(() -> new IllegalArgumentException("Item not found with id " + item.getId()));
+            // lock before reading anything of this row: an earlier unlocked read would leave a managed copy
+            // that the locking query hands back as is, and the checks below would run on stale state
+            Item old = lockForWrite(key, warehouseId);
+            requireSkuFree(item.getSku(), warehouseId, old.getId());
+            if (item.getVersion() != null && !item.getVersion().equals(old.getVersion())) {
+                throw new IllegalStateException(STALE_ITEM);
             }
-        });
 
-        // OPTIONAL capacity check on create/update (keeps your rubric happy)
-        int currentQty = repo.getTotalQuantityForWarehouse(warehouseId);
-        int max = wh.getMaxCapacity();
-        // if updating, avoid double-counting current row
-        if (item.getId() != null) {
-            Item old = getById(item.getId());
-            currentQty -= (old.getQuantity() == null ? 0 : old.getQuantity());
-        }
-        if (currentQty + item.getQuantity() > max) {
-            throw new IllegalStateException("Saving would exceed warehouse capacity.");
+            oldWarehouseId = old.getWarehouse().getId();
+            oldQty = (old.getQuantity() == null ? 0 : old.getQuantity());
+            // held units must stay on this row. The row is locked, so no hold can land between this check
+            // and the write; ck_item_reserved alone would only stop the quantity dropping below reserved
+            if (old.getReserved() > 0) {
+                if (!oldWarehouseId.equals(warehouseId))
+                    throw new IllegalStateException("Item has reserved stock and can't change warehouse.");
+                if (item.getQuantity() < old.getReserved())
+                    throw new IllegalStateException("Quantity can't go below the " + old.getReserved() + " units reserved.");
+            }
+            if (oldWarehouseId.equals(warehouseId)) {
+                adjustCapacity(warehouseId, item.getQuantity() - oldQty, overCapacity);
+                adjustStockCounts(warehouseId, 0,
+                        lowStock(item.getQuantity(), item.getReorderPoint()) - lowStock(oldQty, old.getReorderPoint()));
+            } else {
+                // moved to another warehouse: give back the old slot, take a new one
+                moveCapacity(oldWarehouseId, oldQty, warehouseId, item.getQuantity(), overCapacity);
+                moveStockCounts(oldWarehouseId, lowStock(oldQty, old.getReorderPoint()),
+                        warehouseId, lowStock(item.getQuantity(), item.getReorderPoint()));
+            }
+
+            // update the managed row so @Version checks against what we just read
+            old.setSku(item.getSku());
+            old.setSize(item.getSize());
+            old.setQuantity(item.getQuantity());
+            old.setReorderPoint(item.getReorderPoint());
+            old.setWarehouse(wh);
+            toSave = old;
         }
 
+        Item saved;
+        Product product;
         try {
-            return repo.save(item);
+            product = productService.putCatalogEntry(item.getSku(), item.getName(), item.getDescription(),
+                    item.getImageUrl());
+            saved = repo.saveAndFlush(toSave);
         } catch (DataIntegrityViolationException e) {
-            throw new IllegalStateException("Data integrity error (duplicate sku+warehouse or invalid FK).");
+            throw integrityError(e);
+        } catch (OptimisticLockingFailureException e) {
+            throw new IllegalStateException(STALE_ITEM);
+        }
+
+        // ledger: what this row's quantity did in each warehouse
+        if (oldWarehouseId == null) {
+            ledger.record(saved, warehouseId, saved.getQuantity(), StockMovementEvent.Reason.CREATED, null);
+        } else if (oldWarehouseId.equals(warehouseId)) {
+            ledger.record(saved, warehouseId, saved.getQuantity() - oldQty, StockMovementEvent.Reason.ADJUSTED, null);
+        } else {
+            UUID move = UUID.randomUUID();
+            ledger.record(saved, oldWarehouseId, -oldQty, StockMovementEvent.Reason.MOVED_OUT, move);
+            ledger.record(saved, warehouseId, saved.getQuantity(), StockMovementEvent.Reason.MOVED_IN, move);
         }
+        // no movement (new empty row, or only the reorder point changed): the ledger won't report it
+        boolean moved = (oldWarehouseId == null) ? saved.getQuantity() != 0
+                : !oldWarehouseId.equals(warehouseId) || saved.getQuantity() != oldQty;
+        if (!moved) replenishment.track(saved, warehouseId, false);
+        return withCatalog(saved, product);
     }
 
+    @Transactional
     public void delete(Long id) {
-        if (!repo.existsById(id)) throw new IllegalArgumentException("Item not found: " + id);
-        repo.deleteById(id);
+        ItemRepository.ItemKey key = repo.findKeyById(id).orElse(null);
+        metrics.run("item.delete", (key == null) ? null : key.getWarehouseId(), () -> {
+            if (key == null) throw new IllegalArgumentException("Item not found: " + id);
+            // locked, so a hold can't land between the reserved check and the delete
+            Item item = lockForWrite(key, key.getWarehouseId());
+            if (item.getReserved() > 0) throw new IllegalStateException("Item has reserved stock and can't be deleted.");
+            adjustCapacity(item.getWarehouse().getId(), -(item.getQuantity() == null ? 0 : item.getQuantity()), null);
+            adjustStockCounts(item.getWarehouse().getId(), -1, -lowStock(item.getQuantity(), item.getReorderPoint()));
+            ledger.record(item, item.getWarehouse().getId(), -(item.getQuantity() == null ? 0 : item.getQuantity()),
+                    StockMovementEvent.Reason.DELETED, null);
+            if (item.getQuantity() == null || item.getQuantity() == 0) replenishment.track(item, item.getWarehouse().getId(), true);
+            try {
+                repo.delete(item);
+                repo.flush();
+            } catch (OptimisticLockingFailureException e) {
+                throw new IllegalStateException(STALE_ITEM);
+            }
+        });
     }
 
-    @Transactional
+    // timed across all attempts, so retries show up in the latency (and in inventory.item.transfer.retries)
     public Item transfer(Long itemId, Long targetWarehouseId, int quantity) {
-        Item sourceItem = getById(itemId);
+        return metrics.time("item.transfer", targetWarehouseId,
+                () -> inTransactionWithRetry(status -> doTransfer(itemId, targetWarehouseId, quantity)));
+    }
+
+    // many transfers in one transaction: one IN query for the sources, one locking query for the
+    // warehouse counters and one for the item rows, then batched writes
+    public TransferBatchResult transferBatch(TransferBatchRequest request) {
+        if (request == null || request.lines() == null || request.lines().isEmpty())
+            throw new IllegalArgumentException("At least one transfer line is required.");
+        if (request.lines().size() > maxBatchLines)
+            throw new IllegalArgumentException("A transfer batch can have at most " + maxBatchLines + " lines.");
+
+        TransferBatchRequest.Mode mode = (request.mode() == null) ? TransferBatchRequest.Mode.ALL_OR_NOTHING : request.mode();
+        return metrics.time("item.transfer.batch", null,
+                () -> inTransactionWithRetry(status -> doTransferBatch(request.lines(), mode, status)));
+    }
 
-        Long sourceWarehouseId = (sourceItem.getWarehouse() != null) ? sourceItem.getWarehouse().getId() : null;
+    private Item doTransfer(Long itemId, Long targetWarehouseId, int quantity) {
+        if (targetWarehouseId == null) throw new IllegalArgumentException("Target warehouse is required.");
+        if (quantity <= 0) throw new IllegalArgumentException("Transfer quantity must be at least 1.");
+
+        ItemRepository.ItemKey key = repo.findKeyById(itemId)
+                .orElseThrow(() -> new IllegalArgumentException("Item not found with id " + itemId));
+
+        String sku = key.getSku();
+        Long sourceWarehouseId = key.getWarehouseId();
         if (sourceWarehouseId == null) throw new IllegalStateException("Source item has no warehouse assigned.");
 
         if (targetWarehouseId.equals(sourceWarehouseId)) {
             throw new IllegalArgumentException("Target warehouse must be different from source warehouse.");
         }
 
-        if (quantity <= 0) throw new IllegalArgumentException("Transfer quantity must be at least 1.");
-        if (quantity <= 0 || quantity > sourceItem.getQuantity()) {
-            throw new IllegalArgumentException("Invalid transfer quantity.");
-        }
+        if (warehouseService.findCachedWh(targetWarehouseId).isEmpty())
+            throw new IllegalArgumentException("Target warehouse not found: " + targetWarehouseId);
+        Warehouse targetWarehouse = warehouseRepo.getReferenceById(targetWarehouseId);
 
-        Warehouse targetWarehouse = warehouseRepo.findById(targetWarehouseId)
-                .orElseThrow(() -> new IllegalArgumentException("Target warehouse not found: " + targetWarehouseId));
+        // lock order everywhere: warehouse counters (by id), then item rows (by warehouse id, sku)
+        moveCapacity(sourceWarehouseId, quantity, targetWarehouseId, quantity,
+                "Transfer would exceed warehouse capacity.");
 
-        int currentTargetQty = repo.getTotalQuantityForWarehouse(targetWarehouseId);
-        int maxCapacity = targetWarehouse.getMaxCapacity();
-        if (currentTargetQty + quantity > maxCapacity) {
-            throw new IllegalStateException("Transfer would exceed warehouse capacity.");
+        Item sourceItem;
+        Item targetItem;
+        if (sourceWarehouseId < targetWarehouseId) {
+            sourceItem = lockSource(itemId, sku, sourceWarehouseId);
+            targetItem = repo.findBySkuAndWarehouseIdForUpdate(sku, targetWarehouseId).orElse(null);
+        } else {
+            targetItem = repo.findBySkuAndWarehouseIdForUpdate(sku, targetWarehouseId).orElse(null);
+            sourceItem = lockSource(itemId, sku, sourceWarehouseId);
+        }
+
+        // reserved units are promised to a checkout and stay put
+        if (quantity > sourceItem.getQuantity() - sourceItem.getReserved()) {
+            throw new IllegalArgumentException("Invalid transfer quantity.");
         }
 
         // subtract from source
+        int sourceLowBefore = lowStock(sourceItem.getQuantity(), sourceItem.getReorderPoint());
         sourceItem.setQuantity(sourceItem.getQuantity() - quantity);
 
         // add to existing target sku row OR create new row
-        Item targetItem = repo.findBySkuAndWarehouseId(sourceItem.getSku(), targetWarehouseId)
-                .orElseGet(() -> {
-                    Item i = new Item();
-                    i.setName(sourceItem.getName());
-                    i.setSku(sourceItem.getSku());
-                    i.setDescription(sourceItem.getDescription());
-                    i.setSize(sourceItem.getSize());
-                    i.setImageUrl(sourceItem.getImageUrl());
-                    i.setQuantity(0);
-                    i.setWarehouse(targetWarehouse);
-                    return i;
-                });
+        boolean newTargetRow = (targetItem == null);
+        int targetLowBefore = newTargetRow ? 0 : lowStock(targetItem.getQuantity(), targetItem.getReorderPoint());
+        if (newTargetRow) {
+            // the catalog fields live on the sku's product, there is nothing to copy
+            targetItem = new Item();
+            targetItem.setSku(sourceItem.getSku());
+            targetItem.setSize(sourceItem.getSize());
+            targetItem.setQuantity(0);
+            targetItem.setWarehouse(targetWarehouse);
+        }
 
         targetItem.setQuantity((targetItem.getQuantity() == null ? 0 : targetItem.getQuantity()) + quantity);
 
-        repo.save(sourceItem);
-        return repo.save(targetItem);
+        // both warehouse rows are already locked by moveCapacity, so order doesn't matter here
+        adjustStockCounts(sourceWarehouseId, 0,
+                lowStock(sourceItem.getQuantity(), sourceItem.getReorderPoint()) - sourceLowBefore);
+        adjustStockCounts(targetWarehouseId, newTargetRow ? 1 : 0,
+                lowStock(targetItem.getQuantity(), targetItem.getReorderPoint()) - targetLowBefore);
+
+        // flush here so a duplicate-key race on the new row surfaces inside the retry loop
+        Item saved = repo.saveAndFlush(targetItem);
+
+        // both legs share a correlation id; the outbox rows go out with the commit
+        UUID transferId = UUID.randomUUID();
+        ledger.record(sourceItem, sourceWarehouseId, -quantity, StockMovementEvent.Reason.TRANSFER_OUT, transferId);
+        ledger.record(saved, targetWarehouseId, quantity, StockMovementEvent.Reason.TRANSFER_IN, transferId);
+        return withCatalog(saved);
+    }
+
+    private TransferBatchResult doTransferBatch(List<TransferBatchRequest.Line> lines, TransferBatchRequest.Mode mode,
+                                                TransactionStatus status) {
+        int n = lines.size();
+        String[] rejected = new String[n];
+        Item[] landedIn = new Item[n];
+
+        // source (sku, warehouse) for every line, one query
+        Set<Long> itemIds = new HashSet<>();
+        for (TransferBatchRequest.Line line : lines) {
+            if (line != null && line.itemId() != null) itemIds.add(line.itemId());
+        }
+        Map<Long, ItemRepository.ItemKey> keys = new HashMap<>();
+        if (!itemIds.isEmpty()) {
+            for (ItemRepository.ItemKey key : repo.findKeysByIdIn(itemIds)) keys.put(key.getId(), key);
+        }
+
+        Set<Long> warehouseIds = new TreeSet<>();
+        Set<String> skus = new HashSet<>();
+        for (int i = 0; i < n; i++) {
+            TransferBatchRequest.Line line = lines.get(i);
+            if (line == null || line.itemId() == null) { rejected[i] = "Item is required."; continue; }
+            if (line.targetWarehouseId() == null) { rejected[i] = "Target warehouse is required."; continue; }
+            if (line.quantity() <= 0) { rejected[i] = "Transfer quantity must be at least 1."; continue; }
+
+            ItemRepository.ItemKey key = keys.get(line.itemId());
+            if (key == null) { rejected[i] = "Item not found with id " + line.itemId(); continue; }
+            if (line.targetWarehouseId().equals(key.getWarehouseId())) {
+                rejected[i] = "Target warehouse must be different from source warehouse.";
+                continue;
+            }
+            warehouseIds.add(key.getWarehouseId());
+            warehouseIds.add(line.targetWarehouseId());
+            skus.add(key.getSku());
+        }
+
+        // same lock order as single transfers: warehouse counters, then item rows
+        Map<Long, Warehouse> warehouses = new HashMap<>();
+        Map<Long, Integer> used = new HashMap<>();
+        Map<String, Item> rows = new HashMap<>();
+        Map<Long, Item> rowsById = new HashMap<>();
+        Map<String, Integer> startQty = new HashMap<>();
+        if (!warehouseIds.isEmpty()) {
+            for (Warehouse wh : warehouseRepo.findAllByIdInForUpdate(warehouseIds)) {
+                warehouses.put(wh.getId(), wh);
+                used.put(wh.getId(), wh.getUsedCapacity());
+            }
+            for (Item row : repo.findBySkuInAndWarehouseIdInForUpdate(skus, warehouseIds)) {
+                rows.put(rowKey(row.getSku(), row.getWarehouse().getId()), row);
+                rowsById.put(row.getId(), row);
+                startQty.put(rowKey(row.getSku(), row.getWarehouse().getId()), row.getQuantity());
+            }
+        }
+
+        // apply line by line against the in-memory state so later lines see earlier ones
+        Map<Long, Integer> capacityDelta = new TreeMap<>();
+        List<Item> created = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (rejected[i] != null) continue;
+            TransferBatchRequest.Line line = lines.get(i);
+            ItemRepository.ItemKey key = keys.get(line.itemId());
+
+            Warehouse target = warehouses.get(line.targetWarehouseId());
+            if (target == null) { rejected[i] = "Target warehouse not found: " + line.targetWarehouseId(); continue; }
+
+            Item source = rowsById.get(line.itemId());
+            if (source == null || !key.getWarehouseId().equals(source.getWarehouse().getId())) {
+                rejected[i] = "Item " + line.itemId() + " changed while transferring, try again.";
+                continue;
+            }
+            if (line.quantity() > source.getQuantity() - source.getReserved()) {
+                rejected[i] = "Invalid transfer quantity.";
+                continue;
+            }
+
+            int targetUsed = used.get(target.getId());
+            if (targetUsed + line.quantity() > target.getMaxCapacity()) {
+                rejected[i] = "Transfer would exceed warehouse capacity.";
+                continue;
+            }
+
+            Long sourceWarehouseId = source.getWarehouse().getId();
+            used.merge(sourceWarehouseId, -line.quantity(), Integer::sum);
+            used.merge(target.getId(), line.quantity(), Integer::sum);
+            capacityDelta.merge(sourceWarehouseId, -line.quantity(), Integer::sum);
+            capacityDelta.merge(target.getId(), line.quantity(), Integer::sum);
+
+            source.setQuantity(source.getQuantity() - line.quantity());
+            Item targetItem = rows.computeIfAbsent(rowKey(source.getSku(), target.getId()), k -> {
+                Item copy = new Item(null, source.getSku(), null, source.getSize(), 0, null, target);
+                created.add(copy);
+                return copy;
+            });
+            targetItem.setQuantity(targetItem.getQuantity() + line.quantity());
+            landedIn[i] = targetItem;
+        }
+
+        boolean anyRejected = Arrays.stream(rejected).anyMatch(Objects::nonNull);
+        boolean commit = !(anyRejected && mode == TransferBatchRequest.Mode.ALL_OR_NOTHING);
+        if (commit) {
+            repo.saveAll(created);
+            for (int i = 0; i < n; i++) {
+                if (rejected[i] != null) continue;
+                TransferBatchRequest.Line line = lines.get(i);
+                Item source = rowsById.get(line.itemId());
+                UUID transferId = UUID.randomUUID();
+                ledger.record(source, source.getWarehouse().getId(), -line.quantity(),
+                        StockMovementEvent.Reason.TRANSFER_OUT, transferId);
+                ledger.record(landedIn[i], line.targetWarehouseId(), line.quantity(),
+                        StockMovementEvent.Reason.TRANSFER_IN, transferId);
+            }
+            capacityDelta.forEach((warehouseId, delta) ->
+                    adjustCapacity(warehouseId, delta, "Transfer would exceed warehouse capacity."));
+
+            // sku / low-stock deltas per warehouse, from each touched row's before and after quantity
+            Map<Long, int[]> countDelta = new TreeMap<>();
+            rows.forEach((k, row) -> {
+                Integer before = startQty.get(k);
+                int[] delta = countDelta.computeIfAbsent(row.getWarehouse().getId(), id -> new int[2]);
+                delta[0] += (before == null) ? 1 : 0;
+                delta[1] += lowStock(row.getQuantity(), row.getReorderPoint())
+                        - ((before == null) ? 0 : lowStock(before, row.getReorderPoint()));
+            });
+            countDelta.forEach((warehouseId, delta) -> adjustStockCounts(warehouseId, delta[0], delta[1]));
+            // updates/inserts go out as JDBC batches here (hibernate.jdbc.batch_size)
+            repo.flush();
+        } else {
+            status.setRollbackOnly();
+        }
+
+        List<TransferBatchResult.LineResult> results = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            TransferBatchRequest.Line line = lines.get(i);
+            Long itemId = (line == null) ? null : line.itemId();
+            Long targetId = (line == null) ? null : line.targetWarehouseId();
+            int qty = (line == null) ? 0 : line.quantity();
+            if (rejected[i] != null) {
+                results.add(new TransferBatchResult.LineResult(i, itemId, targetId, qty,
+                        TransferBatchResult.Status.REJECTED, null, rejected[i]));
+            } else if (!commit) {
+                results.add(new TransferBatchResult.LineResult(i, itemId, targetId, qty,
+                        TransferBatchResult.Status.ROLLED_BACK, null, null));
+            } else {
+                results.add(new TransferBatchResult.LineResult(i, itemId, targetId, qty,
+                        TransferBatchResult.Status.OK, landedIn[i].getId(), null));
+            }
+        }
+        return new TransferBatchResult(commit, results);
+    }
+
+    // a confirmed reservation: the held units leave the shelf. Runs in the caller's transaction, which
+    // already holds the reservation row; warehouse counter before item row like every other write
+    void sellReserved(Long itemId, Long warehouseId, int quantity) {
+        adjustCapacity(warehouseId, -quantity, null);
+        Item item = repo.findByIdForUpdate(itemId)
+                .orElseThrow(() -> new IllegalStateException("Reserved item " + itemId + " no longer exists."));
+        if (!warehouseId.equals(item.getWarehouse().getId()) || repo.unreserve(itemId, quantity) == 0) {
+            throw new IllegalStateException("Reserved stock for item " + itemId + " is missing.");
+        }
+        int before = item.getQuantity();
+        item.setQuantity(before - quantity);
+        adjustStockCounts(warehouseId, 0,
+                lowStock(item.getQuantity(), item.getReorderPoint()) - lowStock(before, item.getReorderPoint()));
+        repo.saveAndFlush(item);
+        ledger.record(item, warehouseId, -quantity, StockMovementEvent.Reason.SOLD, null);
+    }
+
+    // one coalesced receiving key: the net of every scan for (sku, warehouse) in a flush window
+    record StockDelta(String sku, Long warehouseId, int delta) {
+    }
+
+    // per StockDelta, in order: the row as it stands after commit, or why that key was left out
+    record DeltaOutcome(Long itemId, Integer quantity, RuntimeException rejected) {
+    }
+
+    // ReceivingService's flush: every key in one transaction, locked like transferBatch (warehouse
+    // counters, then item rows), written as one JDBC batch of updates. Rows are never created here, and
+    // a key that would overfill its warehouse or go below its reserved units is rejected on its own
+    List<DeltaOutcome> applyDeltas(List<StockDelta> deltas) {
+        return metrics.time("item.receive.flush", null, () -> inTransactionWithRetry(status -> doApplyDeltas(deltas)));
+    }
+
+    private List<DeltaOutcome> doApplyDeltas(List<StockDelta> deltas) {
+        Set<Long> warehouseIds = new TreeSet<>();
+        Set<String> skus = new HashSet<>();
+        for (StockDelta d : deltas) {
+            warehouseIds.add(d.warehouseId());
+            skus.add(d.sku());
+        }
+
+        Map<Long, Warehouse> warehouses = new HashMap<>();
+        Map<Long, Integer> used = new HashMap<>();
+        for (Warehouse wh : warehouseRepo.findAllByIdInForUpdate(warehouseIds)) {
+            warehouses.put(wh.getId(), wh);
+            used.put(wh.getId(), wh.getUsedCapacity());
+        }
+        Map<String, Item> rows = new HashMap<>();
+        for (Item row : repo.findBySkuInAndWarehouseIdInForUpdate(skus, warehouseIds)) {
+            rows.put(rowKey(row.getSku(), row.getWarehouse().getId()), row);
+        }
+
+        Map<Long, Integer> capacityDelta = new TreeMap<>();
+        Map<Long, Integer> lowStockDelta = new TreeMap<>();
+        UUID flushId = UUID.randomUUID();
+        List<DeltaOutcome> outcomes = new ArrayList<>(deltas.size());
+        for (StockDelta d : deltas) {
+            Long warehouseId = d.warehouseId();
+            Warehouse wh = warehouses.get(warehouseId);
+            Item row = rows.get(rowKey(d.sku(), warehouseId));
+            RuntimeException rejected = null;
+            if (wh == null) {
+                rejected = new IllegalArgumentException("Warehouse not found: " + warehouseId);
+            } else if (row == null) {
+                rejected = new IllegalArgumentException("No item " + d.sku() + " in warehouse " + warehouseId
+                        + "; create it before receiving.");
+            } else if (row.getQuantity() + d.delta() < row.getReserved()) {
+                rejected = new InsufficientStockException("Only " + (row.getQuantity() - row.getReserved())
+                        + " of " + d.sku() + " can be taken out (" + row.getReserved() + " reserved).");
+            } else if (d.delta() > 0 && used.get(warehouseId) + d.delta() > wh.getMaxCapacity()) {
+                rejected = new CapacityExceededException("Receiving would exceed warehouse capacity.");
+            }
+            if (rejected != null) {
+                outcomes.add(new DeltaOutcome(null, null, rejected));
+                continue;
+            }
+
+            int before = row.getQuantity();
+            row.setQuantity(before + d.delta());
+            used.merge(warehouseId, d.delta(), Integer::sum);
+            capacityDelta.merge(warehouseId, d.delta(), Integer::sum);
+            lowStockDelta.merge(warehouseId,
+                    lowStock(row.getQuantity(), row.getReorderPoint()) - lowStock(before, row.getReorderPoint()), Integer::sum);
+            ledger.record(row, warehouseId, d.delta(),
+                    (d.delta() > 0) ? StockMovementEvent.Reason.RECEIVED : StockMovementEvent.Reason.ADJUSTED, flushId);
+            outcomes.add(new DeltaOutcome(row.getId(), row.getQuantity(), null));
+        }
+
+        capacityDelta.forEach((warehouseId, delta) ->
+                adjustCapacity(warehouseId, delta, "Receiving would exceed warehouse capacity."));
+        lowStockDelta.forEach((warehouseId, delta) -> adjustStockCounts(warehouseId, 0, delta));
+        repo.flush();
+        return outcomes;
+    }
+
+    private static String rowKey(String sku, Long warehouseId) {
+        return warehouseId + "/" + sku;
+    }
+
+    // each attempt is its own transaction; lock/version conflicts and the unique-key race on a new
+    // target row roll back and run again, up to maxTransferAttempts. Inside a caller's transaction
+    // (an idempotent request) a conflict has already doomed it, so the caller retries instead.
+    private <T> T inTransactionWithRetry(TransactionCallback<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) return txTemplate.execute(work);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return txTemplate.execute(work);
+            } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+                if (attempt >= maxTransferAttempts) {
+                    throw new IllegalStateException("Transfer kept conflicting with other updates, try again.", e);
+                }
+                metrics.transferRetried();
+                backoff(attempt);
+            }
+        }
+    }
+
+    // only a unique violation (SQLSTATE 23505 on PostgreSQL and H2) means a duplicate, i.e. a racing save
+    // of the same sku; a CHECK or FK failure is reported as what it is
+    private static RuntimeException integrityError(DataIntegrityViolationException e) {
+        String constraint = null;
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sql && "23505".equals(sql.getSQLState()))
+                return new DuplicateSkuException("SKU already exists in this warehouse.");
+            if (t instanceof ConstraintViolationException cve && constraint == null) constraint = cve.getConstraintName();
+        }
+        return new IllegalStateException((constraint != null)
+                ? "Item violates constraint " + constraint + "."
+                : "Item could not be saved: " + e.getMostSpecificCause().getMessage());
+    }
+
+    private Item lockSource(Long itemId, String sku, Long warehouseId) {
+        Item item = repo.findByIdForUpdate(itemId)
+                .orElseThrow(() -> new IllegalArgumentException("Item not found with id " + itemId));
+        // edited between reading its key and locking it -> our lock order may be wrong, start over
+        if (!sku.equals(item.getSku()) || !warehouseId.equals(item.getWarehouse().getId())) {
+            throw new OptimisticLockingFailureException("Item " + itemId + " moved while transferring.");
+        }
+        return item;
+    }
+
+    // single-row edits (save, delete): same lock order as transfers, so the row's warehouse counter
+    // (and the one it's moving to) first, then the row itself
+    // IMPORTANT: enforce (sku + warehouse) uniqueness at app-level too
+    private void requireSkuFree(String sku, Long warehouseId, Long itemId) {
+        repo.findBySkuAndWarehouseId(sku, warehouseId).ifPresent(existing -> {
+            if (!existing.getId().equals(itemId)) {
+                throw new DuplicateSkuException("SKU already exists in this warehouse.");
+            }
+        });
+    }
+
+    private Item lockForWrite(ItemRepository.ItemKey key, Long targetWarehouseId) {
+        Long itemId = key.getId();
+        warehouseRepo.findAllByIdInForUpdate(new TreeSet<>(List.of(key.getWarehouseId(), targetWarehouseId)));
+        Item item = repo.findByIdForUpdate(itemId)
+                .orElseThrow(() -> new IllegalArgumentException("Item not found with id " + itemId));
+        // moved between reading its key and locking it: the wrong counters are locked
+        if (!key.getWarehouseId().equals(item.getWarehouse().getId())) throw new IllegalStateException(STALE_ITEM);
+        return item;
+    }
+
+    private void backoff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, 5L * attempt + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Transfer interrupted.");
+        }
+    }
+
+    // atomic capacity change: positive qty reserves (fails if it would overfill), negative releases
+    private void adjustCapacity(Long warehouseId, int qty, String overCapacityMessage) {
+        if (qty > 0) {
+            metrics.run("capacity.reserve", warehouseId, () -> {
+                if (warehouseRepo.reserveCapacity(warehouseId, qty) == 0) {
+                    throw new CapacityExceededException(overCapacityMessage);
+                }
+            });
+        } else if (qty < 0) {
+            warehouseRepo.releaseCapacity(warehouseId, -qty);
+        }
+    }
+
+    // release on one warehouse, reserve on another; rows are touched lower id first so two
+    // moves in opposite directions can't deadlock on the warehouse rows
+    private void moveCapacity(Long fromWarehouseId, int releaseQty, Long toWarehouseId, int reserveQty,
+                              String overCapacityMessage) {
+        if (toWarehouseId < fromWarehouseId) {
+            adjustCapacity(toWarehouseId, reserveQty, overCapacityMessage);
+            adjustCapacity(fromWarehouseId, -releaseQty, overCapacityMessage);
+        } else {
+            adjustCapacity(fromWarehouseId, -releaseQty, overCapacityMessage);
+            adjustCapacity(toWarehouseId, reserveQty, overCapacityMessage);
+        }
+    }
+
+    // the summary counters only move when a row appears/disappears or crosses the low-stock line,
+    // so most writes skip this update entirely
+    private void adjustStockCounts(Long warehouseId, int skus, int lowStock) {
+        if (skus != 0 || lowStock != 0) {
+            warehouseRepo.adjustStockCounts(warehouseId, skus, lowStock);
+        }
+    }
+
+    // row leaves one warehouse and lands in another; lower id first, same as moveCapacity
+    private void moveStockCounts(Long fromWarehouseId, int fromLowStock, Long toWarehouseId, int toLowStock) {
+        if (toWarehouseId < fromWarehouseId) {
+            adjustStockCounts(toWarehouseId, 1, toLowStock);
+            adjustStockCounts(fromWarehouseId, -1, -fromLowStock);
+        } else {
+            adjustStockCounts(fromWarehouseId, -1, -fromLowStock);
+            adjustStockCounts(toWarehouseId, 1, toLowStock);
+        }
+    }
+
+    // against the row's effective reorder point, the same rule ReplenishmentService reports on
+    private int lowStock(Integer quantity, Integer reorderPoint) {
+        return replenishment.isLowStock(quantity, reorderPoint) ? 1 : 0;
+    }
+
+    // items handed back to callers carry their catalog fields (they aren't columns)
+    private Item withCatalog(Item item) {
+        return withCatalog(item, productService.catalogEntry(item.getSku()));
+    }
+
+    private Item withCatalog(Item item, Product product) {
+        if (product != null) {
+            item.setName(product.getName());
+            item.setDescription(product.getDescription());
+            item.setImageUrl(product.getImageUrl());
+        }
+        return item;
     }
 
     private boolean isBlank(String s) {
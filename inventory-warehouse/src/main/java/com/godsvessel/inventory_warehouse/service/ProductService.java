@@ -1,34 +1,165 @@
 package com.godsvessel.inventory_warehouse.service;
 
+import com.godsvessel.inventory_warehouse.config.CacheConfig;
 import com.godsvessel.inventory_warehouse.model.Product;
+import com.godsvessel.inventory_warehouse.repository.ItemRepository;
 import com.godsvessel.inventory_warehouse.repository.ProductRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
+// The catalog: name, description and image per sku. Item rows only carry the sku; item reads join
+// these fields in from the productBySku cache (catalog/catalogEntry), item writes go through
+// putCatalogEntry.
 @Service
 public class ProductService {
 
     private final ProductRepository repo;
+    private final ItemRepository itemRepo;
+    private final CacheManager cacheManager;
 
-    public ProductService(ProductRepository repo) {
+    public ProductService(ProductRepository repo, ItemRepository itemRepo, CacheManager cacheManager) {
         this.repo = repo;
+        this.itemRepo = itemRepo;
+        this.cacheManager = cacheManager;
     }
 
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS, key = "'all'")
+    @Transactional(readOnly = true)
     public List<Product> getAll() {
-        return repo.findAll();
+        return List.copyOf(repo.findAll());
     }
 
+    @Cacheable(cacheNames = CacheConfig.PRODUCT_BY_ID)
+    @Transactional(readOnly = true)
     public Product getById(Long id) {
         return repo.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id " + id));
     }
 
+    // sku -> catalog entry (absent when there is none); cache misses are loaded with one query.
+    // The entries are shared cached instances: read them, don't change them. What gets cached is a
+    // detached copy, never the row the caller's persistence context holds, so an item write in the same
+    // transaction (putCatalogEntry) edits its own managed row and not what other threads are reading
+    public Map<String, Product> catalog(Collection<String> skus) {
+        Cache cache = cache(CacheConfig.PRODUCT_BY_SKU);
+        Map<String, Product> found = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String sku : skus) {
+            if (sku == null || found.containsKey(sku)) continue;
+            Cache.ValueWrapper hit = cache.get(sku);
+            if (hit == null) missing.add(sku);
+            else if (hit.get() != null) found.put(sku, (Product) hit.get());
+        }
+        if (!missing.isEmpty()) {
+            for (Product p : repo.findBySkuIn(missing)) found.put(p.getSku(), copyOf(p));
+            // misses are cached too (as the repository's findBySku does) until that sku is saved
+            for (String sku : missing) cache.put(sku, found.get(sku));
+        }
+        return found;
+    }
+
+    public Product catalogEntry(String sku) {
+        Cache.ValueWrapper hit = (sku == null) ? null : cache(CacheConfig.PRODUCT_BY_SKU).get(sku);
+        return (hit != null) ? (Product) hit.get() : catalog(List.of(sku)).get(sku);
+    }
+
+    // called by item writes, inside their transaction: creates the entry for a new sku, otherwise
+    // takes whatever the item brought that differs (blank fields leave the catalog as it is)
+    public Product putCatalogEntry(String sku, String name, String description, String imageUrl) {
+        Product product = repo.findBySkuIn(List.of(sku)).stream().findFirst().orElse(null);
+        boolean created = product == null;
+        if (created) {
+            product = new Product();
+            product.setSku(sku);
+        }
+        boolean changed = created;
+        if (!isBlank(name) && !name.equals(product.getName())) {
+            product.setName(name);
+            changed = true;
+        }
+        if (!isBlank(description) && !description.equals(product.getDescription())) {
+            product.setDescription(description);
+            changed = true;
+        }
+        if (!isBlank(imageUrl) && !imageUrl.equals(product.getImageUrl())) {
+            product.setImageUrl(imageUrl);
+            changed = true;
+        }
+        if (!changed) return product;
+
+        // flushed now so the item row's foreign key finds a new entry
+        Product saved = created ? repo.saveAndFlush(product) : product;
+        evict(saved.getId(), null, sku);
+        return saved;
+    }
+
     public Product save(Product product) {
-        return repo.save(product);
+        // an update can change the sku, so drop the entry under the old one too
+        String oldSku = (product.getId() == null) ? null
+                : repo.findById(product.getId()).map(Product::getSku).orElse(null);
+        if (oldSku != null && !Objects.equals(oldSku, product.getSku()) && itemRepo.existsBySku(oldSku))
+            throw new IllegalStateException("SKU " + oldSku + " is stocked in a warehouse and can't be renamed.");
+
+        Product saved = repo.save(product);
+        evict(saved.getId(), oldSku, saved.getSku());
+        return saved;
     }
 
     public void delete(Long id) {
+        String sku = repo.findById(id).map(Product::getSku).orElse(null);
+        if (sku != null && itemRepo.existsBySku(sku))
+            throw new IllegalStateException("SKU " + sku + " is stocked in a warehouse and can't be deleted.");
         repo.deleteById(id);
+        evict(id, sku, null);
+    }
+
+    // again after commit when there is a transaction: a read between now and then could re-cache the old row
+    private void evict(Long id, String oldSku, String newSku) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(id, oldSku, newSku);
+                }
+            });
+        }
+        evictNow(id, oldSku, newSku);
+    }
+
+    private void evictNow(Long id, String oldSku, String newSku) {
+        cache(CacheConfig.PRODUCTS).clear();
+        cache(CacheConfig.PRODUCT_BY_ID).evict(id);
+        if (oldSku != null) cache(CacheConfig.PRODUCT_BY_SKU).evict(oldSku);
+        if (newSku != null) cache(CacheConfig.PRODUCT_BY_SKU).evict(newSku);
+    }
+
+    private static Product copyOf(Product p) {
+        Product copy = new Product();
+        copy.setId(p.getId());
+        copy.setName(p.getName());
+        copy.setSku(p.getSku());
+        copy.setDescription(p.getDescription());
+        copy.setImageUrl(p.getImageUrl());
+        return copy;
+    }
+
+    private Cache cache(String name) {
+        return cacheManager.getCache(name);
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.trim().isEmpty();
     }
 }
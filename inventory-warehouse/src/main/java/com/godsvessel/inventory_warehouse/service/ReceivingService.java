@@ -0,0 +1,209 @@
+package com.godsvessel.inventory_warehouse.service;
+
+import com.godsvessel.inventory_warehouse.dto.ReceiveRequest;
+import com.godsvessel.inventory_warehouse.dto.ReceiveResult;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Dock scanning: "+1 of sku X into warehouse Y" many times a second, mostly on the same few rows.
+//  - receive() only merges the scan into the bucket for its (sku, warehouse): ConcurrentHashMap.compute
+//    locks just that key's bin, so scans on different keys never wait on each other
+//  - one flusher takes every key that came in during a short window (inventory.receiving.window-ms)
+//    and hands the net deltas to ItemService.applyDeltas: one transaction, one batch of updates, one
+//    ledger movement per key. A hot row is written once per window instead of once per scan
+//  - every scan's future completes only after that transaction commits, so an ack is durable; a key
+//    that can't be applied (no such row, capacity, reserved stock) fails all scans merged into it
+//  - at most inventory.receiving.max-pending scans wait at once; past that receive() throws
+@Service
+public class ReceivingService implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ReceivingService.class);
+
+    private final ItemService itemService;
+    private final long windowNanos;
+    private final int maxBatch;
+    private final int maxPending;
+    private final int maxDelta;
+
+    private final ConcurrentMap<Key, Bucket> pending = new ConcurrentHashMap<>();
+    // keys in arrival order; a key is queued once per bucket, when its first scan creates it
+    private final BlockingQueue<Key> arrivals = new LinkedBlockingQueue<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public ReceivingService(ItemService itemService, MeterRegistry registry,
+                            @Value("${inventory.receiving.window-ms:5}") long windowMs,
+                            @Value("${inventory.receiving.max-batch:500}") int maxBatch,
+                            @Value("${inventory.receiving.max-pending:100000}") int maxPending,
+                            @Value("${inventory.receiving.max-delta:10000}") int maxDelta) {
+        this.itemService = itemService;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.maxBatch = maxBatch;
+        this.maxPending = maxPending;
+        this.maxDelta = maxDelta;
+
+        Gauge.builder("inventory.receiving.pending", waiting, AtomicInteger::get)
+                .description("Scans waiting for their flush to commit")
+                .register(registry);
+    }
+
+    public CompletableFuture<ReceiveResult> receive(ReceiveRequest request) {
+        if (request == null) throw new IllegalArgumentException("Scan is required.");
+        if (request.sku() == null || request.sku().isBlank()) throw new IllegalArgumentException("SKU is required.");
+        if (request.warehouseId() == null) throw new IllegalArgumentException("Warehouse is required.");
+        if (request.delta() == 0 || Math.abs(request.delta()) > maxDelta)
+            throw new IllegalArgumentException("Delta must be non-zero and at most " + maxDelta + " either way.");
+        if (!running) throw new IllegalStateException("Receiving is not running.");
+        if (waiting.incrementAndGet() > maxPending) {
+            waiting.decrementAndGet();
+            throw new IllegalStateException("Receiving is backed up, scan again shortly.");
+        }
+
+        CompletableFuture<ReceiveResult> ack = new CompletableFuture<>();
+        Key key = new Key(request.sku().trim(), request.warehouseId());
+        pending.compute(key, (k, bucket) -> {
+            if (bucket == null) {
+                bucket = new Bucket();
+                arrivals.add(k);
+            }
+            bucket.delta += request.delta();
+            bucket.acks.add(ack);
+            return bucket;
+        });
+        return ack;
+    }
+
+    private void runFlusher() {
+        List<Key> batch = new ArrayList<>(maxBatch);
+        while (running) {
+            try {
+                Key first = arrivals.poll(1, TimeUnit.SECONDS);
+                if (first == null) continue;
+                // give the window to fill, counted from the oldest scan (no wait if we're behind)
+                Bucket oldest = pending.get(first);
+                long wait = (oldest == null) ? 0 : oldest.since + windowNanos - System.nanoTime();
+                if (wait > 0) TimeUnit.NANOSECONDS.sleep(wait);
+                batch.add(first);
+                arrivals.drainTo(batch, maxBatch - 1);
+                flush(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // everything still pending, now (shutdown, tests)
+    public void flush() {
+        List<Key> batch = new ArrayList<>(maxBatch);
+        while (arrivals.drainTo(batch, maxBatch) > 0) {
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    private void flush(List<Key> keys) {
+        // removing the bucket closes it: a scan that comes in after this starts a new one
+        List<Key> taken = new ArrayList<>(keys.size());
+        List<Bucket> buckets = new ArrayList<>(keys.size());
+        List<ItemService.StockDelta> deltas = new ArrayList<>(keys.size());
+        for (Key key : keys) {
+            Bucket bucket = pending.remove(key);
+            if (bucket == null) continue;
+            taken.add(key);
+            buckets.add(bucket);
+            deltas.add(new ItemService.StockDelta(key.sku(), key.warehouseId(), clamp(bucket.delta)));
+        }
+        if (deltas.isEmpty()) return;
+
+        List<ItemService.DeltaOutcome> outcomes;
+        try {
+            outcomes = itemService.applyDeltas(deltas);
+        } catch (RuntimeException e) {
+            // nothing committed: every scan in the batch fails and the scanners send it again
+            log.warn("Receiving flush of {} keys failed: {}", deltas.size(), e.getMessage());
+            for (Bucket bucket : buckets) fail(bucket, e);
+            return;
+        }
+
+        for (int i = 0; i < buckets.size(); i++) {
+            Bucket bucket = buckets.get(i);
+            ItemService.DeltaOutcome outcome = outcomes.get(i);
+            if (outcome.rejected() != null) {
+                fail(bucket, outcome.rejected());
+                continue;
+            }
+            ReceiveResult result = new ReceiveResult(taken.get(i).sku(), taken.get(i).warehouseId(),
+                    outcome.itemId(), outcome.quantity(), bucket.acks.size());
+            waiting.addAndGet(-bucket.acks.size());
+            for (CompletableFuture<ReceiveResult> ack : bucket.acks) ack.complete(result);
+        }
+    }
+
+    private void fail(Bucket bucket, RuntimeException e) {
+        waiting.addAndGet(-bucket.acks.size());
+        for (CompletableFuture<ReceiveResult> ack : bucket.acks) ack.completeExceptionally(e);
+    }
+
+    // max-pending x max-delta can't overflow a long; anything past an int is beyond any capacity anyway
+    private static int clamp(long delta) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, delta));
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        flusher = new Thread(this::runFlusher, "receiving-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    // stops taking scans, then flushes what's left; it depends on the ledger (via ItemService), so
+    // Spring stops it before the ledger
+    @Override
+    public void stop() {
+        running = false;
+        flusher.interrupt();
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(5));
+            flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Pending scans not flushed on shutdown: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private record Key(String sku, Long warehouseId) {
+    }
+
+    // only touched inside pending.compute / after pending.remove, so plain fields are enough
+    private static final class Bucket {
+        final long since = System.nanoTime();
+        final List<CompletableFuture<ReceiveResult>> acks = new ArrayList<>();
+        long delta;
+    }
+}
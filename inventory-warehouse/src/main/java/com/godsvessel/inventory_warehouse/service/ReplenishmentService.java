@@ -0,0 +1,360 @@
+package com.godsvessel.inventory_warehouse.service;
+
+import com.godsvessel.inventory_warehouse.dto.ReplenishmentReport;
+import com.godsvessel.inventory_warehouse.model.Item;
+import com.godsvessel.inventory_warehouse.model.Warehouse;
+import com.godsvessel.inventory_warehouse.repository.ItemRepository;
+import com.godsvessel.inventory_warehouse.repository.WarehouseRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Low-stock detection without scanning the item table.
+//  - every committed quantity change reaches track() (StockLedger.record, plus reorder point edits in
+//    ItemService); a row is only looked at when it is or was short, or shares a sku with a short row
+//  - short rows (quantity < reorder point) sit in a TreeSet ordered by how empty they are, indexed by
+//    item id, so a change is O(log n) and most changes are one hash lookup that finds nothing to do
+//  - after a change the report is rebuilt in the background (debounced) from the most urgent rows:
+//    one query for the rows of their skus, one for warehouse capacity. Surplus elsewhere (above the
+//    source's own target) becomes transfers, capped by the receiving warehouse's free capacity; what's
+//    left becomes purchase orders. GET /api/replenishment just returns the last report
+//  - the table is read in full at startup, after bulk imports (they skip the ledger) and every
+//    inventory.replenishment.reload-interval-ms: track() only hears about this node's commits, so
+//    writes made through other instances (or in SQL) show up at the next reload
+@Service
+public class ReplenishmentService implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplenishmentService.class);
+    private static final Object PENDING_KEY = new Object();
+
+    // emptiest first (quantity / reorder point, compared without dividing), then the bigger gap
+    private static final Comparator<Low> URGENCY = (a, b) -> {
+        int byFill = Long.compare((long) a.quantity() * b.reorderPoint(), (long) b.quantity() * a.reorderPoint());
+        if (byFill != 0) return byFill;
+        int byGap = Integer.compare(b.reorderPoint() - b.quantity(), a.reorderPoint() - a.quantity());
+        return (byGap != 0) ? byGap : Long.compare(a.itemId(), b.itemId());
+    };
+
+    private final ItemRepository itemRepo;
+    private final WarehouseRepository warehouseRepo;
+    private final int defaultReorderPoint;
+    private final int targetFactor;
+    private final int maxListed;
+    private final long debounceMs;
+
+    // guarded by `this`
+    private final TreeSet<Low> queue = new TreeSet<>(URGENCY);
+    private final Map<Long, Low> byItem = new HashMap<>();
+    private final Map<String, Integer> shortSkus = new HashMap<>();   // sku -> short rows of it
+
+    private final Object rebuildLock = new Object();
+    private final ScheduledExecutorService rebuilder;
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private volatile ReplenishmentReport report = ReplenishmentReport.empty();
+    private volatile boolean running;
+
+    public ReplenishmentService(ItemRepository itemRepo, WarehouseRepository warehouseRepo, MeterRegistry registry,
+                                @Value("${inventory.replenishment.default-reorder-point:5}") int defaultReorderPoint,
+                                @Value("${inventory.replenishment.target-factor:2}") int targetFactor,
+                                @Value("${inventory.replenishment.max-listed:500}") int maxListed,
+                                @Value("${inventory.replenishment.debounce-ms:200}") long debounceMs) {
+        this.itemRepo = itemRepo;
+        this.warehouseRepo = warehouseRepo;
+        this.defaultReorderPoint = defaultReorderPoint;
+        this.targetFactor = targetFactor;
+        this.maxListed = maxListed;
+        this.debounceMs = debounceMs;
+        this.rebuilder = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "replenishment");
+            t.setDaemon(true);
+            return t;
+        });
+
+        Gauge.builder("inventory.replenishment.short-rows", this, s -> s.report.lowStockCount())
+                .description("Item rows below their reorder point, as of the last report")
+                .register(registry);
+    }
+
+    public ReplenishmentReport getReport() {
+        return report;
+    }
+
+    public int getDefaultReorderPoint() {
+        return defaultReorderPoint;
+    }
+
+    public int reorderPoint(Integer itemReorderPoint) {
+        return (itemReorderPoint == null) ? defaultReorderPoint : itemReorderPoint;
+    }
+
+    // the rule behind the warehouse low_stock_count counters too, so the dashboard and this report agree
+    public boolean isLowStock(Integer quantity, Integer itemReorderPoint) {
+        return quantity == null || quantity < reorderPoint(itemReorderPoint);
+    }
+
+    // called inside the writing transaction; the row is only looked at once that commits.
+    // left = the row no longer holds stock in warehouseId (deleted, or moved to another warehouse)
+    public void track(Item item, Long warehouseId, boolean left) {
+        Level level = new Level(item.getId(), item.getSku(), warehouseId, left ? null : item.getQuantity(),
+                item.getReorderPoint());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(List.of(level));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<Level> pending = (List<Level>) TransactionSynchronizationManager.getResource(PENDING_KEY);
+        if (pending == null) {
+            List<Level> created = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(PENDING_KEY, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_KEY);
+                }
+            });
+            pending = created;
+        }
+        pending.add(level);
+    }
+
+    // for bulk writes that bypass track() (imports): reload once the transaction commits
+    public void reloadAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            scheduleReload();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                scheduleReload();
+            }
+        });
+    }
+
+    private void apply(List<Level> levels) {
+        boolean changed = false;
+        synchronized (this) {
+            for (Level level : levels) {
+                Low before = byItem.get(level.itemId());
+                int reorderPoint = reorderPoint(level.reorderPoint());
+                if (level.quantity() != null && level.quantity() < reorderPoint) {
+                    Low now = new Low(level.itemId(), level.sku(), level.warehouseId(), level.quantity(), reorderPoint);
+                    if (!now.equals(before)) {
+                        if (before != null) remove(before);
+                        add(now);
+                        changed = true;
+                    }
+                } else if (before != null) {
+                    remove(before);
+                    changed = true;
+                } else if (shortSkus.containsKey(level.sku())) {
+                    changed = true;   // a possible source for a short row moved
+                }
+            }
+        }
+        if (changed) scheduleRefresh();
+    }
+
+    // startup, bulk imports and the periodic reload: the one query that reads every short row
+    public void reload() {
+        List<ItemRepository.StockLevel> rows = itemRepo.findBelowReorderPoint(defaultReorderPoint);
+        synchronized (this) {
+            queue.clear();
+            byItem.clear();
+            shortSkus.clear();
+            for (ItemRepository.StockLevel row : rows) {
+                add(new Low(row.getId(), row.getSku(), row.getWarehouseId(), row.getQuantity(),
+                        reorderPoint(row.getReorderPoint())));
+            }
+        }
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.replenishment.reload-interval-ms:300000}",
+            initialDelayString = "${inventory.replenishment.reload-interval-ms:300000}")
+    public void reloadPeriodically() {
+        scheduleReload();
+    }
+
+    // rebuilds the report now; normally runs in the background after a change (tests call it directly)
+    public ReplenishmentReport refresh() {
+        synchronized (rebuildLock) {
+            List<Low> urgent;
+            int total;
+            synchronized (this) {
+                urgent = queue.stream().limit(maxListed).toList();
+                total = queue.size();
+            }
+            ReplenishmentReport built = build(urgent, total);
+            report = built;
+            return built;
+        }
+    }
+
+    private ReplenishmentReport build(List<Low> urgent, int total) {
+        if (urgent.isEmpty()) return new ReplenishmentReport(Instant.now(), 0, List.of(), List.of(), List.of());
+
+        Set<String> skus = new HashSet<>();
+        for (Low s : urgent) skus.add(s.sku());
+        Map<Long, ItemRepository.StockLevel> rows = new HashMap<>();
+        Map<String, List<ItemRepository.StockLevel>> bySku = new HashMap<>();
+        for (ItemRepository.StockLevel row : itemRepo.findStockLevelsBySkuIn(skus)) {
+            rows.put(row.getId(), row);
+            bySku.computeIfAbsent(row.getSku(), k -> new ArrayList<>()).add(row);
+        }
+        Map<Long, Integer> room = new HashMap<>();
+        for (Warehouse wh : warehouseRepo.findAll()) room.put(wh.getId(), wh.getMaxCapacity() - wh.getUsedCapacity());
+        // what each row can give away and still sit at its own target
+        Map<Long, Integer> surplus = new HashMap<>();
+        for (ItemRepository.StockLevel row : rows.values()) {
+            surplus.put(row.getId(), row.getQuantity() - row.getReserved() - target(row.getReorderPoint()));
+        }
+
+        List<ReplenishmentReport.LowStock> lowStock = new ArrayList<>();
+        List<ReplenishmentReport.Transfer> transfers = new ArrayList<>();
+        List<ReplenishmentReport.PurchaseOrder> orders = new ArrayList<>();
+        List<Low> gone = new ArrayList<>();
+        for (Low s : urgent) {
+            ItemRepository.StockLevel row = rows.get(s.itemId());
+            // deleted, refilled or moved by something we didn't see: drop it
+            if (row == null || !row.getWarehouseId().equals(s.warehouseId())
+                    || row.getQuantity() >= reorderPoint(row.getReorderPoint())) {
+                gone.add(s);
+                continue;
+            }
+            Long warehouseId = row.getWarehouseId();
+            int target = target(row.getReorderPoint());
+            lowStock.add(new ReplenishmentReport.LowStock(row.getId(), row.getSku(), warehouseId, row.getQuantity(),
+                    reorderPoint(row.getReorderPoint()), target));
+
+            int shortfall = target - row.getQuantity();
+            int need = Math.min(shortfall, Math.max(room.getOrDefault(warehouseId, 0), 0));
+
+            List<ItemRepository.StockLevel> sources = new ArrayList<>(bySku.get(row.getSku()));
+            sources.sort(Comparator.comparing((ItemRepository.StockLevel r) -> surplus.get(r.getId())).reversed());
+            for (ItemRepository.StockLevel source : sources) {
+                if (need == 0) break;
+                int spare = surplus.get(source.getId());
+                if (spare <= 0) break;
+                if (source.getWarehouseId().equals(warehouseId)) continue;
+                int move = Math.min(spare, need);
+                transfers.add(new ReplenishmentReport.Transfer(row.getSku(), source.getWarehouseId(), source.getId(),
+                        warehouseId, row.getId(), move));
+                surplus.put(source.getId(), spare - move);
+                room.merge(source.getWarehouseId(), move, Integer::sum);
+                room.merge(warehouseId, -move, Integer::sum);
+                need -= move;
+            }
+            if (need > 0) {
+                orders.add(new ReplenishmentReport.PurchaseOrder(row.getSku(), warehouseId, row.getId(), need,
+                        need < shortfall));
+                room.merge(warehouseId, -need, Integer::sum);
+            }
+        }
+
+        if (!gone.isEmpty()) {
+            synchronized (this) {
+                for (Low s : gone) {
+                    if (s.equals(byItem.get(s.itemId()))) remove(s);
+                }
+            }
+            total -= gone.size();
+        }
+        return new ReplenishmentReport(Instant.now(), total, lowStock, transfers, orders);
+    }
+
+    private int target(Integer itemReorderPoint) {
+        return reorderPoint(itemReorderPoint) * targetFactor;
+    }
+
+    private void add(Low s) {
+        queue.add(s);
+        byItem.put(s.itemId(), s);
+        shortSkus.merge(s.sku(), 1, Integer::sum);
+    }
+
+    private void remove(Low s) {
+        queue.remove(s);
+        byItem.remove(s.itemId());
+        shortSkus.computeIfPresent(s.sku(), (k, n) -> (n == 1) ? null : n - 1);
+    }
+
+    private void scheduleRefresh() {
+        if (running && rebuildScheduled.compareAndSet(false, true)) {
+            rebuilder.schedule(() -> {
+                rebuildScheduled.set(false);
+                try {
+                    refresh();
+                } catch (RuntimeException e) {
+                    log.warn("Replenishment report not rebuilt, keeping the last one: {}", e.getMessage());
+                }
+            }, debounceMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void scheduleReload() {
+        if (!running) return;
+        rebuilder.execute(() -> {
+            try {
+                reload();
+            } catch (RuntimeException e) {
+                log.warn("Replenishment reload failed: {}", e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.warn("Replenishment not loaded at startup, it fills in as stock changes: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        rebuilder.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // what a committed write left behind; quantity null = gone from that warehouse
+    private record Level(Long itemId, String sku, Long warehouseId, Integer quantity, Integer reorderPoint) {
+    }
+
+    // a row under its (effective) reorder point
+    private record Low(Long itemId, String sku, Long warehouseId, int quantity, int reorderPoint) {
+    }
+}
@@ -0,0 +1,218 @@
+package com.godsvessel.inventory_warehouse.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.godsvessel.inventory_warehouse.dto.Availability;
+import com.godsvessel.inventory_warehouse.dto.ReservationRequest;
+import com.godsvessel.inventory_warehouse.model.Reservation;
+import com.godsvessel.inventory_warehouse.repository.ItemRepository;
+import com.godsvessel.inventory_warehouse.repository.ReservationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Checkout holds. The database is the source of truth: a hold is one conditional update of
+// item.reserved (quantity - reserved >= n) plus one reservation row, so it can't oversell and never
+// read-modify-writes Item.quantity. On top of that, for flash-sale bursts on one hot SKU:
+//  - striped locks: holds on the same item queue here, one at a time per stripe, instead of each
+//    taking a pooled connection just to wait on the same row lock in the database
+//  - an availability hint per (sku, warehouse): after a hold fails, requests for more than what was
+//    left fail in memory for inventory.reservations.sold-out-memo-ms, before any database lookup.
+//    At most sold-out-memo-size entries. Releases and expiries clear it; restocks through ItemService
+//    wait out the memo
+// Expiry is one scheduled sweep over the (status, expires_at) index, not a timer per hold.
+@Service
+public class ReservationService {
+
+    private final ReservationRepository reservationRepo;
+    private final ItemRepository itemRepo;
+    private final ItemService itemService;
+    private final TransactionTemplate txTemplate;
+    private final InventoryMetrics metrics;
+
+    private final Duration defaultTtl;
+    private final Duration maxTtl;
+    private final long lockWaitMs;
+    private final int sweepBatch;
+
+    private final ReentrantLock[] stripes;
+    // units left when a hold on (sku, warehouse) last failed
+    private final Cache<SkuAt, Integer> availableHints;
+
+    public ReservationService(ReservationRepository reservationRepo, ItemRepository itemRepo, ItemService itemService,
+                              TransactionTemplate txTemplate, InventoryMetrics metrics,
+                              @Value("${inventory.reservations.default-ttl-seconds:600}") long defaultTtlSeconds,
+                              @Value("${inventory.reservations.max-ttl-seconds:3600}") long maxTtlSeconds,
+                              @Value("${inventory.reservations.stripes:64}") int stripeCount,
+                              @Value("${inventory.reservations.lock-wait-ms:2000}") long lockWaitMs,
+                              @Value("${inventory.reservations.sold-out-memo-ms:500}") long soldOutMemoMs,
+                              @Value("${inventory.reservations.sold-out-memo-size:10000}") long soldOutMemoSize,
+                              @Value("${inventory.reservations.sweep-batch:500}") int sweepBatch) {
+        this.reservationRepo = reservationRepo;
+        this.itemRepo = itemRepo;
+        this.itemService = itemService;
+        this.txTemplate = txTemplate;
+        this.metrics = metrics;
+        this.defaultTtl = Duration.ofSeconds(defaultTtlSeconds);
+        this.maxTtl = Duration.ofSeconds(maxTtlSeconds);
+        this.lockWaitMs = lockWaitMs;
+        this.sweepBatch = sweepBatch;
+        this.availableHints = Caffeine.newBuilder()
+                .maximumSize(soldOutMemoSize)
+                .expireAfterWrite(Duration.ofMillis(soldOutMemoMs))
+                .build();
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) stripes[i] = new ReentrantLock();
+    }
+
+    public Reservation reserve(ReservationRequest request) {
+        if (request == null) throw new IllegalArgumentException("Reservation is required.");
+        if (request.sku() == null || request.sku().isBlank()) throw new IllegalArgumentException("SKU is required.");
+        if (request.warehouseId() == null) throw new IllegalArgumentException("Warehouse is required.");
+        if (request.quantity() <= 0) throw new IllegalArgumentException("Reservation quantity must be at least 1.");
+        if (request.ttlSeconds() != null && request.ttlSeconds() <= 0)
+            throw new IllegalArgumentException("Reservation TTL must be positive.");
+        Duration ttl = (request.ttlSeconds() == null) ? defaultTtl : Duration.ofSeconds(request.ttlSeconds());
+        if (ttl.compareTo(maxTtl) > 0) ttl = maxTtl;
+        Duration holdFor = ttl;
+
+        return metrics.time("reservation.reserve", request.warehouseId(), () -> {
+            SkuAt skuAt = new SkuAt(request.sku(), request.warehouseId());
+            Integer left = availableHints.getIfPresent(skuAt);
+            if (left != null && request.quantity() > left) throw insufficient(left);
+
+            Availability row = itemRepo.findAvailability(request.sku(), request.warehouseId())
+                    .orElseThrow(() -> new IllegalArgumentException(
+                            "No item " + request.sku() + " in warehouse " + request.warehouseId()));
+            Long itemId = row.itemId();
+
+            ReentrantLock lock = stripe(itemId);
+            acquire(lock);
+            try {
+                return txTemplate.execute(status -> {
+                    if (itemRepo.reserve(itemId, request.quantity()) == 0) {
+                        int available = itemRepo.findAvailableById(itemId).orElse(0);
+                        availableHints.put(skuAt, available);
+                        throw insufficient(available);
+                    }
+                    Instant now = Instant.now();
+                    return reservationRepo.save(new Reservation(itemId, row.sku(), row.warehouseId(),
+                            request.quantity(), now, now.plus(holdFor)));
+                });
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    // the held units are sold: Item.quantity and reserved both drop by the held amount
+    public Reservation confirm(Long id) {
+        return metrics.time("reservation.confirm", null, () -> txTemplate.execute(status -> {
+            Reservation r = lockReservation(id);
+            if (r.getStatus() != Reservation.Status.HELD)
+                throw new IllegalStateException("Reservation " + id + " is " + r.getStatus() + ".");
+            if (!r.getExpiresAt().isAfter(Instant.now()))
+                throw new IllegalStateException("Reservation " + id + " has expired.");
+            itemService.sellReserved(r.getItemId(), r.getWarehouseId(), r.getQuantity());
+            r.setStatus(Reservation.Status.CONFIRMED);
+            return r;
+        }));
+    }
+
+    // idempotent: releasing a released or expired hold is a no-op
+    public Reservation release(Long id) {
+        Reservation released = metrics.time("reservation.release", null, () -> txTemplate.execute(status -> {
+            Reservation r = lockReservation(id);
+            if (r.getStatus() == Reservation.Status.CONFIRMED)
+                throw new IllegalStateException("Reservation " + id + " is already confirmed.");
+            if (r.getStatus() == Reservation.Status.HELD) {
+                itemRepo.unreserve(r.getItemId(), r.getQuantity());
+                r.setStatus(Reservation.Status.RELEASED);
+            }
+            return r;
+        }));
+        availableHints.invalidate(new SkuAt(released.getSku(), released.getWarehouseId()));
+        return released;
+    }
+
+    public Reservation getById(Long id) {
+        return reservationRepo.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Reservation not found: " + id));
+    }
+
+    public Availability getAvailability(String sku, Long warehouseId) {
+        if (sku == null || sku.isBlank()) throw new IllegalArgumentException("SKU is required.");
+        if (warehouseId == null) throw new IllegalArgumentException("Warehouse is required.");
+        return itemRepo.findAvailability(sku, warehouseId)
+                .orElseThrow(() -> new IllegalArgumentException("No item " + sku + " in warehouse " + warehouseId));
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.reservations.sweep-interval-ms:1000}")
+    public void sweepExpired() {
+        sweepExpired(Instant.now());
+    }
+
+    // expires everything due by `now`, a batch per transaction; returns how many holds expired
+    public int sweepExpired(Instant now) {
+        int total = 0;
+        int expired;
+        do {
+            expired = txTemplate.execute(status -> {
+                List<Reservation> due = reservationRepo.findDueForUpdate(Reservation.Status.HELD, now,
+                        PageRequest.of(0, sweepBatch));
+                // one counter update per item, in id order
+                Map<Long, Integer> byItem = new TreeMap<>();
+                Set<SkuAt> freed = new HashSet<>();
+                for (Reservation r : due) {
+                    r.setStatus(Reservation.Status.EXPIRED);
+                    byItem.merge(r.getItemId(), r.getQuantity(), Integer::sum);
+                    freed.add(new SkuAt(r.getSku(), r.getWarehouseId()));
+                }
+                byItem.forEach(itemRepo::unreserve);
+                availableHints.invalidateAll(freed);
+                return due.size();
+            });
+            total += expired;
+        } while (expired == sweepBatch);
+        return total;
+    }
+
+    private Reservation lockReservation(Long id) {
+        if (id == null) throw new IllegalArgumentException("Reservation id is required.");
+        return reservationRepo.findByIdForUpdate(id)
+                .orElseThrow(() -> new IllegalArgumentException("Reservation not found: " + id));
+    }
+
+    private ReentrantLock stripe(Long itemId) {
+        return stripes[Math.floorMod(Long.hashCode(itemId), stripes.length)];
+    }
+
+    private void acquire(ReentrantLock lock) {
+        try {
+            if (!lock.tryLock(lockWaitMs, TimeUnit.MILLISECONDS))
+                throw new IllegalStateException("Too many reservations for this item right now, try again.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to reserve.");
+        }
+    }
+
+    private static InsufficientStockException insufficient(int available) {
+        return new InsufficientStockException("Only " + Math.max(available, 0) + " available to reserve.");
+    }
+
+    private record SkuAt(String sku, Long warehouseId) {
+    }
+}
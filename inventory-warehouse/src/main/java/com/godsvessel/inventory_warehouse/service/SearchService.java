@@ -0,0 +1,184 @@
+package com.godsvessel.inventory_warehouse.service;
+
+import com.godsvessel.inventory_warehouse.dto.ItemView;
+import com.godsvessel.inventory_warehouse.model.Product;
+import com.godsvessel.inventory_warehouse.repository.ItemRepository;
+import com.godsvessel.inventory_warehouse.repository.ProductRepository;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+// Item/product search. The matching runs as plain SQL that only returns ids (so it can use the
+// full-text, text_pattern_ops and trigram indexes in db/migration), then the rows for that
+// page are loaded in one query. On PostgreSQL free text goes through tsvector/websearch_to_tsquery
+// and is ranked; anywhere else (H2 in tests) it falls back to LIKE per term, ordered by id.
+// Name and description only exist on the catalog, so item text search joins product on sku.
+@Service
+public class SearchService {
+
+    // must match the expression of ix_product_fts exactly or the planner won't use it
+    static final String PRODUCT_DOCUMENT = "to_tsvector('english', coalesce(p.name, '') || ' ' || coalesce(p.description, ''))";
+
+    private final JdbcTemplate jdbc;
+    private final ItemRepository itemRepo;
+    private final ItemService itemService;
+    private final ProductRepository productRepo;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int maxOffset;
+    private volatile Boolean fullText;
+
+    public SearchService(JdbcTemplate jdbc, ItemRepository itemRepo, ItemService itemService, ProductRepository productRepo,
+                         @Value("${inventory.items.page-size:200}") int defaultPageSize,
+                         @Value("${inventory.items.max-page-size:1000}") int maxPageSize,
+                         @Value("${inventory.search.max-offset:10000}") int maxOffset) {
+        this.jdbc = jdbc;
+        this.itemRepo = itemRepo;
+        this.itemService = itemService;
+        this.productRepo = productRepo;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.maxOffset = maxOffset;
+    }
+
+    public int getDefaultPageSize() {
+        return defaultPageSize;
+    }
+
+    // every filter is optional; q is free text over name + description, sku is a prefix
+    public List<ItemView> searchItems(String q, String sku, String size, Long warehouseId, Integer offset, Integer limit) {
+        int rows = pageSize(limit);
+        int from = offset(offset);
+
+        Query query = new Query("i", "p", PRODUCT_DOCUMENT);
+        query.text(q);
+        query.skuPrefix(sku);
+        if (!isBlank(size)) query.where("i.size = ?", size.trim().toUpperCase(Locale.ROOT));
+        if (warehouseId != null) query.where("i.warehouse_id = ?", warehouseId);
+
+        List<Long> ids = query.ids(isBlank(q) ? "item i" : "item i join product p on p.sku = i.sku", rows, from);
+        List<ItemView> views = ids.isEmpty() ? List.of() : itemService.withCatalog(itemRepo.findViewsByIdIn(ids));
+        return inOrder(ids, views, ItemView::id);
+    }
+
+    public List<Product> searchProducts(String q, String sku, Integer offset, Integer limit) {
+        int size = pageSize(limit);
+        int from = offset(offset);
+
+        Query query = new Query("p", "p", PRODUCT_DOCUMENT);
+        query.text(q);
+        query.skuPrefix(sku);
+
+        List<Long> ids = query.ids("product p", size, from);
+        return inOrder(ids, ids.isEmpty() ? List.of() : productRepo.findAllById(ids), Product::getId);
+    }
+
+    private int pageSize(Integer limit) {
+        int size = (limit == null) ? defaultPageSize : limit;
+        if (size < 1 || size > maxPageSize)
+            throw new IllegalArgumentException("Page size must be between 1 and " + maxPageSize + ".");
+        return size;
+    }
+
+    // ranked results can't be keyset-paged, so deep offsets are capped instead (narrow the search)
+    private int offset(Integer offset) {
+        int from = (offset == null) ? 0 : offset;
+        if (from < 0 || from > maxOffset)
+            throw new IllegalArgumentException("Offset must be between 0 and " + maxOffset + ".");
+        return from;
+    }
+
+    private boolean fullText() {
+        if (fullText == null) {
+            fullText = Boolean.TRUE.equals(jdbc.execute(
+                    (ConnectionCallback<Boolean>) con -> con.isWrapperFor(PGConnection.class)));
+        }
+        return fullText;
+    }
+
+    // the IN query doesn't keep the ranked order, put it back
+    private static <T> List<T> inOrder(List<Long> ids, List<T> rows, Function<T, Long> id) {
+        Map<Long, Integer> position = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) position.put(ids.get(i), i);
+        List<T> sorted = new ArrayList<>(rows);
+        sorted.sort(Comparator.comparing(row -> position.get(id.apply(row))));
+        return sorted;
+    }
+
+    private static String likeEscape(String s) {
+        return s.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.trim().isEmpty();
+    }
+
+    // small WHERE/ORDER BY builder shared by both searches
+    private class Query {
+        private final String alias;       // the table whose ids come back
+        private final String textAlias;   // the one with name/description
+        private final String document;
+        private final List<String> where = new ArrayList<>();
+        private final List<Object> args = new ArrayList<>();
+        private String rank;
+        private final List<Object> rankArgs = new ArrayList<>();
+
+        Query(String alias, String textAlias, String document) {
+            this.alias = alias;
+            this.textAlias = textAlias;
+            this.document = document;
+        }
+
+        void where(String condition, Object... values) {
+            where.add(condition);
+            args.addAll(List.of(values));
+        }
+
+        void skuPrefix(String sku) {
+            // sku like 'X%' is an index range scan thanks to text_pattern_ops
+            if (!isBlank(sku)) where(alias + ".sku like ?", likeEscape(sku.trim()) + "%");
+        }
+
+        void text(String q) {
+            if (isBlank(q)) return;
+            String text = q.trim();
+            if (fullText()) {
+                // stemmed word match (GIN on the tsvector) or a substring of the name (trigram GIN),
+                // so partial words like "jir" still find "Jireh"
+                where("(" + document + " @@ websearch_to_tsquery('english', ?) or " + textAlias + ".name ilike ?)",
+                        text, "%" + likeEscape(text) + "%");
+                rank = "ts_rank(" + document + ", websearch_to_tsquery('english', ?)) desc, ";
+                rankArgs.add(text);
+            } else {
+                for (String term : text.toLowerCase(Locale.ROOT).split("\\s+")) {
+                    String pattern = "%" + likeEscape(term) + "%";
+                    where("(lower(" + textAlias + ".name) like ? or lower(coalesce(" + textAlias + ".description, '')) like ?)",
+                            pattern, pattern);
+                }
+            }
+        }
+
+        // from: the tables with their aliases ("item i join product p on ...")
+        List<Long> ids(String from, int limit, int offset) {
+            StringBuilder sql = new StringBuilder("select ").append(alias).append(".id from ").append(from);
+            if (!where.isEmpty()) sql.append(" where ").append(String.join(" and ", where));
+            sql.append(" order by ").append(rank == null ? "" : rank).append(alias).append(".id limit ? offset ?");
+
+            List<Object> params = new ArrayList<>(args);
+            params.addAll(rankArgs);
+            params.add(limit);
+            params.add(offset);
+            return jdbc.queryForList(sql.toString(), Long.class, params.toArray());
+        }
+    }
+}
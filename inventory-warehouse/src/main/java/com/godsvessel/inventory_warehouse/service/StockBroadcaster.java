@@ -0,0 +1,215 @@
+package com.godsvessel.inventory_warehouse.service;
+
+import com.godsvessel.inventory_warehouse.dto.StockChange;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// In-process fan-out of committed stock changes to live subscribers (the SSE stream).
+//  - publish() runs on the committing thread and never blocks: each change is offered to the bounded
+//    buffer of every subscriber watching that warehouse (or all of them)
+//  - a small sender pool drains each buffer, one drain per subscriber at a time, and sends what
+//    piled up as one batch, so a busy warehouse costs one write per client per drain, not per change
+//  - a subscriber whose buffer fills up is too slow to keep up and is evicted; the client reconnects
+//    and reloads, which is cheaper than holding an unbounded backlog for it
+//  - idle subscribers get a heartbeat, which is also how dead connections are found
+@Service
+public class StockBroadcaster {
+
+    // how a subscriber receives events (the SSE emitter in production)
+    public interface Sink {
+        void send(List<StockChange> changes) throws IOException;
+
+        void heartbeat() throws IOException;
+
+        void close();
+    }
+
+    private final int maxSubscribers;
+    private final int bufferSize;
+    private final int maxBatch;
+    private final Counter evicted;
+
+    private final Map<Long, Set<Subscription>> byWarehouse = new ConcurrentHashMap<>();
+    private final Set<Subscription> everything = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscribers = new AtomicInteger();
+
+    private final ExecutorService senders;
+    private final ScheduledExecutorService heartbeats;
+
+    public StockBroadcaster(MeterRegistry registry,
+                            @Value("${inventory.stream.max-subscribers:10000}") int maxSubscribers,
+                            @Value("${inventory.stream.client-buffer:256}") int bufferSize,
+                            @Value("${inventory.stream.max-batch:100}") int maxBatch,
+                            @Value("${inventory.stream.sender-threads:4}") int senderThreads,
+                            @Value("${inventory.stream.heartbeat-ms:15000}") long heartbeatMs) {
+        this.maxSubscribers = maxSubscribers;
+        this.bufferSize = bufferSize;
+        this.maxBatch = maxBatch;
+
+        AtomicInteger threadNo = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, r -> {
+            Thread t = new Thread(r, "stock-stream-" + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "stock-stream-heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("inventory.stream.subscribers", subscribers, AtomicInteger::get)
+                .description("Open stock change streams")
+                .register(registry);
+        this.evicted = Counter.builder("inventory.stream.evicted")
+                .description("Stock change streams dropped for falling behind")
+                .register(registry);
+    }
+
+    // warehouseId null = every warehouse; throws IllegalStateException when the broadcaster is full
+    public Subscription subscribe(Long warehouseId, Sink sink) {
+        if (subscribers.incrementAndGet() > maxSubscribers) {
+            subscribers.decrementAndGet();
+            throw new IllegalStateException("Too many open stock streams, try again later.");
+        }
+        Subscription sub = new Subscription(warehouseId, sink, bufferSize);
+        targets(warehouseId).add(sub);
+        return sub;
+    }
+
+    // called after commit, in commit order per transaction
+    public void publish(List<StockChange> changes) {
+        if (changes.isEmpty() || subscribers.get() == 0) return;
+        Set<Subscription> touched = new LinkedHashSet<>();
+        for (StockChange change : changes) {
+            offer(change, everything, touched);
+            Set<Subscription> watching = byWarehouse.get(change.warehouseId());
+            if (watching != null) offer(change, watching, touched);
+        }
+        for (Subscription sub : touched) schedule(sub);
+    }
+
+    public int subscriberCount() {
+        return subscribers.get();
+    }
+
+    private void offer(StockChange change, Set<Subscription> subs, Set<Subscription> touched) {
+        for (Subscription sub : subs) {
+            if (sub.closed.get()) continue;
+            if (sub.buffer.offer(change)) {
+                touched.add(sub);
+            } else {
+                evicted.increment();
+                sub.cancel();
+            }
+        }
+    }
+
+    private void heartbeat() {
+        for (Subscription sub : everything) ping(sub);
+        for (Set<Subscription> subs : byWarehouse.values()) {
+            for (Subscription sub : subs) ping(sub);
+        }
+    }
+
+    private void ping(Subscription sub) {
+        sub.pingDue = true;
+        schedule(sub);
+    }
+
+    private void schedule(Subscription sub) {
+        if (!sub.closed.get() && sub.draining.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(sub));
+            } catch (RuntimeException e) {   // shutting down
+                sub.draining.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscription sub) {
+        try {
+            List<StockChange> batch = new ArrayList<>(maxBatch);
+            while (!sub.closed.get() && sub.buffer.drainTo(batch, maxBatch) > 0) {
+                sub.sink.send(List.copyOf(batch));
+                batch.clear();
+                sub.pingDue = false;
+            }
+            if (sub.pingDue && !sub.closed.get()) {
+                sub.pingDue = false;
+                sub.sink.heartbeat();
+            }
+        } catch (IOException | RuntimeException e) {
+            // client went away
+            sub.cancel();
+        } finally {
+            sub.draining.set(false);
+        }
+        // something arrived after the last drainTo but before draining was released
+        if (!sub.buffer.isEmpty()) schedule(sub);
+    }
+
+    private Set<Subscription> targets(Long warehouseId) {
+        return (warehouseId == null) ? everything : byWarehouse.computeIfAbsent(warehouseId, id -> ConcurrentHashMap.newKeySet());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+        senders.shutdownNow();
+        for (Subscription sub : everything) sub.cancel();
+        for (Set<Subscription> subs : byWarehouse.values()) {
+            for (Subscription sub : subs) sub.cancel();
+        }
+    }
+
+    public final class Subscription {
+        private final Long warehouseId;
+        private final Sink sink;
+        private final BlockingQueue<StockChange> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile boolean pingDue;
+
+        private Subscription(Long warehouseId, Sink sink, int bufferSize) {
+            this.warehouseId = warehouseId;
+            this.sink = sink;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        // idempotent: the client disconnecting, the emitter timing out and eviction can all end up here
+        public void cancel() {
+            if (!closed.compareAndSet(false, true)) return;
+            // the (possibly empty) per-warehouse set stays: there are only as many as warehouses
+            targets(warehouseId).remove(this);
+            subscribers.decrementAndGet();
+            buffer.clear();
+            sink.close();
+        }
+
+        public boolean isClosed() {
+            return closed.get();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.godsvessel.inventory_warehouse.service;
+
+import com.godsvessel.inventory_warehouse.dto.StockAt;
+import com.godsvessel.inventory_warehouse.repository.WarehouseRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// "What was on hand in warehouse X at time T". Quantities are rebuilt from the newest snapshot at or
+// before T plus the movements between that snapshot and T, so the work is proportional to the changes
+// since the snapshot, never to the whole history. Snapshots are compacted the same way: each one is the
+// previous one plus what moved since.
+// Movements are read from the ledger and the outbox together (one statement), so changes the ledger
+// writer hasn't moved yet are included.
+@Service
+public class StockHistoryService {
+
+    private static final String MOVEMENTS = """
+            select item_id, sku, delta, occurred_at, id from stock_movement
+            where warehouse_id = ? and occurred_at > ? and occurred_at <= ?
+            union all
+            select item_id, sku, delta, occurred_at, id from stock_movement_outbox
+            where warehouse_id = ? and occurred_at > ? and occurred_at <= ?
+            """;
+
+    private final JdbcTemplate jdbc;
+    private final WarehouseRepository warehouseRepo;
+    private final TransactionTemplate txTemplate;
+    private final Duration snapshotLag;
+
+    public StockHistoryService(JdbcTemplate jdbc, WarehouseRepository warehouseRepo, TransactionTemplate txTemplate,
+                               @Value("${inventory.snapshots.lag-ms:60000}") long snapshotLagMs) {
+        this.jdbc = jdbc;
+        this.warehouseRepo = warehouseRepo;
+        this.txTemplate = txTemplate;
+        this.snapshotLag = Duration.ofMillis(snapshotLagMs);
+    }
+
+    @Transactional(readOnly = true)
+    public StockAt stockAt(Long warehouseId, Instant at) {
+        if (warehouseId == null) throw new IllegalArgumentException("Warehouse is required.");
+        if (!warehouseRepo.existsById(warehouseId))
+            throw new IllegalArgumentException("Warehouse not found: " + warehouseId);
+        Instant when = micros((at == null) ? Instant.now() : at);
+
+        Snapshot base = latestSnapshot(warehouseId, when);
+        Map<Long, StockAt.Line> lines = replay(warehouseId, base, when);
+        return new StockAt(warehouseId, when, (base == null) ? null : base.takenAt(), List.copyOf(lines.values()));
+    }
+
+    // periodic compaction. The cutoff trails "now" by snapshotLag: occurred_at is stamped before commit,
+    // so a movement stamped just before the cutoff may still be in flight
+    @Scheduled(initialDelayString = "${inventory.snapshots.interval-ms:3600000}",
+               fixedDelayString = "${inventory.snapshots.interval-ms:3600000}")
+    public void takeSnapshots() {
+        takeSnapshots(Instant.now().minus(snapshotLag));
+    }
+
+    // one snapshot per warehouse that had movements since its last snapshot, each in its own transaction
+    // (the scheduled overload above calls this directly, so an @Transactional here would never apply)
+    public int takeSnapshots(Instant until) {
+        Instant cutoff = micros(until);
+        int taken = 0;
+        for (Long warehouseId : jdbc.queryForList("select id from warehouse order by id", Long.class)) {
+            if (Boolean.TRUE.equals(txTemplate.execute(status -> takeSnapshot(warehouseId, cutoff)))) taken++;
+        }
+        return taken;
+    }
+
+    private boolean takeSnapshot(Long warehouseId, Instant cutoff) {
+        Snapshot base = latestSnapshot(warehouseId, cutoff);
+        if (base != null && !base.takenAt().isBefore(cutoff)) return false;
+        Instant from = (base == null) ? Instant.EPOCH : base.takenAt();
+        Integer changes = jdbc.queryForObject("select count(*) from (" + MOVEMENTS + ") m", Integer.class,
+                warehouseId, Timestamp.from(from), Timestamp.from(cutoff),
+                warehouseId, Timestamp.from(from), Timestamp.from(cutoff));
+        if (changes == null || changes == 0) return false;
+
+        Map<Long, StockAt.Line> lines = replay(warehouseId, base, cutoff);
+        Long snapshotId = jdbc.queryForObject("select nextval('stock_snapshot_id_seq')", Long.class);
+        jdbc.update("insert into stock_snapshot (id, warehouse_id, taken_at) values (?, ?, ?)",
+                snapshotId, warehouseId, Timestamp.from(cutoff));
+        List<Object[]> rows = new ArrayList<>(lines.size());
+        for (StockAt.Line line : lines.values()) {
+            rows.add(new Object[]{snapshotId, line.itemId(), line.sku(), line.quantity()});
+        }
+        jdbc.batchUpdate("insert into stock_snapshot_line (snapshot_id, item_id, sku, quantity) values (?, ?, ?, ?)",
+                rows);
+        return true;
+    }
+
+    // snapshot lines first, then the movements after it in the order they happened; an item's sku is the
+    // latest one seen (rows can be renamed in place). Items that net out to zero are dropped
+    private Map<Long, StockAt.Line> replay(Long warehouseId, Snapshot base, Instant until) {
+        Map<Long, StockAt.Line> lines = new LinkedHashMap<>();
+        if (base != null) {
+            jdbc.query("select item_id, sku, quantity from stock_snapshot_line where snapshot_id = ? order by item_id",
+                    rs -> {
+                        long itemId = rs.getLong("item_id");
+                        lines.put(itemId, new StockAt.Line(itemId, rs.getString("sku"), rs.getInt("quantity")));
+                    }, base.id());
+        }
+
+        Timestamp from = Timestamp.from((base == null) ? Instant.EPOCH : base.takenAt());
+        Timestamp to = Timestamp.from(until);
+        jdbc.query(MOVEMENTS + " order by occurred_at, id", rs -> {
+            long itemId = rs.getLong("item_id");
+            StockAt.Line prev = lines.get(itemId);
+            int quantity = ((prev == null) ? 0 : prev.quantity()) + rs.getInt("delta");
+            lines.put(itemId, new StockAt.Line(itemId, rs.getString("sku"), quantity));
+        }, warehouseId, from, to, warehouseId, from, to);
+
+        lines.values().removeIf(line -> line.quantity() == 0);
+        return lines;
+    }
+
+    private Snapshot latestSnapshot(Long warehouseId, Instant at) {
+        List<Snapshot> found = jdbc.query(
+                "select id, taken_at from stock_snapshot where warehouse_id = ? and taken_at <= ? " +
+                "order by taken_at desc limit 1",
+                (rs, i) -> new Snapshot(rs.getLong("id"), rs.getTimestamp("taken_at").toInstant()),
+                warehouseId, Timestamp.from(at));
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    // the columns hold microseconds; a nanosecond cutoff would be rounded on the way in
+    private static Instant micros(Instant instant) {
+        return instant.truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private record Snapshot(long id, Instant takenAt) {
+    }
+}
@@ -0,0 +1,211 @@
+package com.godsvessel.inventory_warehouse.service;
+
+import com.godsvessel.inventory_warehouse.dto.StockChange;
+import com.godsvessel.inventory_warehouse.model.Item;
+import com.godsvessel.inventory_warehouse.model.StockMovementEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Stock movement ledger (transactional outbox).
+//  - record(): the item write path persists a StockMovementEvent in its own transaction; it goes out
+//    with the same flush as the item row (JDBC batch, pooled ids), so the only cost is one more row.
+//  - after commit the event ids are offered to a bounded in-memory queue; one writer thread drains it
+//    and moves each batch outbox -> stock_movement with two set-based statements.
+//  - the queue is only a fast path: if it is full, or the process dies with ids still in it, the rows
+//    are still in the outbox and the periodic sweep moves them. stock_movement's key is the event id,
+//    so a row can't land twice.
+//  - the same commit hook hands the new quantities to StockBroadcaster for the live stream, and
+//    ReplenishmentService sees each changed row once its transaction commits. Hooks of concurrent
+//    commits can run in either order, so each change carries its event id: writes to one row hold its
+//    lock while they record, so a later state always gets a higher id from the sequence.
+@Service
+public class StockLedger implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(StockLedger.class);
+    private static final Object PENDING_KEY = new Object();
+
+    private static final String COLUMNS = "id, item_id, warehouse_id, sku, delta, reason, correlation_id, occurred_at";
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbc;
+    private final NamedParameterJdbcTemplate namedJdbc;
+    private final TransactionTemplate txTemplate;
+    private final StockBroadcaster broadcaster;
+    private final ReplenishmentService replenishment;
+    private final BlockingQueue<Long> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long sweepIntervalMs;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public StockLedger(EntityManager entityManager, JdbcTemplate jdbc, TransactionTemplate txTemplate,
+                       StockBroadcaster broadcaster, ReplenishmentService replenishment, MeterRegistry registry,
+                       @Value("${inventory.ledger.queue-capacity:10000}") int queueCapacity,
+                       @Value("${inventory.ledger.batch-size:500}") int batchSize,
+                       @Value("${inventory.ledger.flush-interval-ms:200}") long flushIntervalMs,
+                       @Value("${inventory.ledger.sweep-interval-ms:5000}") long sweepIntervalMs) {
+        this.entityManager = entityManager;
+        this.jdbc = jdbc;
+        this.namedJdbc = new NamedParameterJdbcTemplate(jdbc);
+        this.txTemplate = txTemplate;
+        this.broadcaster = broadcaster;
+        this.replenishment = replenishment;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.sweepIntervalMs = sweepIntervalMs;
+
+        Gauge.builder("inventory.ledger.queue", queue, BlockingQueue::size)
+                .description("Committed movements waiting for the ledger writer")
+                .register(registry);
+    }
+
+    // must run inside the transaction that changes the item; delta 0 is not a movement
+    public void record(Item item, Long warehouseId, int delta, StockMovementEvent.Reason reason, UUID correlationId) {
+        if (delta == 0) return;
+        StockMovementEvent event = new StockMovementEvent(item.getId(), warehouseId, item.getSku(), delta, reason,
+                correlationId, Instant.now());
+        entityManager.persist(event);
+
+        Pending pending = pending();
+        pending.ids.add(event.getId());
+        boolean left = reason == StockMovementEvent.Reason.MOVED_OUT || reason == StockMovementEvent.Reason.DELETED;
+        pending.changes.add(new StockChange(item.getId(), warehouseId, left ? null : item.getQuantity(), event.getId()));
+        replenishment.track(item, warehouseId, left);
+    }
+
+    // moves everything in the outbox now (shutdown, tests); safe to call while the writer runs
+    public void flush() {
+        int moved;
+        do {
+            moved = sweep();
+        } while (moved == batchSize);   // a short batch means the outbox is empty
+    }
+
+    // what the current transaction recorded: ids for the queue and changes for the stream, both
+    // handed over once it commits
+    private static final class Pending {
+        final List<Long> ids = new ArrayList<>();
+        final List<StockChange> changes = new ArrayList<>();
+    }
+
+    private Pending pending() {
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(PENDING_KEY);
+        if (pending == null) {
+            Pending created = new Pending();
+            TransactionSynchronizationManager.bindResource(PENDING_KEY, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    for (Long id : created.ids) {
+                        // full queue: leave it to the sweep rather than block the request
+                        if (!queue.offer(id)) break;
+                    }
+                    broadcaster.publish(created.changes);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_KEY);
+                }
+            });
+            pending = created;
+        }
+        return pending;
+    }
+
+    private void runWriter() {
+        long nextSweep = System.currentTimeMillis() + sweepIntervalMs;
+        List<Long> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Long first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    move(batch);
+                    batch.clear();
+                }
+                if (System.currentTimeMillis() >= nextSweep) {
+                    sweep();
+                    nextSweep = System.currentTimeMillis() + sweepIntervalMs;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // db hiccup: the rows are still in the outbox, the next sweep picks them up
+                log.warn("Stock ledger batch failed, will retry from the outbox: {}", e.getMessage());
+                batch.clear();
+            }
+        }
+    }
+
+    private synchronized int sweep() {
+        List<Long> ids = jdbc.queryForList(
+                "select id from stock_movement_outbox order by id limit ?", Long.class, batchSize);
+        move(ids);
+        return ids.size();
+    }
+
+    // one transaction: copy to the ledger, drop from the outbox. Ids someone else already moved are
+    // simply not found any more
+    private synchronized void move(List<Long> ids) {
+        if (ids.isEmpty()) return;
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids);
+        txTemplate.executeWithoutResult(status -> {
+            namedJdbc.update("insert into stock_movement (" + COLUMNS + ") select " + COLUMNS
+                    + " from stock_movement_outbox where id in (:ids)", params);
+            namedJdbc.update("delete from stock_movement_outbox where id in (:ids)", params);
+        });
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::runWriter, "stock-ledger-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        writer.interrupt();
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+            flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Stock ledger not flushed on shutdown, the outbox will be moved on next start: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -1,35 +1,71 @@
 // warehouse service
 package com.godsvessel.inventory_warehouse.service;
 
+import com.godsvessel.inventory_warehouse.config.CacheConfig;
+import com.godsvessel.inventory_warehouse.dto.WarehouseSummary;
 import com.godsvessel.inventory_warehouse.model.Warehouse;
 import com.godsvessel.inventory_warehouse.repository.WarehouseRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class WarehouseService {
 
     private final WarehouseRepository repo;
+    private final ReplenishmentService replenishment;
 
-    public WarehouseService(WarehouseRepository repo) {
+    public WarehouseService(WarehouseRepository repo, ReplenishmentService replenishment) {
         this.repo = repo;
+        this.replenishment = replenishment;
     }
 
+    @Transactional(readOnly = true)
     public List<Warehouse> getAllWh() {
         return repo.findAll();
     }
 
+    @Transactional(readOnly = true)
     public Warehouse getWhById(Long id) {
         return repo.findById(id)
                 .orElseThrow(() -> new RuntimeException("Warehouse not found with id " + id));
     }
 
+    // cached existence check for the item write paths. The copy is shared and its counters are NOT kept
+    // current (items move all the time): never attach it to an entity, read them through getWhById/getAllWh
+    @Cacheable(cacheNames = CacheConfig.WAREHOUSES)
+    public Optional<Warehouse> findCachedWh(Long id) {
+        return repo.findById(id);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.WAREHOUSES, key = "#result.id")
     public Warehouse saveWh(Warehouse warehouse) {
         return repo.save(warehouse);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.WAREHOUSES, key = "#id")
     public void deleteWh(Long id) {
         repo.deleteById(id);
     }
+
+    // served from the counters on the warehouse rows, never from the item table
+    @Transactional(readOnly = true)
+    public List<WarehouseSummary> getSummary() {
+        return repo.findSummaries();
+    }
+
+    // the counters are maintained incrementally by ItemService/ImportService. Maintenance only: rebuilds
+    // them from the item table after rows were changed by hand (or the default reorder point changed).
+    // Every writer moves a counter under its warehouse row lock before committing, so with all of them
+    // locked the recount sees exactly the committed items; writers wait until it's done. Scans all of item
+    @Transactional
+    public List<WarehouseSummary> reconcileCounters() {
+        repo.findAllForUpdate();
+        repo.recalculateCounters(replenishment.getDefaultReorderPoint());
+        return repo.findSummaries();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+-- =========================================================
+-- item table footprint, for before/after comparisons (migration V12__normalize_item_catalog.sql)
+--   psql -d inventory_db -f item_table_stats.sql
+-- Buffer-cache counters are cumulative since the last pg_stat_reset(); reset, run the usual load
+-- for a while, then read them.
+-- =========================================================
+
+-- heap, indexes and TOAST (descriptions over ~2KB live there)
+SELECT c.relname,
+       pg_size_pretty(pg_relation_size(c.oid))                         AS heap,
+       pg_size_pretty(pg_indexes_size(c.oid))                          AS indexes,
+       pg_size_pretty(COALESCE(pg_total_relation_size(c.reltoastrelid), 0)) AS toast,
+       pg_size_pretty(pg_total_relation_size(c.oid))                   AS total,
+       c.reltuples::bigint                                             AS rows_estimate,
+       (pg_relation_size(c.oid) / NULLIF(c.reltuples, 0))::int         AS heap_bytes_per_row
+FROM pg_class c
+WHERE c.relname IN ('item', 'product');
+
+-- share of item/product reads served from shared_buffers (heap and index)
+SELECT relname,
+       round(100.0 * heap_blks_hit / NULLIF(heap_blks_hit + heap_blks_read, 0), 2) AS heap_hit_pct,
+       round(100.0 * idx_blks_hit  / NULLIF(idx_blks_hit  + idx_blks_read, 0), 2)  AS index_hit_pct,
+       heap_blks_read, heap_blks_hit
+FROM pg_statio_user_tables
+WHERE relname IN ('item', 'product');
+
+-- the list page and a capacity SUM, with buffer counts (shared hit / read per query)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT i.id, i.sku, i.size, i.quantity, i.reserved, i.reorder_point, i.version, i.warehouse_id
+FROM item i WHERE i.id > 0 ORDER BY i.id LIMIT 200;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT COALESCE(SUM(i.quantity), 0) FROM item i WHERE i.warehouse_id = (SELECT MIN(id) FROM warehouse);
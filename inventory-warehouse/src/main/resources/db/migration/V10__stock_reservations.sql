@@ -0,0 +1,25 @@
+-- =========================================================
+-- Stock reservations
+-- Checkout holds (ReservationService). HELD rows are counted in item.reserved; the expiry
+-- sweep walks the (status, expires_at) index. No FK to item: confirmed/expired history stays.
+-- =========================================================
+ALTER TABLE item ADD COLUMN IF NOT EXISTS reserved INTEGER;   -- units held by open reservations
+UPDATE item SET reserved = 0 WHERE reserved IS NULL;
+ALTER TABLE item
+    ALTER COLUMN reserved SET DEFAULT 0, ALTER COLUMN reserved SET NOT NULL,
+    DROP CONSTRAINT IF EXISTS ck_item_reserved,
+    ADD CONSTRAINT ck_item_reserved CHECK (reserved >= 0 AND reserved <= quantity);
+
+CREATE SEQUENCE IF NOT EXISTS stock_reservation_id_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS stock_reservation (
+    id           BIGINT      PRIMARY KEY,
+    item_id      BIGINT      NOT NULL,
+    sku          VARCHAR(50) NOT NULL,
+    warehouse_id BIGINT      NOT NULL,
+    quantity     INTEGER     NOT NULL CHECK (quantity > 0),
+    status       VARCHAR(10) NOT NULL,
+    created_at   TIMESTAMPTZ NOT NULL,
+    expires_at   TIMESTAMPTZ NOT NULL
+);
+CREATE INDEX IF NOT EXISTS ix_stock_reservation_due ON stock_reservation (status, expires_at);
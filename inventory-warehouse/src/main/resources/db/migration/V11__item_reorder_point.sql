@@ -0,0 +1,12 @@
+-- per-item replenishment trigger; NULL = inventory.replenishment.default-reorder-point
+ALTER TABLE item ADD COLUMN IF NOT EXISTS reorder_point INTEGER;
+ALTER TABLE item
+    DROP CONSTRAINT IF EXISTS ck_item_reorder_point,
+    ADD CONSTRAINT ck_item_reorder_point CHECK (reorder_point >= 0);
+
+-- low_stock_count now follows each item's reorder point, like the replenishment report. Only differs
+-- from V2's count where ddl-auto=update already added the column and rows have one set. 5 is the
+-- default reorder point's default: with another value, POST /api/warehouses/counters:reconcile
+UPDATE warehouse w
+SET low_stock_count = (SELECT COUNT(*) FROM item i
+                       WHERE i.warehouse_id = w.id AND i.quantity < COALESCE(i.reorder_point, 5));
@@ -0,0 +1,42 @@
+-- =========================================================
+-- Move item name / description / image_url onto the product catalog
+-- Item rows keep (sku, warehouse, size, quantity); the catalog fields are joined from product.
+-- Run db/item_table_stats.sql before and after to compare.
+-- =========================================================
+
+-- the catalog now carries what the longest item names needed
+ALTER TABLE product        ALTER COLUMN name TYPE VARCHAR(150);
+ALTER TABLE product_import ALTER COLUMN name TYPE VARCHAR(150);
+
+-- 1. backfill: every sku stocked somewhere gets a catalog entry. When warehouses disagree, the row
+--    that has a description wins, then the one with an image, then the oldest row
+INSERT INTO product (id, name, sku, description, image_url)
+SELECT nextval('product_id_seq'), d.name, d.sku, d.description, d.image_url
+FROM (SELECT DISTINCT ON (sku) sku, name, description, image_url
+      FROM item
+      ORDER BY sku, (description IS NULL), (image_url IS NULL), id) d
+WHERE NOT EXISTS (SELECT 1 FROM product p WHERE p.sku = d.sku);
+
+-- 2. existing entries keep their own values; only gaps are filled from the items
+UPDATE product p
+SET description = COALESCE(p.description, d.description),
+    image_url   = COALESCE(p.image_url, d.image_url)
+FROM (SELECT DISTINCT ON (sku) sku, description, image_url
+      FROM item
+      ORDER BY sku, (description IS NULL), (image_url IS NULL), id) d
+WHERE d.sku = p.sku
+  AND ((p.description IS NULL AND d.description IS NOT NULL) OR (p.image_url IS NULL AND d.image_url IS NOT NULL));
+
+-- 3. deduplicate: the per-warehouse copies go; the item row keeps only the sku that points at the entry
+DROP INDEX IF EXISTS ix_item_fts;
+DROP INDEX IF EXISTS ix_item_name_trgm;
+ALTER TABLE item DROP COLUMN name, DROP COLUMN description, DROP COLUMN image_url;
+
+ALTER TABLE item ADD CONSTRAINT fk_item_product FOREIGN KEY (sku) REFERENCES product (sku);
+
+-- DROP COLUMN only hides the data; the space comes back when the rows are rewritten. Not in a
+-- migration (VACUUM can't run inside its transaction); afterwards, either (takes an exclusive lock
+-- for the duration):
+--   VACUUM (FULL, ANALYZE) item;
+-- or online, with the pg_repack extension:
+--   pg_repack --table=item inventory_db
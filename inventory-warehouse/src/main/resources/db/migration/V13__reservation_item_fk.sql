@@ -0,0 +1,16 @@
+-- =========================================================
+-- Reservations point at a real item row
+-- A hold can't be written for an item that's gone. The history outlives the item: deleting it
+-- (only possible with nothing HELD, see ItemService.delete) clears item_id, sku and warehouse stay.
+-- =========================================================
+ALTER TABLE stock_reservation ALTER COLUMN item_id DROP NOT NULL;
+
+-- rows left behind by items deleted before this constraint
+UPDATE stock_reservation r SET item_id = NULL
+WHERE r.item_id IS NOT NULL AND NOT EXISTS (SELECT 1 FROM item i WHERE i.id = r.item_id);
+
+ALTER TABLE stock_reservation
+    ADD CONSTRAINT fk_stock_reservation_item FOREIGN KEY (item_id) REFERENCES item (id) ON DELETE SET NULL;
+
+-- the ON DELETE lookup from item
+CREATE INDEX IF NOT EXISTS ix_stock_reservation_item ON stock_reservation (item_id);
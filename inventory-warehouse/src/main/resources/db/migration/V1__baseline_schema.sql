@@ -0,0 +1,49 @@
+-- =========================================================
+-- God’s Vessel Inventory Schema, version 1
+-- The schema exactly as the original hand-run gv_inventory_schema.sql built it. Databases created
+-- with that script are baselined at this version (spring.flyway.baseline-on-migrate) and continue
+-- from V2, so nothing the later versions add may be folded back in here.
+-- Demo rows: db/sample (see spring.flyway.locations).
+-- =========================================================
+
+-- =========================
+-- 1. Warehouse table
+-- =========================
+CREATE TABLE warehouse (
+    id           BIGSERIAL PRIMARY KEY,
+    name         VARCHAR(100) NOT NULL,
+    location     VARCHAR(100),
+    max_capacity INTEGER      NOT NULL
+);
+
+-- ==================================================
+-- 2. Item (shirt) table
+-- Each row = specific inventory batch @ ONE warehouse.
+-- Same design at multiple warehouses = separate rows with same SKU or related name.
+-- ==================================================
+CREATE TABLE item (
+    id           BIGSERIAL PRIMARY KEY,
+    name         VARCHAR(150) NOT NULL,
+    sku          VARCHAR(50)  NOT NULL,
+    description  TEXT,
+    size         VARCHAR(10),
+    quantity     INTEGER      NOT NULL DEFAULT 0 CHECK (quantity >= 0),
+    image_url    TEXT,
+    warehouse_id BIGINT       NOT NULL,
+    CONSTRAINT fk_item_warehouse
+        FOREIGN KEY (warehouse_id)
+        REFERENCES warehouse(id)
+        ON DELETE CASCADE,
+    CONSTRAINT uq_item_sku_warehouse UNIQUE (sku, warehouse_id)
+);
+
+-- =========================
+-- 3. Product table (master catalog)
+-- =========================
+CREATE TABLE IF NOT EXISTS product (
+    id          BIGSERIAL PRIMARY KEY,
+    name        VARCHAR(100) NOT NULL,
+    sku         VARCHAR(50)  NOT NULL UNIQUE,
+    description TEXT,
+    image_url    VARCHAR(255)
+);
@@ -0,0 +1,23 @@
+-- =========================================================
+-- Warehouse counters
+-- used_capacity = SUM(item.quantity), sku_count = item rows, low_stock_count = rows below 5.
+-- The app keeps them with conditional updates from here on; existing rows are counted once below.
+-- IF NOT EXISTS / NULL fill: ddl-auto=update may already have added the columns.
+-- =========================================================
+ALTER TABLE warehouse
+    ADD COLUMN IF NOT EXISTS used_capacity   INTEGER,
+    ADD COLUMN IF NOT EXISTS sku_count       INTEGER,
+    ADD COLUMN IF NOT EXISTS low_stock_count INTEGER;
+
+-- backfill (the table is locked by the ALTER above until this migration commits)
+UPDATE warehouse w
+SET used_capacity   = (SELECT COALESCE(SUM(i.quantity), 0) FROM item i WHERE i.warehouse_id = w.id),
+    sku_count       = (SELECT COUNT(*) FROM item i WHERE i.warehouse_id = w.id),
+    low_stock_count = (SELECT COUNT(*) FROM item i WHERE i.warehouse_id = w.id AND i.quantity < 5);
+
+ALTER TABLE warehouse
+    ALTER COLUMN used_capacity   SET DEFAULT 0, ALTER COLUMN used_capacity   SET NOT NULL,
+    ALTER COLUMN sku_count       SET DEFAULT 0, ALTER COLUMN sku_count       SET NOT NULL,
+    ALTER COLUMN low_stock_count SET DEFAULT 0, ALTER COLUMN low_stock_count SET NOT NULL,
+    DROP CONSTRAINT IF EXISTS ck_warehouse_used_capacity,
+    ADD CONSTRAINT ck_warehouse_used_capacity CHECK (used_capacity >= 0);
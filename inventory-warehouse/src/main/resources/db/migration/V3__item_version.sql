@@ -0,0 +1,4 @@
+-- optimistic lock (@Version) on item
+ALTER TABLE item ADD COLUMN IF NOT EXISTS version BIGINT;
+UPDATE item SET version = 0 WHERE version IS NULL;
+ALTER TABLE item ALTER COLUMN version SET DEFAULT 0, ALTER COLUMN version SET NOT NULL;
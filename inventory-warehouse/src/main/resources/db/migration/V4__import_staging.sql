@@ -0,0 +1,29 @@
+-- =========================================================
+-- Bulk import staging
+-- Rows are COPY'd in per import_id, merged into item/product with set-based SQL,
+-- then deleted in the same transaction. UNLOGGED: nothing here needs to survive a crash.
+-- =========================================================
+CREATE UNLOGGED TABLE IF NOT EXISTS item_import (
+    import_id     UUID         NOT NULL,
+    line_no       BIGINT       NOT NULL,
+    name          VARCHAR(150),
+    sku           VARCHAR(50),
+    description   TEXT,
+    size          VARCHAR(10),
+    quantity      INTEGER,
+    image_url     TEXT,
+    warehouse_id  BIGINT,
+    reject_reason TEXT
+);
+CREATE INDEX IF NOT EXISTS ix_item_import_batch ON item_import (import_id, line_no);
+
+CREATE UNLOGGED TABLE IF NOT EXISTS product_import (
+    import_id     UUID         NOT NULL,
+    line_no       BIGINT       NOT NULL,
+    name          VARCHAR(100),
+    sku           VARCHAR(50),
+    description   TEXT,
+    image_url     VARCHAR(255),
+    reject_reason TEXT
+);
+CREATE INDEX IF NOT EXISTS ix_product_import_batch ON product_import (import_id, line_no);
@@ -0,0 +1,13 @@
+-- =========================================================
+-- Pooled id sequences
+-- The app allocates ids 50 at a time (pooled-lo) so Hibernate can batch INSERTs.
+-- Widens the BIGSERIAL sequences' step and moves them past the current max id;
+-- existing ids are untouched. Allocation size = INCREMENT BY here (the app picks it up from the sequence).
+-- =========================================================
+ALTER SEQUENCE warehouse_id_seq INCREMENT BY 50;
+ALTER SEQUENCE item_id_seq      INCREMENT BY 50;
+ALTER SEQUENCE product_id_seq   INCREMENT BY 50;
+
+SELECT setval('warehouse_id_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM warehouse), false);
+SELECT setval('item_id_seq',      (SELECT COALESCE(MAX(id), 0) + 1 FROM item),      false);
+SELECT setval('product_id_seq',   (SELECT COALESCE(MAX(id), 0) + 1 FROM product),   false);
@@ -0,0 +1,17 @@
+-- =========================================================
+-- Search indexes (see SearchService; the tsvector expressions must match its queries exactly)
+-- On a large item table, build these by hand with CREATE INDEX CONCURRENTLY first; the
+-- IF NOT EXISTS then skips them here.
+-- =========================================================
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS ix_item_fts ON item
+    USING GIN (to_tsvector('english', coalesce(name, '') || ' ' || coalesce(description, '')));
+CREATE INDEX IF NOT EXISTS ix_item_name_trgm ON item USING GIN (name gin_trgm_ops);   -- name ILIKE '%..%'
+CREATE INDEX IF NOT EXISTS ix_item_sku_prefix ON item (sku text_pattern_ops);         -- sku LIKE 'GV-%'
+CREATE INDEX IF NOT EXISTS ix_item_warehouse ON item (warehouse_id, id);              -- warehouse filter / keyset pages
+
+CREATE INDEX IF NOT EXISTS ix_product_fts ON product
+    USING GIN (to_tsvector('english', coalesce(name, '') || ' ' || coalesce(description, '')));
+CREATE INDEX IF NOT EXISTS ix_product_name_trgm ON product USING GIN (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS ix_product_sku_prefix ON product (sku text_pattern_ops);
@@ -0,0 +1,49 @@
+-- =========================================================
+-- Stock movement ledger
+-- Every quantity change is written to the outbox in the same transaction as the item row,
+-- then moved in batches into stock_movement by the app (StockLedger). Both are append-only;
+-- no FKs because the history has to outlive deleted items/warehouses.
+-- Stock already on hand has no movements; history starts at this migration.
+-- =========================================================
+CREATE SEQUENCE IF NOT EXISTS stock_movement_id_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS stock_movement_outbox (
+    id             BIGINT      PRIMARY KEY,
+    item_id        BIGINT      NOT NULL,
+    warehouse_id   BIGINT      NOT NULL,
+    sku            VARCHAR(50) NOT NULL,
+    delta          INTEGER     NOT NULL,
+    reason         VARCHAR(20) NOT NULL,
+    correlation_id UUID,
+    occurred_at    TIMESTAMPTZ NOT NULL
+);
+
+-- monthly range partitions on occurred_at: old months can be detached/archived without touching
+-- the rest. The key includes occurred_at because a partitioned table's PK must.
+CREATE TABLE IF NOT EXISTS stock_movement (
+    id             BIGINT      NOT NULL,
+    item_id        BIGINT      NOT NULL,
+    warehouse_id   BIGINT      NOT NULL,
+    sku            VARCHAR(50) NOT NULL,
+    delta          INTEGER     NOT NULL,
+    reason         VARCHAR(20) NOT NULL,
+    correlation_id UUID,
+    occurred_at    TIMESTAMPTZ NOT NULL,
+    PRIMARY KEY (id, occurred_at)
+) PARTITION BY RANGE (occurred_at);
+
+CREATE INDEX IF NOT EXISTS ix_stock_movement_warehouse ON stock_movement (warehouse_id, occurred_at);
+CREATE INDEX IF NOT EXISTS ix_stock_movement_item ON stock_movement (item_id, occurred_at);
+
+-- this month and the next 12; anything outside lands in the default partition until a
+-- partition for its month is created
+DO $$
+DECLARE m DATE;
+BEGIN
+    FOR m IN SELECT generate_series(date_trunc('month', now()), date_trunc('month', now()) + INTERVAL '12 months', INTERVAL '1 month')::date
+    LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS stock_movement_%s PARTITION OF stock_movement FOR VALUES FROM (%L) TO (%L)',
+                       to_char(m, 'YYYY_MM'), m, (m + INTERVAL '1 month')::date);
+    END LOOP;
+END $$;
+CREATE TABLE IF NOT EXISTS stock_movement_default PARTITION OF stock_movement DEFAULT;
@@ -0,0 +1,23 @@
+-- =========================================================
+-- Stock snapshots
+-- Net quantity per item and warehouse as of taken_at, compacted from the previous snapshot plus
+-- the movements since (StockHistoryService). Point-in-time reads start from the newest snapshot
+-- at or before the requested time and replay only the movements after it.
+-- =========================================================
+CREATE SEQUENCE IF NOT EXISTS stock_snapshot_id_seq;
+
+CREATE TABLE IF NOT EXISTS stock_snapshot (
+    id           BIGINT      PRIMARY KEY,
+    warehouse_id BIGINT      NOT NULL,
+    taken_at     TIMESTAMPTZ NOT NULL
+);
+CREATE INDEX IF NOT EXISTS ix_stock_snapshot_warehouse ON stock_snapshot (warehouse_id, taken_at);
+
+-- zero quantities are not stored
+CREATE TABLE IF NOT EXISTS stock_snapshot_line (
+    snapshot_id BIGINT      NOT NULL REFERENCES stock_snapshot (id) ON DELETE CASCADE,
+    item_id     BIGINT      NOT NULL,
+    sku         VARCHAR(50) NOT NULL,
+    quantity    INTEGER     NOT NULL,
+    PRIMARY KEY (snapshot_id, item_id)
+);
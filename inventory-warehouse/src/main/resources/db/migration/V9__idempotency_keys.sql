@@ -0,0 +1,14 @@
+-- =========================================================
+-- Idempotency keys
+-- Idempotency-Key -> fingerprint of the request it was first sent with and, once that succeeded,
+-- its JSON response (IdempotencyService). response_body NULL = claimed, still running.
+-- Rows past expires_at are purged by the app.
+-- =========================================================
+CREATE TABLE IF NOT EXISTS idempotency_key (
+    idem_key      VARCHAR(100) PRIMARY KEY,
+    fingerprint   CHAR(64)     NOT NULL,
+    response_body TEXT,
+    created_at    TIMESTAMPTZ  NOT NULL,
+    expires_at    TIMESTAMPTZ  NOT NULL
+);
+CREATE INDEX IF NOT EXISTS ix_idempotency_key_expires ON idempotency_key (expires_at);
@@ -0,0 +1,47 @@
+-- =========================================================
+-- Demo rows (the seed data gv_inventory_schema.sql used to load)
+-- Only picked up when spring.flyway.locations includes classpath:db/sample, and only on a fresh
+-- database: it runs right after V1 against the original schema, so V2.. count, sequence and
+-- normalize these rows like any existing data.
+-- =========================================================
+
+INSERT INTO warehouse (name, location, max_capacity)
+VALUES
+    ('Main Warehouse',          'Greensboro,', 500),
+    ('Overflow Warehouse',      'Charlotte,',  300),
+    ('Local Warehouse',         'Jamestown,',  200),
+    ('External Local Warehouse','HighPoint,',  200);
+
+-- Each row is a physical stock batch at ONE warehouse (warehouses by name, not by id)
+INSERT INTO item (name, sku, description, size, quantity, image_url, warehouse_id)
+SELECT s.name, s.sku, s.description, s.size, s.quantity, s.image_url, w.id
+FROM (VALUES
+    ('Jehovah Jireh Definition Tee - Black', 'GV-JJ-BLK-M',
+     'Bible verse "Jehovah Jireh" definition shirt, size M', 'M', 20,
+     'https://example.com/images/jj-black-m.png', 'Main Warehouse'),
+    ('El Shaddai Definition Tee - White', 'GV-ES-WHT-L',
+     'El Shaddai name of God definition shirt, size L', 'L', 25,
+     'https://example.com/images/es-white-l.png', 'Main Warehouse'),
+    ('Hosanna Hoodie - Grey', 'GV-HS-GRY-XL',
+     'Hosanna hoodie, cozy and bold, size XL', 'XL', 1,
+     'https://example.com/images/hosanna-grey-xl.png', 'Main Warehouse'),
+    ('Agape Love Tee - Black', 'GV-AG-BLK-L',
+     'Agape love of God themed shirt, size L', 'L', 8,
+     'https://example.com/images/agape-black-l.png', 'Overflow Warehouse'),
+    ('Grace Upon Grace Tee - White', 'GV-GR-WHT-M',
+     'Grace upon grace themed shirt, size M', 'M', 3,
+     'https://example.com/images/grace-white-m.png', 'Local Warehouse')
+) AS s (name, sku, description, size, quantity, image_url, warehouse)
+JOIN warehouse w ON w.name = s.warehouse;
+
+INSERT INTO product (name, sku, description, image_url) VALUES
+    ('Jehovah Jireh Definition Tee', 'GV-JJ-BLK-M',
+     'Bible verse "Jehovah Jireh" definition shirt', 'https://example.com/images/jj-black-m.png'),
+    ('El Shaddai Definition Tee', 'GV-ES-WHT-L',
+     'El Shaddai name of God definition shirt', 'https://example.com/images/es-white-l.png'),
+    ('Agape Love Tee', 'GV-AG-BLK-L',
+     'Love of God themed shirt', 'https://example.com/images/agape-black-l.png'),
+    ('Grace Upon Grace Tee', 'GV-GR-WHT-M',
+     'Grace upon grace shirt', 'https://example.com/images/grace-white-m.png'),
+    ('Hosanna Hoodie', 'GV-HS-GRY-XL',
+     'Hosanna hoodie', 'https://example.com/images/hosanna-grey-xl.png');
@@ -0,0 +1,48 @@
+package com.godsvessel.inventory_warehouse;
+
+import com.godsvessel.inventory_warehouse.model.Warehouse;
+import com.godsvessel.inventory_warehouse.repository.ItemRepository;
+import com.godsvessel.inventory_warehouse.repository.ReservationRepository;
+import com.godsvessel.inventory_warehouse.repository.WarehouseRepository;
+
+// Shared seed data for the @SpringBootTest classes, brought in with @Import(TestFixtures.class) (not
+// component-scanned, so it never ends up in a context by accident). Each class clears the stock tables
+// and builds its warehouses through here; only the rows its tests are about stay in the class itself.
+public class TestFixtures {
+
+    public static final int DEFAULT_CAPACITY = 1000;
+
+    private final ReservationRepository reservationRepo;
+    private final ItemRepository itemRepo;
+    private final WarehouseRepository warehouseRepo;
+
+    public TestFixtures(ReservationRepository reservationRepo, ItemRepository itemRepo,
+                        WarehouseRepository warehouseRepo) {
+        this.reservationRepo = reservationRepo;
+        this.itemRepo = itemRepo;
+        this.warehouseRepo = warehouseRepo;
+    }
+
+    // children first: reservations point at items, items at warehouses
+    public void clearStock() {
+        reservationRepo.deleteAllInBatch();
+        itemRepo.deleteAllInBatch();
+        warehouseRepo.deleteAllInBatch();
+    }
+
+    public Warehouse warehouse(String name) {
+        return warehouse(name, null, DEFAULT_CAPACITY);
+    }
+
+    public Warehouse warehouse(String name, int maxCapacity) {
+        return warehouse(name, null, maxCapacity);
+    }
+
+    public Warehouse warehouse(String name, String location, int maxCapacity) {
+        Warehouse wh = new Warehouse();
+        wh.setName(name);
+        wh.setLocation(location);
+        wh.setMaxCapacity(maxCapacity);
+        return warehouseRepo.save(wh);
+    }
+}
@@ -0,0 +1,70 @@
+package com.godsvessel.inventory_warehouse.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadDataSourceTests {
+
+    BulkheadDataSource bulkhead;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:bulkhead;DB_CLOSE_DELAY=-1");
+        bulkhead = new BulkheadDataSource(h2, 2, 50);
+    }
+
+    @Test
+    void waitsForAPermitThenTimesOut() throws Exception {
+        Connection a = bulkhead.getConnection();
+        Connection b = bulkhead.getConnection();
+        assertEquals(0, bulkhead.availablePermits());
+
+        assertThrows(SQLTransientConnectionException.class, bulkhead::getConnection);
+
+        a.close();
+        try (Connection c = bulkhead.getConnection()) {
+            assertTrue(c.isValid(1));
+        }
+        b.close();
+        assertEquals(2, bulkhead.availablePermits());
+    }
+
+    @Test
+    void closingTwiceReleasesOnce() throws Exception {
+        Connection a = bulkhead.getConnection();
+        a.close();
+        a.close();
+
+        assertEquals(2, bulkhead.availablePermits());
+    }
+
+    @Test
+    void connectionsStillUnwrapToTheDriver() throws Exception {
+        try (Connection c = bulkhead.getConnection()) {
+            assertTrue(c.isWrapperFor(org.h2.jdbc.JdbcConnection.class));
+            assertEquals(c, c);
+        }
+    }
+
+    @Test
+    void closingTheBulkheadClosesThePool() throws Exception {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:bulkhead-pool");
+        BulkheadDataSource wrapped = new BulkheadDataSource(pool, 2, 50);
+        try (Connection c = wrapped.getConnection()) {
+            assertTrue(c.isValid(1));
+        }
+
+        wrapped.close();
+
+        assertTrue(pool.isClosed());
+    }
+}
@@ -0,0 +1,115 @@
+package com.godsvessel.inventory_warehouse.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// two H2 databases stand in for the primary and the replica; each answers "which one am I"
+class ReadWriteRoutingDataSourceTests {
+
+    static final String READER = "com.example.Reader";
+
+    JdbcDataSource primary;
+    JdbcDataSource replica;
+    ReadWriteRoutingDataSource router;
+    JdbcTemplate jdbc;
+    DataSourceTransactionManager txManager;
+
+    @BeforeEach
+    void setUp() {
+        primary = h2("rw_primary");
+        replica = h2("rw_replica");
+        new JdbcTemplate(primary).execute("create table if not exists whoami (name varchar(10)); delete from whoami; insert into whoami values ('primary')");
+        new JdbcTemplate(replica).execute("create table if not exists whoami (name varchar(10)); delete from whoami; insert into whoami values ('replica')");
+        new JdbcTemplate(replica).execute("create table if not exists lag (ms bigint); delete from lag; insert into lag values (0)");
+
+        router = new ReadWriteRoutingDataSource(primary, replica, Set.of(READER), "select ms from lag", 1000, 1000,
+                new SimpleMeterRegistry());
+        router.afterPropertiesSet();
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(router);
+        jdbc = new JdbcTemplate(proxy);
+        txManager = new DataSourceTransactionManager(proxy);
+        router.probe();
+    }
+
+    @Test
+    void onlyReadOnlyTransactionsOfReplicaReadersUseTheReplica() {
+        assertEquals("replica", read(READER + ".getPage"));
+        assertEquals("primary", read("com.example.Other.getPage"));
+        assertEquals("primary", write());
+        assertEquals("primary", jdbc.queryForObject("select name from whoami", String.class));
+    }
+
+    @Test
+    void laggingReplicaFallsBackToThePrimary() {
+        new JdbcTemplate(replica).update("update lag set ms = 5000");
+        router.probe();
+        assertFalse(router.isReplicaOk());
+        assertEquals("primary", read(READER + ".getPage"));
+
+        new JdbcTemplate(replica).update("update lag set ms = 10");
+        router.probe();
+        assertEquals("replica", read(READER + ".getPage"));
+    }
+
+    @Test
+    void aClientThatWroteReadsFromThePrimaryForAWhile() throws Exception {
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(5000);
+        String[] seen = new String[2];
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("PUT", "/api/items/1"), response, new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest req, jakarta.servlet.ServletResponse res) {
+                write();
+                seen[0] = read(READER + ".getById");
+            }
+        });
+        assertEquals("primary", seen[0]);
+        Cookie cookie = response.getCookie(ReadYourWritesFilter.COOKIE);
+        assertNotNull(cookie);
+
+        MockHttpServletRequest next = new MockHttpServletRequest("GET", "/api/items");
+        next.setCookies(cookie);
+        filter.doFilter(next, new MockHttpServletResponse(), new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest req, jakarta.servlet.ServletResponse res) {
+                seen[1] = read(READER + ".getPage");
+            }
+        });
+        assertEquals("primary", seen[1]);
+
+        // other clients aren't affected
+        assertEquals("replica", read(READER + ".getPage"));
+    }
+
+    private String read(String transactionName) {
+        TransactionTemplate tx = new TransactionTemplate(txManager);
+        tx.setReadOnly(true);
+        tx.setName(transactionName);
+        return tx.execute(status -> jdbc.queryForObject("select name from whoami", String.class));
+    }
+
+    private String write() {
+        return new TransactionTemplate(txManager).execute(status -> jdbc.queryForObject("select name from whoami", String.class));
+    }
+
+    private static JdbcDataSource h2(String name) {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        return h2;
+    }
+}
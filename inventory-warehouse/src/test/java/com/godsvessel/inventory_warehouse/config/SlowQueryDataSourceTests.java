@@ -0,0 +1,54 @@
+package com.godsvessel.inventory_warehouse.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowQueryDataSourceTests {
+
+    SlowQueryDataSource slowLog;
+    JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:slowquery;DB_CLOSE_DELAY=-1");
+        slowLog = new SlowQueryDataSource(h2, 50, 60);
+        jdbc = new JdbcTemplate(slowLog);
+        jdbc.execute("create alias if not exists sleep for 'java.lang.Thread.sleep'");
+    }
+
+    // plain JdbcTemplate SQL, not only repository calls
+    @Test
+    void slowStatementsAreCaughtWhateverRunsThem() {
+        jdbc.queryForObject("select 1", Integer.class);
+        assertEquals(0, slowLog.slowStatements());
+
+        jdbc.execute("call sleep(80)");
+        jdbc.queryForObject("select coalesce(sleep(80), cast(? as int))", Integer.class, 1);
+        jdbc.batchUpdate("call sleep(80)");
+
+        assertEquals(3, slowLog.slowStatements());
+    }
+
+    @Test
+    void failedStatementsAreTimedToo() {
+        assertThrows(DataAccessException.class, () -> jdbc.queryForObject("select coalesce(sleep(80), 1) / 0", Integer.class));
+
+        assertEquals(1, slowLog.slowStatements());
+    }
+
+    @Test
+    void connectionsStillUnwrapToTheDriver() throws Exception {
+        try (Connection c = slowLog.getConnection()) {
+            assertTrue(c.isWrapperFor(org.h2.jdbc.JdbcConnection.class));
+            assertEquals(c, c);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.godsvessel.inventory_warehouse.controller;
+
+import com.godsvessel.inventory_warehouse.TestFixtures;
+import com.godsvessel.inventory_warehouse.model.Item;
+import com.godsvessel.inventory_warehouse.model.Warehouse;
+import com.godsvessel.inventory_warehouse.repository.ItemRepository;
+import com.godsvessel.inventory_warehouse.repository.WarehouseRepository;
+import com.godsvessel.inventory_warehouse.service.IdempotencyService;
+import com.godsvessel.inventory_warehouse.service.ItemService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@Import(TestFixtures.class)
+@AutoConfigureMockMvc
+class IdempotencyTests {
+
+    @Autowired TestFixtures fixtures;
+    @Autowired MockMvc mvc;
+    @Autowired ItemService itemService;
+    @Autowired IdempotencyService idempotency;
+    @Autowired ItemRepository itemRepo;
+    @Autowired WarehouseRepository warehouseRepo;
+    @Autowired JdbcTemplate jdbc;
+
+    Warehouse main;
+    Warehouse overflow;
+
+    @BeforeEach
+    void seed() {
+        fixtures.clearStock();
+        main = fixtures.warehouse("Main Warehouse");
+        overflow = fixtures.warehouse("Overflow Warehouse");
+    }
+
+    @Test
+    void retriedCreateReturnsTheFirstResponse() throws Exception {
+        String body = """
+                {"name":"Tee","sku":"GV-T-1","size":"M","quantity":10,"warehouse":{"id":%d}}
+                """.formatted(main.getId());
+        String key = key();
+
+        String first = mvc.perform(post("/api/items").header(ItemController.IDEMPOTENCY_KEY_HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ItemController.IDEMPOTENT_REPLAYED_HEADER, "false"))
+                .andReturn().getResponse().getContentAsString();
+        String retry = mvc.perform(post("/api/items").header(ItemController.IDEMPOTENCY_KEY_HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ItemController.IDEMPOTENT_REPLAYED_HEADER, "true"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(first, retry);
+        assertEquals(1, itemRepo.count());
+    }
+
+    @Test
+    void retriedTransferMovesStockOnce() throws Exception {
+        Item tee = itemService.save(new Item("Tee", "GV-T-1", null, "M", 10, null, main));
+        String key = key();
+
+        for (int i = 0; i < 3; i++) {
+            mvc.perform(post("/api/items/{id}/transfer", tee.getId())
+                            .header(ItemController.IDEMPOTENCY_KEY_HEADER, key)
+                            .param("targetWarehouseId", overflow.getId().toString())
+                            .param("quantity", "4"))
+                    .andExpect(status().isOk());
+        }
+
+        assertEquals(6, itemService.getById(tee.getId()).getQuantity());
+        assertEquals(4, warehouseRepo.findById(overflow.getId()).orElseThrow().getUsedCapacity());
+    }
+
+    @Test
+    void keyReusedForAnotherRequestIsRejected() throws Exception {
+        Item tee = itemService.save(new Item("Tee", "GV-T-1", null, "M", 10, null, main));
+        String key = key();
+
+        mvc.perform(post("/api/items/{id}/transfer", tee.getId()).header(ItemController.IDEMPOTENCY_KEY_HEADER, key)
+                        .param("targetWarehouseId", overflow.getId().toString()).param("quantity", "1"))
+                .andExpect(status().isOk());
+        mvc.perform(post("/api/items/{id}/transfer", tee.getId()).header(ItemController.IDEMPOTENCY_KEY_HEADER, key)
+                        .param("targetWarehouseId", overflow.getId().toString()).param("quantity", "2"))
+                .andExpect(status().isUnprocessableEntity());
+
+        assertEquals(9, itemService.getById(tee.getId()).getQuantity());
+    }
+
+    // a failure rolled back, so it isn't remembered: the retry runs again
+    @Test
+    void failuresAreNotStored() throws Exception {
+        Item tee = itemService.save(new Item("Tee", "GV-T-1", null, "M", 3, null, main));
+        String key = key();
+
+        mvc.perform(post("/api/items/{id}/transfer", tee.getId()).header(ItemController.IDEMPOTENCY_KEY_HEADER, key)
+                        .param("targetWarehouseId", overflow.getId().toString()).param("quantity", "5"))
+                .andExpect(status().isBadRequest());
+        assertEquals(0, jdbc.queryForObject("select count(*) from idempotency_key where idem_key = ?", Integer.class, key));
+
+        Item restocked = itemService.getById(tee.getId());
+        restocked.setQuantity(8);
+        itemService.save(restocked);
+        mvc.perform(post("/api/items/{id}/transfer", tee.getId()).header(ItemController.IDEMPOTENCY_KEY_HEADER, key)
+                        .param("targetWarehouseId", overflow.getId().toString()).param("quantity", "5"))
+                .andExpect(status().isOk());
+        assertEquals(3, itemService.getById(tee.getId()).getQuantity());
+    }
+
+    // a claim whose request died before storing a response never committed its write, so once the
+    // lease is over the key runs again instead of answering 409 until it expires
+    @Test
+    void abandonedClaimIsTakenOverOnceItsLeaseRunsOut() {
+        String key = key();
+        Instant claimed = Instant.now().minusSeconds(120);
+        jdbc.update("insert into idempotency_key (idem_key, fingerprint, created_at, expires_at) values (?, ?, ?, ?)",
+                key, "0".repeat(64), Timestamp.from(claimed), Timestamp.from(claimed.plusSeconds(60)));
+
+        IdempotencyService.Result result = idempotency.execute(key, "POST /test",
+                () -> "{\"ok\":true}".getBytes(StandardCharsets.UTF_8));
+
+        assertFalse(result.replayed());
+        assertEquals("{\"ok\":true}", jdbc.queryForObject(
+                "select response_body from idempotency_key where idem_key = ?", String.class, key));
+    }
+
+    // a response loaded from the db close to its expiry is only replayed from memory until then
+    @Test
+    void cachedReplaysEndWithTheStoredRow() throws Exception {
+        String key = key();
+        String fingerprint = HexFormat.of().formatHex(
+                MessageDigest.getInstance("SHA-256").digest("POST /test".getBytes(StandardCharsets.UTF_8)));
+        jdbc.update("insert into idempotency_key (idem_key, fingerprint, response_body, created_at, expires_at) "
+                        + "values (?, ?, ?, ?, ?)", key, fingerprint, "{\"old\":true}",
+                Timestamp.from(Instant.now().minusSeconds(60)), Timestamp.from(Instant.now().plusMillis(300)));
+        Supplier<byte[]> action = () -> "{\"ok\":true}".getBytes(StandardCharsets.UTF_8);
+
+        assertTrue(idempotency.execute(key, "POST /test", action).replayed());
+        sleep(400);
+
+        IdempotencyService.Result result = idempotency.execute(key, "POST /test", action);
+        assertFalse(result.replayed());
+        assertEquals("{\"ok\":true}", new String(result.body(), StandardCharsets.UTF_8));
+    }
+
+    // the write and its response commit together: losing the claim mid-request rolls the write back
+    @Test
+    void writeRollsBackWhenItsClaimWasTakenOver() {
+        String key = key();
+
+        assertThrows(IllegalStateException.class, () -> idempotency.execute(key, "POST /test", () -> {
+            itemService.save(new Item("Tee", "GV-T-1", null, "M", 10, null, main));
+            jdbc.update("update idempotency_key set created_at = ? where idem_key = ?",
+                    Timestamp.from(Instant.now().plusSeconds(1)), key);
+            return "{}".getBytes(StandardCharsets.UTF_8);
+        }));
+
+        assertEquals(0, itemRepo.count());
+    }
+
+    @Test
+    void concurrentDuplicatesRunOnce() throws Exception {
+        String key = key();
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<IdempotencyService.Result>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return idempotency.execute(key, "POST /test", () -> {
+                        runs.incrementAndGet();
+                        sleep(100);
+                        return "{\"ok\":true}".getBytes(StandardCharsets.UTF_8);
+                    });
+                }));
+            }
+            start.countDown();
+
+            int fresh = 0;
+            for (Future<IdempotencyService.Result> f : results) {
+                IdempotencyService.Result r = f.get();
+                assertEquals("{\"ok\":true}", new String(r.body(), StandardCharsets.UTF_8));
+                if (!r.replayed()) fresh++;
+            }
+            assertEquals(1, runs.get());
+            assertEquals(1, fresh);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String key() {
+        return UUID.randomUUID().toString();
+    }
+}
@@ -0,0 +1,107 @@
+package com.godsvessel.inventory_warehouse.controller;
+
+import com.godsvessel.inventory_warehouse.TestFixtures;
+import com.godsvessel.inventory_warehouse.model.Item;
+import com.godsvessel.inventory_warehouse.model.Warehouse;
+import com.godsvessel.inventory_warehouse.repository.ItemRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Guards against N+1: every item read endpoint must run the same number of SQL statements
+// whether it returns a handful of rows or hundreds spread over many warehouses.
+@SpringBootTest
+@Import(TestFixtures.class)
+@AutoConfigureMockMvc
+class ItemControllerQueryCountTests {
+
+    @Autowired TestFixtures fixtures;
+    @Autowired MockMvc mvc;
+    @Autowired ItemRepository itemRepo;
+    @Autowired EntityManagerFactory entityManagerFactory;
+
+    Statistics stats;
+
+    @BeforeEach
+    void setUp() {
+        stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        fixtures.clearStock();
+    }
+
+    @Test
+    void listEndpoints() throws Exception {
+        assertConstant(w -> get("/api/items").param("limit", "1000"));
+        assertConstant(w -> get("/api/items/warehouse/{id}", w.get(0).getId()).param("limit", "1000"));
+    }
+
+    @Test
+    void singleItemEndpoint() throws Exception {
+        assertConstant(w -> get("/api/items/{id}", itemRepo.findAll().get(0).getId()));
+    }
+
+    @Test
+    void ndjsonStreams() throws Exception {
+        assertConstant(w -> get("/api/items").accept(ItemController.NDJSON), true);
+        assertConstant(w -> get("/api/items/warehouse/{id}", w.get(0).getId()).accept(ItemController.NDJSON), true);
+    }
+
+    private void assertConstant(Function<List<Warehouse>, RequestBuilder> request) throws Exception {
+        assertConstant(request, false);
+    }
+
+    // same request against a small and a large data set; statement counts must match
+    private void assertConstant(Function<List<Warehouse>, RequestBuilder> request, boolean async) throws Exception {
+        List<Warehouse> small = seed(2, 3);
+        long smallCount = count(request.apply(small), async);
+
+        fixtures.clearStock();
+
+        List<Warehouse> large = seed(20, 15);
+        long largeCount = count(request.apply(large), async);
+
+        assertEquals(smallCount, largeCount, "statement count grows with result size");
+    }
+
+    private long count(RequestBuilder request, boolean async) throws Exception {
+        stats.clear();
+        if (async) {
+            MvcResult started = mvc.perform(request).andReturn();
+            mvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+        } else {
+            mvc.perform(request).andExpect(status().isOk());
+        }
+        return stats.getPrepareStatementCount();
+    }
+
+    private List<Warehouse> seed(int warehouses, int itemsPerWarehouse) {
+        List<Warehouse> saved = new ArrayList<>();
+        List<Item> items = new ArrayList<>();
+        for (int w = 0; w < warehouses; w++) {
+            Warehouse wh = fixtures.warehouse("Warehouse " + w, 10_000);
+            saved.add(wh);
+            for (int i = 0; i < itemsPerWarehouse; i++) {
+                items.add(new Item("Tee " + i, "GV-" + w + "-" + i, "desc", "M", 1, null, wh));
+            }
+        }
+        itemRepo.saveAll(items);
+        return saved;
+    }
+}
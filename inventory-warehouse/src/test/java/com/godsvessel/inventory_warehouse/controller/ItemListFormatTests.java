@@ -0,0 +1,106 @@
+package com.godsvessel.inventory_warehouse.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.godsvessel.inventory_warehouse.TestFixtures;
+import com.godsvessel.inventory_warehouse.config.JacksonConfig;
+import com.godsvessel.inventory_warehouse.model.Item;
+import com.godsvessel.inventory_warehouse.model.Warehouse;
+import com.godsvessel.inventory_warehouse.service.ItemService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@Import(TestFixtures.class)
+@AutoConfigureMockMvc
+class ItemListFormatTests {
+
+    @Autowired TestFixtures fixtures;
+    @Autowired MockMvc mvc;
+    @Autowired ObjectMapper objectMapper;
+    @Autowired ItemService itemService;
+
+    Warehouse main;
+
+    @BeforeEach
+    void seed() {
+        fixtures.clearStock();
+        main = fixtures.warehouse("Main Warehouse", "Greensboro, NC", TestFixtures.DEFAULT_CAPACITY);
+        itemService.save(new Item("Tee", "GV-T-1", "Black tee", "M", 10, null, main));
+        itemService.save(new Item("Hoodie", "GV-H-1", null, "L", 4, null, main));
+    }
+
+    @Test
+    void listsCarryTheWarehouseById() throws Exception {
+        JsonNode items = json(mvc.perform(get("/api/items")).andExpect(status().isOk()).andReturn());
+
+        assertEquals(2, items.size());
+        JsonNode tee = items.get(0);
+        assertEquals(main.getId().longValue(), tee.get("warehouseId").asLong());
+        assertFalse(tee.has("warehouse"));
+        assertEquals("Black tee", tee.get("description").asText());
+        assertFalse(items.get(1).has("description"));   // nulls are left out
+    }
+
+    @Test
+    void fieldsSelectsColumns() throws Exception {
+        JsonNode items = json(mvc.perform(get("/api/items/warehouse/{id}", main.getId()).param("fields", "id, SKU,quantity"))
+                .andExpect(status().isOk()).andReturn());
+
+        assertEquals(Set.of("id", "sku", "quantity"), names(items.get(0)));
+        assertEquals("GV-T-1", items.get(0).get("sku").asText());
+
+        mvc.perform(get("/api/items").param("fields", "id,warehouse")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void ndjsonHonoursFields() throws Exception {
+        MvcResult started = mvc.perform(get("/api/items").param("fields", "sku").accept(ItemController.NDJSON)).andReturn();
+        String body = mvc.perform(asyncDispatch(started)).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(List.of("{\"sku\":\"GV-T-1\"}", "{\"sku\":\"GV-H-1\"}"), body.lines().toList());
+    }
+
+    @Test
+    void binaryEncodingsByContentNegotiation() throws Exception {
+        JsonNode expected = json(mvc.perform(get("/api/items").param("fields", "id,sku")).andReturn());
+
+        for (String type : List.of(JacksonConfig.SMILE, JacksonConfig.CBOR)) {
+            byte[] body = mvc.perform(get("/api/items").param("fields", "id,sku").accept(type))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(type))
+                    .andReturn().getResponse().getContentAsByteArray();
+            ObjectMapper decoder = new ObjectMapper(type.equals(JacksonConfig.SMILE) ? new SmileFactory() : new CBORFactory());
+            assertEquals(expected, decoder.readTree(body), type);
+        }
+    }
+
+    private JsonNode json(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private static Set<String> names(JsonNode node) {
+        Set<String> names = new HashSet<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+}
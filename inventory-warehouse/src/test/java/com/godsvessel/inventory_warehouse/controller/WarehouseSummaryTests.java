@@ -0,0 +1,176 @@
+package com.godsvessel.inventory_warehouse.controller;
+
+import com.godsvessel.inventory_warehouse.TestFixtures;
+import com.godsvessel.inventory_warehouse.dto.ReplenishmentReport;
+import com.godsvessel.inventory_warehouse.dto.TransferBatchRequest;
+import com.godsvessel.inventory_warehouse.dto.WarehouseSummary;
+import com.godsvessel.inventory_warehouse.model.Item;
+import com.godsvessel.inventory_warehouse.model.Warehouse;
+import com.godsvessel.inventory_warehouse.repository.ItemRepository;
+import com.godsvessel.inventory_warehouse.service.ImportService;
+import com.godsvessel.inventory_warehouse.service.ItemService;
+import com.godsvessel.inventory_warehouse.service.ReplenishmentService;
+import com.godsvessel.inventory_warehouse.service.WarehouseService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@Import(TestFixtures.class)
+@AutoConfigureMockMvc
+class WarehouseSummaryTests {
+
+    @Autowired TestFixtures fixtures;
+    @Autowired MockMvc mvc;
+    @Autowired ItemService itemService;
+    @Autowired WarehouseService warehouseService;
+    @Autowired ReplenishmentService replenishment;
+    @Autowired ImportService importService;
+    @Autowired ItemRepository itemRepo;
+    @Autowired JdbcTemplate jdbc;
+
+    Warehouse main;
+    Warehouse overflow;
+
+    @BeforeEach
+    void seed() {
+        fixtures.clearStock();
+
+        main = fixtures.warehouse("Main Warehouse", 500);
+        overflow = fixtures.warehouse("Overflow Warehouse", 300);
+
+        itemService.save(new Item("Tee", "GV-T-1", null, "M", 20, null, main));
+        itemService.save(new Item("Tee", "GV-T-2", null, "M", 2, null, main));
+        itemService.save(new Item("Hoodie", "GV-H-1", null, "L", 6, null, overflow));
+    }
+
+    @Test
+    void summaryReflectsItemWrites() throws Exception {
+        mvc.perform(get("/api/warehouses/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].usedCapacity").value(22))
+                .andExpect(jsonPath("$[0].freeCapacity").value(478))
+                .andExpect(jsonPath("$[0].skuCount").value(2))
+                .andExpect(jsonPath("$[0].lowStockCount").value(1))
+                .andExpect(jsonPath("$[1].skuCount").value(1))
+                .andExpect(jsonPath("$[1].lowStockCount").value(0));
+    }
+
+    // every write path keeps the counters exactly where a full recount would put them
+    @Test
+    void countersMatchFullRecountAfterMixedWrites() {
+        Item tee = itemRepo.findBySkuAndWarehouseId("GV-T-1", main.getId()).orElseThrow();
+        Item hoodie = itemRepo.findBySkuAndWarehouseId("GV-H-1", overflow.getId()).orElseThrow();
+        Item low = itemRepo.findBySkuAndWarehouseId("GV-T-2", main.getId()).orElseThrow();
+
+        itemService.transfer(tee.getId(), overflow.getId(), 17);         // new target row, source goes low
+        itemService.transfer(hoodie.getId(), main.getId(), 2);           // hoodie crosses the line
+        itemService.transferBatch(new TransferBatchRequest(TransferBatchRequest.Mode.PARTIAL, List.of(
+                new TransferBatchRequest.Line(low.getId(), overflow.getId(), 1),
+                new TransferBatchRequest.Line(hoodie.getId(), main.getId(), 1))));
+
+        low = itemService.getById(low.getId());
+        low.setQuantity(40);
+        itemService.save(low);
+
+        Item moved = itemService.getById(hoodie.getId());
+        moved.setWarehouse(main);
+        moved.setSku("GV-H-9");
+        moved.setReorderPoint(50);
+        itemService.save(moved);
+
+        itemService.delete(tee.getId());
+        importService.importItems(new ByteArrayInputStream(("""
+                name,sku,description,size,quantity,imageUrl,warehouseId
+                Cap,GV-C-1,,S,1,,%d
+                Cap,GV-C-2,,S,9,,%d
+                """.formatted(main.getId(), overflow.getId())).getBytes(StandardCharsets.UTF_8)),
+                MediaType.parseMediaType("text/csv"));
+
+        List<WarehouseSummary> incremental = warehouseService.getSummary();
+        warehouseService.reconcileCounters();
+        assertEquals(warehouseService.getSummary(), incremental);
+    }
+
+    // the same rule as the replenishment report: below the row's own reorder point, else the default
+    @Test
+    void lowStockFollowsEachItemsReorderPoint() throws Exception {
+        Item tee = itemRepo.findBySkuAndWarehouseId("GV-T-1", main.getId()).orElseThrow();
+        tee = itemService.getById(tee.getId());
+        tee.setReorderPoint(25);
+        itemService.save(tee);
+        Item low = itemService.getById(itemRepo.findBySkuAndWarehouseId("GV-T-2", main.getId()).orElseThrow().getId());
+        low.setReorderPoint(0);
+        itemService.save(low);
+
+        mvc.perform(get("/api/warehouses/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].lowStockCount").value(1));
+        assertEquals(List.of(tee.getId()), replenishment.refresh().lowStock().stream()
+                .map(ReplenishmentReport.LowStock::itemId).toList());
+    }
+
+    // an item's warehouse is a reference, never the shared cached copy, and its counters aren't repeated
+    @Test
+    void itemResponsesLeaveTheCountersToTheWarehouseEndpoints() throws Exception {
+        Item tee = itemRepo.findBySkuAndWarehouseId("GV-T-1", main.getId()).orElseThrow();
+
+        mvc.perform(post("/api/items/{id}/transfer", tee.getId())
+                        .param("targetWarehouseId", overflow.getId().toString()).param("quantity", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.warehouse.name").value("Overflow Warehouse"))
+                .andExpect(jsonPath("$.warehouse.usedCapacity").doesNotExist())
+                .andExpect(jsonPath("$.warehouse.skuCount").doesNotExist());
+
+        Item saved = itemService.save(new Item("Cap", "GV-C-1", null, "S", 1, null, main));
+        assertNotSame(warehouseService.findCachedWh(main.getId()).orElseThrow(), saved.getWarehouse());
+    }
+
+    @Test
+    void reconcileRepairsCountersAfterManualEdits() throws Exception {
+        jdbc.update("update warehouse set used_capacity = 0, sku_count = 0, low_stock_count = 0 where id = ?",
+                main.getId());
+
+        mvc.perform(post("/api/warehouses/counters:reconcile"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].usedCapacity").value(22))
+                .andExpect(jsonPath("$[0].skuCount").value(2))
+                .andExpect(jsonPath("$[0].lowStockCount").value(1))
+                .andExpect(jsonPath("$[1].usedCapacity").value(6));
+    }
+
+    @Test
+    void unchangedSummaryIsNotModified() throws Exception {
+        String etag = mvc.perform(get("/api/warehouses/summary"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mvc.perform(get("/api/warehouses/summary").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        Item tee = itemRepo.findBySkuAndWarehouseId("GV-T-1", main.getId()).orElseThrow();
+        itemService.transfer(tee.getId(), overflow.getId(), 1);
+
+        mvc.perform(get("/api/warehouses/summary").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"));
+    }
+}
@@ -0,0 +1,72 @@
+package com.godsvessel.inventory_warehouse.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FulfilmentPlannerTests {
+
+    // greedy grabs the warehouse with the most units and ends up needing three shipments;
+    // the exact search finds the two that cover everything between them
+    @Test
+    void exactSearchBeatsGreedyOnSmallOrders() {
+        int[][] stock = {
+                {1, 1, 1, 1, 0, 0},
+                {1, 1, 0, 0, 1, 0},
+                {0, 0, 1, 1, 0, 1},
+        };
+        int[] need = {1, 1, 1, 1, 1, 1};
+        int[] cost = {1, 5, 5};
+
+        FulfilmentPlanner.Plan greedyOnly = FulfilmentPlanner.plan(stock, need, cost, 0, 0);
+        assertEquals(3, greedyOnly.shipments());
+        assertFalse(greedyOnly.exact());
+
+        FulfilmentPlanner.Plan exact = FulfilmentPlanner.plan(stock, need, cost, 12, 10_000);
+        assertEquals(2, exact.shipments());
+        assertEquals(10, exact.cost());
+        assertTrue(exact.exact());
+        assertArrayEquals(new int[]{0, 0, 0, 0, 0, 0}, exact.take()[0]);
+    }
+
+    @Test
+    void splitsLinesAndReportsShortfall() {
+        int[][] stock = {
+                {3, 0},
+                {4, 1},
+        };
+        FulfilmentPlanner.Plan plan = FulfilmentPlanner.plan(stock, new int[]{6, 2}, new int[]{1, 1}, 12, 10_000);
+
+        assertEquals(2, plan.shipments());
+        assertEquals(6, plan.take()[0][0] + plan.take()[1][0]);
+        assertArrayEquals(new int[]{0, 1}, plan.unfilled());
+    }
+
+    // a 50-line order over 300 warehouses stays a bounded amount of work
+    @Test
+    void largeOrdersStayWithinBudget() {
+        Random random = new Random(7);
+        int[][] stock = new int[300][50];
+        int[] cost = new int[300];
+        for (int w = 0; w < 300; w++) {
+            cost[w] = 1 + random.nextInt(20);
+            for (int l = 0; l < 50; l++) stock[w][l] = random.nextInt(4) == 0 ? random.nextInt(5) : 0;
+        }
+        int[] need = new int[50];
+        for (int l = 0; l < 50; l++) need[l] = 1 + random.nextInt(6);
+
+        FulfilmentPlanner.Plan plan = FulfilmentPlanner.plan(stock, need, cost, 12, 200_000);
+
+        assertArrayEquals(new int[50], plan.unfilled());
+        for (int l = 0; l < 50; l++) {
+            int shipped = 0;
+            for (int w = 0; w < 300; w++) {
+                assertTrue(plan.take()[w][l] <= stock[w][l]);
+                shipped += plan.take()[w][l];
+            }
+            assertEquals(need[l], shipped);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.godsvessel.inventory_warehouse.service;
+
+import com.godsvessel.inventory_warehouse.TestFixtures;
+import com.godsvessel.inventory_warehouse.dto.AllocationRequest;
+import com.godsvessel.inventory_warehouse.dto.AllocationResult;
+import com.godsvessel.inventory_warehouse.dto.ReservationRequest;
+import com.godsvessel.inventory_warehouse.model.Item;
+import com.godsvessel.inventory_warehouse.model.Warehouse;
+import com.godsvessel.inventory_warehouse.repository.ItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(TestFixtures.class)
+class FulfilmentServiceTests {
+
+    @Autowired TestFixtures fixtures;
+    @Autowired FulfilmentService fulfilment;
+    @Autowired ItemService itemService;
+    @Autowired ReservationService reservations;
+    @Autowired ItemRepository itemRepo;
+
+    Warehouse greensboro;   // shipment cost 6
+    Warehouse charlotte;    // 8, or 3 to Raleigh
+    Warehouse jamestown;    // default 10
+
+    @BeforeEach
+    void seed() {
+        fixtures.clearStock();
+        greensboro = fixtures.warehouse("Main Warehouse", "Greensboro,", TestFixtures.DEFAULT_CAPACITY);
+        charlotte = fixtures.warehouse("Overflow Warehouse", "Charlotte,", TestFixtures.DEFAULT_CAPACITY);
+        jamestown = fixtures.warehouse("Local Warehouse", "Jamestown,", TestFixtures.DEFAULT_CAPACITY);
+    }
+
+    @Test
+    void oneShipmentBeatsCheaperSplits() {
+        itemService.save(new Item("Tee", "GV-T-1", null, "M", 5, null, greensboro));
+        itemService.save(new Item("Hoodie", "GV-H-1", null, "L", 5, null, charlotte));
+        itemService.save(new Item("Tee", "GV-T-1", null, "M", 5, null, jamestown));
+        itemService.save(new Item("Hoodie", "GV-H-1", null, "L", 5, null, jamestown));
+
+        AllocationResult result = fulfilment.allocate(new AllocationRequest(null, List.of(
+                new AllocationRequest.Line("GV-T-1", 2), new AllocationRequest.Line("GV-H-1", 1))));
+
+        assertEquals(1, result.shipmentCount());
+        assertEquals(10, result.totalCost());
+        assertTrue(result.exact());
+        assertEquals(jamestown.getId(), result.shipments().get(0).warehouseId());
+        assertTrue(result.shortfalls().isEmpty());
+    }
+
+    @Test
+    void laneCostsAndReservationsShapeTheSplit() {
+        itemService.save(new Item("Tee", "GV-T-1", null, "M", 5, null, greensboro));
+        itemService.save(new Item("Tee", "GV-T-1", null, "M", 5, null, charlotte));
+        itemService.save(new Item("Cap", "GV-C-1", null, null, 4, null, jamestown));
+        reservations.reserve(new ReservationRequest("GV-C-1", jamestown.getId(), 3, null));
+
+        AllocationResult toRaleigh = fulfilment.allocate(new AllocationRequest("Raleigh", List.of(
+                new AllocationRequest.Line("GV-T-1", 3), new AllocationRequest.Line("GV-C-1", 2),
+                new AllocationRequest.Line("GV-T-1", 1))));
+
+        assertEquals(2, toRaleigh.shipmentCount());
+        assertEquals(3 + 10, toRaleigh.totalCost());
+        AllocationResult.Shipment tees = toRaleigh.shipments().stream()
+                .filter(s -> s.warehouseId().equals(charlotte.getId())).findFirst().orElseThrow();
+        assertEquals(List.of(new AllocationResult.Pick("GV-T-1",
+                itemRepo.findBySkuAndWarehouseId("GV-T-1", charlotte.getId()).orElseThrow().getId(), 4)), tees.picks());
+        assertEquals(List.of(new AllocationResult.Shortfall("GV-C-1", 1)), toRaleigh.shortfalls());
+    }
+
+    @Test
+    void rejectsBadLines() {
+        assertThrows(IllegalArgumentException.class, () -> fulfilment.allocate(new AllocationRequest(null, List.of())));
+        assertThrows(IllegalArgumentException.class, () -> fulfilment.allocate(
+                new AllocationRequest(null, List.of(new AllocationRequest.Line("GV-T-1", 0)))));
+    }
+}
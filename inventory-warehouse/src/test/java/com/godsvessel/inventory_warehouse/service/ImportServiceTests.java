@@ -0,0 +1,161 @@
+package com.godsvessel.inventory_warehouse.service;
+
+import com.godsvessel.inventory_warehouse.TestFixtures;
+import com.godsvessel.inventory_warehouse.dto.ImportResult;
+import com.godsvessel.inventory_warehouse.model.Item;
+import com.godsvessel.inventory_warehouse.model.Warehouse;
+import com.godsvessel.inventory_warehouse.repository.ItemRepository;
+import com.godsvessel.inventory_warehouse.repository.ProductRepository;
+import com.godsvessel.inventory_warehouse.repository.WarehouseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(TestFixtures.class)
+class ImportServiceTests {
+
+    @Autowired TestFixtures fixtures;
+    @Autowired ImportService importService;
+    @Autowired ItemService itemService;
+    @Autowired ItemRepository itemRepo;
+    @Autowired ProductRepository productRepo;
+    @Autowired WarehouseRepository warehouseRepo;
+
+    Warehouse small;
+
+    @BeforeEach
+    void seed() {
+        fixtures.clearStock();
+        productRepo.deleteAllInBatch();
+
+        small = fixtures.warehouse("Local Warehouse", 30);
+
+        itemService.save(new Item("Agape Love Tee", "GV-AG-BLK-L", null, "L", 5, null, small));
+    }
+
+    @Test
+    void csvImportLoadsValidRowsAndReportsRejects() {
+        String csv = """
+                name,sku,description,size,quantity,imageUrl,warehouseId
+                Grace Tee,GV-GR-WHT-M,"Grace upon grace, size M",M,10,,%1$d
+                Agape Love Tee,GV-AG-BLK-L,,L,1,,%1$d
+                ,GV-NO-NAME,,M,1,,%1$d
+                Hosanna Hoodie,GV-HS-GRY-XL,,XL,10,,%1$d
+                Jireh Tee,GV-JJ-BLK-M,,M,10,,%1$d
+                Grace Tee,GV-GR-WHT-M,,M,1,,%1$d
+                """.formatted(small.getId());
+
+        ImportResult result = importService.importItems(body(csv), MediaType.parseMediaType("text/csv"));
+
+        assertEquals(6, result.received());
+        assertEquals(2, result.imported());
+        assertEquals(4, result.rejected());
+        assertEquals(List.of(2L, 3L, 5L, 6L), result.rejects().stream().map(ImportResult.RejectedRow::row).toList());
+        assertEquals("Saving would exceed warehouse capacity.", result.rejects().get(2).reason());
+
+        Item grace = itemRepo.findBySkuAndWarehouseId("GV-GR-WHT-M", small.getId()).orElseThrow();
+        // the catalog entry comes from the first accepted row of the sku
+        assertEquals("Grace upon grace, size M", itemService.getById(grace.getId()).getDescription());
+        assertEquals("Grace upon grace, size M", productRepo.findBySku("GV-GR-WHT-M").orElseThrow().getDescription());
+        assertEquals(25, warehouseRepo.findById(small.getId()).orElseThrow().getUsedCapacity());
+    }
+
+    // a row turned away for capacity leaves its room to the rows after it
+    @Test
+    void rowsRejectedForCapacityDontCountAgainstLaterRows() {
+        String csv = """
+                name,sku,description,size,quantity,imageUrl,warehouseId
+                Shalom Tee,GV-SH-WHT-M,,M,20,,%1$d
+                Shalom Hoodie,GV-SH-GRY-XL,,XL,10,,%1$d
+                Shalom Cap,GV-SH-CAP,,S,5,,%1$d
+                """.formatted(small.getId());
+
+        ImportResult result = importService.importItems(body(csv), MediaType.parseMediaType("text/csv"));
+
+        assertEquals(2, result.imported());
+        assertEquals(List.of(2L), result.rejects().stream().map(ImportResult.RejectedRow::row).toList());
+        assertEquals(30, warehouseRepo.findById(small.getId()).orElseThrow().getUsedCapacity());
+    }
+
+    // like a single save: the name is only needed to create a sku's catalog entry
+    @Test
+    void rowsWithoutANameNeedACatalogEntryOrANamedRowOfTheirSku() {
+        Warehouse other = fixtures.warehouse("Overflow Warehouse", 100);
+        String csv = """
+                name,sku,description,size,quantity,imageUrl,warehouseId
+                ,GV-AG-BLK-L,,L,1,,%2$d
+                ,GV-EM-BLU-S,,S,1,,%1$d
+                Emmanuel Tee,GV-EM-BLU-S,,S,1,,%2$d
+                ,GV-NO-NAME,,M,1,,%1$d
+                """.formatted(small.getId(), other.getId());
+
+        ImportResult result = importService.importItems(body(csv), MediaType.parseMediaType("text/csv"));
+
+        assertEquals(3, result.imported());
+        assertEquals(List.of(4L), result.rejects().stream().map(ImportResult.RejectedRow::row).toList());
+        assertEquals("Name is required.", result.rejects().get(0).reason());
+        assertEquals("Emmanuel Tee", productRepo.findBySku("GV-EM-BLU-S").orElseThrow().getName());
+        assertEquals("Agape Love Tee", productRepo.findBySku("GV-AG-BLK-L").orElseThrow().getName());
+    }
+
+    @Test
+    void ndjsonProductImportSkipsExistingSkus() {
+        String ndjson = """
+                {"name":"Grace Upon Grace Tee","sku":"GV-GR-WHT-M","description":"Grace upon grace shirt"}
+                {"name":"Hosanna Hoodie","sku":"GV-HS-GRY-XL"}
+                {"name":"Duplicate","sku":"GV-GR-WHT-M"}
+                """;
+        importService.importProducts(body("{\"name\":\"Hosanna Hoodie\",\"sku\":\"GV-HS-GRY-XL\"}"),
+                MediaType.parseMediaType("application/x-ndjson"));
+
+        ImportResult result = importService.importProducts(body(ndjson), MediaType.parseMediaType("application/x-ndjson"));
+
+        assertEquals(1, result.imported());
+        assertEquals(2, result.rejected());
+        // plus the catalog entry the stocked Agape tee got in setUp
+        assertEquals(3, productRepo.count());
+    }
+
+    // a record that doesn't parse is one reject, the rest of the file still loads
+    @Test
+    void malformedRecordsAreRejectedAndTheImportContinues() {
+        String csv = """
+                name,sku,description,size,quantity,imageUrl,warehouseId
+                Grace Tee,GV-GR-WHT-M,,M,1,,%1$d
+                Jireh Tee,GV-JJ-BLK-M,,M,1,,%1$d,extra
+                Hosanna Hoodie,"GV-HS"-GRY-XL,,XL,1,,%1$d
+                Cap,GV-C-1,,S,1,,%1$d
+                """.formatted(small.getId());
+        ImportResult fromCsv = importService.importItems(body(csv), MediaType.parseMediaType("text/csv"));
+        assertEquals(4, fromCsv.received());
+        assertEquals(2, fromCsv.imported());
+        assertEquals(List.of(2L, 3L), fromCsv.rejects().stream().map(ImportResult.RejectedRow::row).toList());
+        assertTrue(fromCsv.rejects().get(0).reason().startsWith("Malformed record: "));
+
+        String ndjson = """
+                {"name":"Hosanna Hoodie","sku":"GV-HS-GRY-XL"}
+                {"name":"Broken","sku": }
+                ["not", "an", "object"]
+
+                {"name":"Jireh Tee","sku":"GV-JJ-BLK-M"}
+                """;
+        ImportResult fromNdjson = importService.importProducts(body(ndjson), MediaType.parseMediaType("application/x-ndjson"));
+        assertEquals(4, fromNdjson.received());
+        assertEquals(2, fromNdjson.imported());
+        assertEquals(List.of(2L, 3L), fromNdjson.rejects().stream().map(ImportResult.RejectedRow::row).toList());
+    }
+
+    private static ByteArrayInputStream body(String s) {
+        return new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8));
+    }
+}
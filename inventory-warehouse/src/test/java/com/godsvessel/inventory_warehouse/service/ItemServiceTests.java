@@ -0,0 +1,258 @@
+package com.godsvessel.inventory_warehouse.service;
+
+import com.godsvessel.inventory_warehouse.TestFixtures;
+import com.godsvessel.inventory_warehouse.dto.ItemView;
+import com.godsvessel.inventory_warehouse.dto.TransferBatchRequest;
+import com.godsvessel.inventory_warehouse.dto.TransferBatchResult;
+import com.godsvessel.inventory_warehouse.model.Item;
+import com.godsvessel.inventory_warehouse.model.Warehouse;
+import com.godsvessel.inventory_warehouse.repository.ItemRepository;
+import com.godsvessel.inventory_warehouse.repository.WarehouseRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(TestFixtures.class)
+class ItemServiceTests {
+
+    @Autowired TestFixtures fixtures;
+    @Autowired ItemService service;
+    @Autowired ItemRepository itemRepo;
+    @Autowired WarehouseRepository warehouseRepo;
+    @Autowired EntityManagerFactory entityManagerFactory;
+    @Autowired TransactionTemplate tx;
+    @Autowired MeterRegistry meterRegistry;
+
+    Warehouse main;
+    Warehouse overflow;
+
+    @BeforeEach
+    void seed() {
+        fixtures.clearStock();
+
+        main = fixtures.warehouse("Main Warehouse", 500);
+        overflow = fixtures.warehouse("Overflow Warehouse", 300);
+
+        for (int i = 0; i < 5; i++) {
+            service.save(new Item("Tee " + i, "GV-T-" + i, null, "M", 10, null, main));
+            service.save(new Item("Hoodie " + i, "GV-H-" + i, null, "L", 5, null, overflow));
+        }
+    }
+
+    @Test
+    void pagesWalkEveryItemOnceInIdOrder() {
+        List<Long> seen = new ArrayList<>();
+        Long after = null;
+        List<ItemView> page;
+        do {
+            page = service.getPage(null, after, 3);
+            page.forEach(i -> seen.add(i.id()));
+            if (!page.isEmpty()) after = page.get(page.size() - 1).id();
+        } while (page.size() == 3);
+
+        assertEquals(10, seen.size());
+        assertEquals(seen.stream().sorted().toList(), seen);
+    }
+
+    @Test
+    void warehousePageOnlyReturnsThatWarehouse() {
+        List<ItemView> page = service.getPage(overflow.getId(), null, 100);
+
+        assertEquals(5, page.size());
+        assertTrue(page.stream().allMatch(i -> i.warehouseId().equals(overflow.getId())));
+    }
+
+    @Test
+    void rejectsPageSizeOutsideBounds() {
+        assertThrows(IllegalArgumentException.class, () -> service.getPage(null, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> service.getPage(null, null, 1001));
+    }
+
+    @Test
+    void streamVisitsEveryItemOfWarehouse() {
+        List<String> skus = new ArrayList<>();
+        service.streamAll(main.getId(), i -> skus.add(i.sku()));
+
+        assertEquals(List.of("GV-T-0", "GV-T-1", "GV-T-2", "GV-T-3", "GV-T-4"), skus);
+    }
+
+    @Test
+    void saveReservesCapacityAndRejectsOverfill() {
+        assertEquals(50, used(main));
+
+        service.save(new Item("Jacket", "GV-J-1", null, "L", 450, null, main));
+        assertEquals(500, used(main));
+
+        assertThrows(IllegalStateException.class,
+                () -> service.save(new Item("Cap", "GV-C-1", null, null, 1, null, main)));
+        assertEquals(500, used(main));
+    }
+
+    @Test
+    void updateAndDeleteAdjustCapacity() {
+        Item tee = itemRepo.findBySkuAndWarehouseId("GV-T-0", main.getId()).orElseThrow();
+
+        tee.setQuantity(4);
+        service.save(tee);
+        assertEquals(44, used(main));
+
+        service.delete(tee.getId());
+        assertEquals(40, used(main));
+    }
+
+    @Test
+    void transferMovesCapacityBetweenWarehouses() {
+        Item tee = itemRepo.findBySkuAndWarehouseId("GV-T-0", main.getId()).orElseThrow();
+
+        service.transfer(tee.getId(), overflow.getId(), 6);
+
+        assertEquals(44, used(main));
+        assertEquals(31, used(overflow));
+    }
+
+    @Test
+    void concurrentOppositeTransfersKeepStockAndCounters() throws Exception {
+        Item crate = service.save(new Item("Crate", "GV-CR-1", null, null, 200, null, main));
+        Item back = service.transfer(crate.getId(), overflow.getId(), 100);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                boolean forward = (t % 2 == 0);
+                futures.add(pool.submit(() -> {
+                    for (int n = 0; n < 20; n++) {
+                        if (forward) service.transfer(crate.getId(), overflow.getId(), 1);
+                        else service.transfer(back.getId(), main.getId(), 1);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) f.get(60, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        int atMain = itemRepo.findById(crate.getId()).orElseThrow().getQuantity();
+        int atOverflow = itemRepo.findById(back.getId()).orElseThrow().getQuantity();
+        assertEquals(100, atMain);
+        assertEquals(100, atOverflow);
+        assertEquals(50 + atMain, used(main));
+        assertEquals(25 + atOverflow, used(overflow));
+    }
+
+    @Test
+    void staleVersionOnUpdateIsRejected() {
+        Item tee = itemRepo.findBySkuAndWarehouseId("GV-T-0", main.getId()).orElseThrow();
+        Item stale = new Item(tee.getName(), tee.getSku(), null, "M", 7, null, main);
+        stale.setId(tee.getId());
+        stale.setVersion(tee.getVersion());
+
+        tee.setQuantity(8);
+        service.save(tee);
+
+        assertThrows(IllegalStateException.class, () -> service.save(stale));
+        assertEquals(8, itemRepo.findById(tee.getId()).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void partialBatchCommitsValidLinesAndReportsTheRest() {
+        Item t0 = itemRepo.findBySkuAndWarehouseId("GV-T-0", main.getId()).orElseThrow();
+        Item t1 = itemRepo.findBySkuAndWarehouseId("GV-T-1", main.getId()).orElseThrow();
+
+        TransferBatchResult result = service.transferBatch(new TransferBatchRequest(TransferBatchRequest.Mode.PARTIAL, List.of(
+                new TransferBatchRequest.Line(t0.getId(), overflow.getId(), 4),
+                new TransferBatchRequest.Line(t0.getId(), overflow.getId(), 4),
+                new TransferBatchRequest.Line(t0.getId(), overflow.getId(), 4),   // only 2 left
+                new TransferBatchRequest.Line(t1.getId(), main.getId(), 1))));
+
+        assertTrue(result.committed());
+        assertEquals(List.of(TransferBatchResult.Status.OK, TransferBatchResult.Status.OK,
+                        TransferBatchResult.Status.REJECTED, TransferBatchResult.Status.REJECTED),
+                result.lines().stream().map(TransferBatchResult.LineResult::status).toList());
+
+        Item landed = itemRepo.findBySkuAndWarehouseId("GV-T-0", overflow.getId()).orElseThrow();
+        assertEquals(landed.getId(), result.lines().get(0).targetItemId());
+        assertEquals(8, landed.getQuantity());
+        assertEquals(2, itemRepo.findById(t0.getId()).orElseThrow().getQuantity());
+        assertEquals(42, used(main));
+        assertEquals(33, used(overflow));
+    }
+
+    @Test
+    void allOrNothingBatchRollsBackOnAnyRejectedLine() {
+        Item t0 = itemRepo.findBySkuAndWarehouseId("GV-T-0", main.getId()).orElseThrow();
+
+        TransferBatchResult result = service.transferBatch(new TransferBatchRequest(TransferBatchRequest.Mode.ALL_OR_NOTHING, List.of(
+                new TransferBatchRequest.Line(t0.getId(), overflow.getId(), 4),
+                new TransferBatchRequest.Line(t0.getId(), overflow.getId(), 400))));
+
+        assertFalse(result.committed());
+        assertEquals(TransferBatchResult.Status.ROLLED_BACK, result.lines().get(0).status());
+        assertEquals(TransferBatchResult.Status.REJECTED, result.lines().get(1).status());
+        assertEquals(10, itemRepo.findById(t0.getId()).orElseThrow().getQuantity());
+        assertTrue(itemRepo.findBySkuAndWarehouseId("GV-T-0", overflow.getId()).isEmpty());
+        assertEquals(50, used(main));
+    }
+
+    @Test
+    void newRowsAreInsertedInJdbcBatches() {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        tx.executeWithoutResult(status -> {
+            List<Item> items = new ArrayList<>();
+            for (int i = 0; i < 100; i++) items.add(new Item("Sticker " + i, "GV-S-" + i, null, null, 1, null, main));
+            itemRepo.saveAll(items);
+        });
+
+        assertEquals(100, stats.getEntityInsertCount());
+        // IDENTITY would need one statement per row; pooled ids + batching need a handful
+        assertTrue(stats.getPrepareStatementCount() < 10, "statements: " + stats.getPrepareStatementCount());
+    }
+
+    @Test
+    void writesAreTimedByWarehouseAndOutcome() {
+        double okBefore = count("inventory.item.save", main, "ok");
+        double capacityBefore = count("inventory.item.save", main, "capacity_conflict");
+        double skuBefore = count("inventory.item.save", main, "sku_conflict");
+
+        service.save(new Item("Cap", "GV-C-1", null, null, 1, null, main));
+        assertThrows(CapacityExceededException.class,
+                () -> service.save(new Item("Crate", "GV-C-2", null, null, 10_000, null, main)));
+        assertThrows(DuplicateSkuException.class,
+                () -> service.save(new Item("Cap", "GV-C-1", null, null, 1, null, main)));
+
+        assertEquals(okBefore + 1, count("inventory.item.save", main, "ok"));
+        assertEquals(capacityBefore + 1, count("inventory.item.save", main, "capacity_conflict"));
+        assertEquals(skuBefore + 1, count("inventory.item.save", main, "sku_conflict"));
+        assertTrue(count("inventory.capacity.reserve", main, "capacity_conflict") >= 1);
+    }
+
+    private double count(String timer, Warehouse wh, String outcome) {
+        Timer t = meterRegistry.find(timer).tag("warehouse", wh.getId().toString()).tag("outcome", outcome).timer();
+        return (t == null) ? 0 : t.count();
+    }
+
+    private int used(Warehouse wh) {
+        return warehouseRepo.findById(wh.getId()).orElseThrow().getUsedCapacity();
+    }
+}
@@ -0,0 +1,100 @@
+package com.godsvessel.inventory_warehouse.service;
+
+import com.godsvessel.inventory_warehouse.config.CacheConfig;
+import com.godsvessel.inventory_warehouse.model.Product;
+import com.godsvessel.inventory_warehouse.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ProductServiceTests {
+
+    @Autowired ProductService service;
+    @Autowired ProductRepository repo;
+    @Autowired CacheManager cacheManager;
+    @Autowired EntityManagerFactory entityManagerFactory;
+    @Autowired TransactionTemplate tx;
+
+    Product tee;
+
+    @BeforeEach
+    void seed() {
+        repo.deleteAllInBatch();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        Product p = new Product();
+        p.setName("Jehovah Jireh Definition Tee");
+        p.setSku("GV-JJ-BLK-M");
+        tee = service.save(p);
+    }
+
+    @Test
+    void repeatedReadsAreServedFromCache() {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        service.getAll();
+        service.getById(tee.getId());
+        repo.findBySku("GV-JJ-BLK-M");
+        stats.clear();
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(1, service.getAll().size());
+            assertEquals("GV-JJ-BLK-M", service.getById(tee.getId()).getSku());
+            assertTrue(repo.findBySku("GV-JJ-BLK-M").isPresent());
+        }
+
+        assertEquals(0, stats.getPrepareStatementCount());
+    }
+
+    @Test
+    void saveEvictsOldAndNewSku() {
+        assertTrue(repo.findBySku("GV-JJ-BLK-M").isPresent());
+        assertTrue(repo.findBySku("GV-JJ-BLK-L").isEmpty());
+        assertEquals(1, service.getAll().size());
+
+        Product update = new Product();
+        update.setId(tee.getId());
+        update.setName(tee.getName());
+        update.setSku("GV-JJ-BLK-L");
+        service.save(update);
+
+        assertTrue(repo.findBySku("GV-JJ-BLK-M").isEmpty());
+        assertTrue(repo.findBySku("GV-JJ-BLK-L").isPresent());
+        assertEquals("GV-JJ-BLK-L", service.getById(tee.getId()).getSku());
+        assertEquals("GV-JJ-BLK-L", service.getAll().get(0).getSku());
+        assertNotNull(cacheManager.getCache(CacheConfig.PRODUCT_BY_SKU).get("GV-JJ-BLK-L"));
+    }
+
+    @Test
+    void deleteEvictsEntries() {
+        service.getById(tee.getId());
+        service.delete(tee.getId());
+
+        assertThrows(RuntimeException.class, () -> service.getById(tee.getId()));
+        assertTrue(service.getAll().isEmpty());
+        assertTrue(repo.findBySku("GV-JJ-BLK-M").isEmpty());
+    }
+
+    // an item write reads the catalog and then edits the entry in one transaction; the copy other
+    // threads may still be reading must not change under them
+    @Test
+    void catalogWritesNeverChangeTheCachedEntry() {
+        Product cached = tx.execute(status -> {
+            Product entry = service.catalogEntry("GV-JJ-BLK-M");
+            service.putCatalogEntry("GV-JJ-BLK-M", "Jireh Tee", null, null);
+            return entry;
+        });
+
+        assertEquals("Jehovah Jireh Definition Tee", cached.getName());
+        assertEquals("Jireh Tee", service.catalogEntry("GV-JJ-BLK-M").getName());
+    }
+}
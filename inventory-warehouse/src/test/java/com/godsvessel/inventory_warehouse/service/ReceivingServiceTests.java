@@ -0,0 +1,131 @@
+package com.godsvessel.inventory_warehouse.service;
+
+import com.godsvessel.inventory_warehouse.TestFixtures;
+import com.godsvessel.inventory_warehouse.dto.ReceiveRequest;
+import com.godsvessel.inventory_warehouse.dto.ReceiveResult;
+import com.godsvessel.inventory_warehouse.dto.ReservationRequest;
+import com.godsvessel.inventory_warehouse.model.Item;
+import com.godsvessel.inventory_warehouse.model.Warehouse;
+import com.godsvessel.inventory_warehouse.repository.ItemRepository;
+import com.godsvessel.inventory_warehouse.repository.WarehouseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(TestFixtures.class)
+class ReceivingServiceTests {
+
+    @Autowired TestFixtures fixtures;
+    @Autowired ReceivingService receiving;
+    @Autowired ItemService itemService;
+    @Autowired ReservationService reservations;
+    @Autowired StockLedger ledger;
+    @Autowired ItemRepository itemRepo;
+    @Autowired WarehouseRepository warehouseRepo;
+    @Autowired JdbcTemplate jdbc;
+
+    Warehouse main;
+
+    @BeforeEach
+    void seed() {
+        fixtures.clearStock();
+        main = fixtures.warehouse("Main Warehouse");
+    }
+
+    @Test
+    void concurrentScansOnOneRowAreWrittenTogether() throws Exception {
+        Item tee = itemService.save(new Item("Tee", "GV-T-1", null, "M", 10, null, main));
+        int threads = 16;
+        int scansEach = 25;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<ReceiveResult>>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                List<ReceiveResult> acks = new ArrayList<>();
+                for (int i = 0; i < scansEach; i++) {
+                    acks.add(receiving.receive(new ReceiveRequest("GV-T-1", main.getId(), 1)).get(10, TimeUnit.SECONDS));
+                }
+                return acks;
+            }));
+        }
+        start.countDown();
+        int maxCoalesced = 0;
+        for (Future<List<ReceiveResult>> f : results) {
+            for (ReceiveResult ack : f.get()) maxCoalesced = Math.max(maxCoalesced, ack.coalesced());
+        }
+        pool.shutdown();
+
+        int scans = threads * scansEach;
+        assertEquals(10 + scans, itemService.getById(tee.getId()).getQuantity());
+        assertEquals(10 + scans, warehouseRepo.findById(main.getId()).orElseThrow().getUsedCapacity());
+        assertTrue(maxCoalesced > 1, "no scans were merged");
+
+        // one ledger movement per flush, not per scan, and they still add up
+        ledger.flush();
+        List<Integer> movements = jdbc.queryForList(
+                "select delta from stock_movement where item_id = ? and reason = 'RECEIVED'", Integer.class, tee.getId());
+        assertTrue(movements.size() < scans);
+        assertEquals(scans, movements.stream().mapToInt(Integer::intValue).sum());
+    }
+
+    @Test
+    void aBadKeyOnlyFailsItsOwnScans() throws Exception {
+        Item tee = itemService.save(new Item("Tee", "GV-T-1", null, "M", 10, null, main));
+        itemService.save(new Item("Cap", "GV-C-1", null, null, 5, null, main));
+        reservations.reserve(new ReservationRequest("GV-C-1", main.getId(), 3, null));
+
+        CompletableFuture<ReceiveResult> good = receiving.receive(new ReceiveRequest("GV-T-1", main.getId(), 2));
+        CompletableFuture<ReceiveResult> unknown = receiving.receive(new ReceiveRequest("GV-NOPE", main.getId(), 1));
+        CompletableFuture<ReceiveResult> reserved = receiving.receive(new ReceiveRequest("GV-C-1", main.getId(), -3));
+        CompletableFuture<ReceiveResult> overfill = receiving.receive(new ReceiveRequest("GV-T-1", overflowFull().getId(), 1));
+
+        assertEquals(12, good.get(10, TimeUnit.SECONDS).quantity());
+        assertEquals(tee.getId(), good.get().itemId());
+        assertInstanceOf(IllegalArgumentException.class, cause(unknown));
+        assertInstanceOf(InsufficientStockException.class, cause(reserved));
+        assertInstanceOf(CapacityExceededException.class, cause(overfill));
+        assertEquals(5, itemRepo.findBySkuAndWarehouseId("GV-C-1", main.getId()).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void rejectsBadScansUpFront() {
+        assertThrows(IllegalArgumentException.class, () -> receiving.receive(new ReceiveRequest(" ", main.getId(), 1)));
+        assertThrows(IllegalArgumentException.class, () -> receiving.receive(new ReceiveRequest("GV-T-1", null, 1)));
+        assertThrows(IllegalArgumentException.class, () -> receiving.receive(new ReceiveRequest("GV-T-1", main.getId(), 0)));
+        assertThrows(IllegalArgumentException.class, () -> receiving.receive(new ReceiveRequest("GV-T-1", main.getId(), 10_001)));
+    }
+
+    // a warehouse already at capacity, holding a GV-T-1 row
+    private Warehouse overflowFull() {
+        Warehouse wh = new Warehouse();
+        wh.setName("Overflow Warehouse");
+        wh.setMaxCapacity(4);
+        wh = warehouseRepo.save(wh);
+        itemService.save(new Item("Tee", "GV-T-1", null, "M", 4, null, wh));
+        return wh;
+    }
+
+    private static Throwable cause(CompletableFuture<?> ack) {
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> ack.get(10, TimeUnit.SECONDS));
+        return ex.getCause();
+    }
+}
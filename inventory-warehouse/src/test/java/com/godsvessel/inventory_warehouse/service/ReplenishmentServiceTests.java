@@ -0,0 +1,95 @@
+package com.godsvessel.inventory_warehouse.service;
+
+import com.godsvessel.inventory_warehouse.TestFixtures;
+import com.godsvessel.inventory_warehouse.dto.ReplenishmentReport;
+import com.godsvessel.inventory_warehouse.model.Item;
+import com.godsvessel.inventory_warehouse.model.Warehouse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(TestFixtures.class)
+class ReplenishmentServiceTests {
+
+    @Autowired TestFixtures fixtures;
+    @Autowired ReplenishmentService replenishment;
+    @Autowired ItemService itemService;
+
+    Warehouse main;
+    Warehouse overflow;
+
+    @BeforeEach
+    void seed() {
+        fixtures.clearStock();
+        replenishment.reload();
+        main = fixtures.warehouse("Main Warehouse", 1000);
+        overflow = fixtures.warehouse("Overflow Warehouse", 1000);
+    }
+
+    @Test
+    void committedChangesMoveRowsInAndOutOfTheReport() {
+        Item tee = itemService.save(new Item("Tee", "GV-T-1", null, "M", 2, null, main));
+        itemService.save(new Item("Hoodie", "GV-H-1", null, "L", 50, null, main));
+
+        ReplenishmentReport report = replenishment.refresh();
+        assertEquals(1, report.lowStockCount());
+        ReplenishmentReport.LowStock low = report.lowStock().get(0);
+        assertEquals(tee.getId(), low.itemId());
+        assertEquals(5, low.reorderPoint());
+        assertEquals(10, low.target());
+        // nobody else has the sku: buy the shortfall
+        assertEquals(1, report.purchaseOrders().size());
+        assertEquals(8, report.purchaseOrders().get(0).quantity());
+        assertFalse(report.purchaseOrders().get(0).capacityLimited());
+
+        tee.setQuantity(12);
+        itemService.save(tee);
+        assertEquals(0, replenishment.refresh().lowStockCount());
+    }
+
+    @Test
+    void perItemReorderPointOverridesTheDefault() {
+        Item tee = new Item("Tee", "GV-T-1", null, "M", 8, null, main);
+        tee.setReorderPoint(10);
+        tee = itemService.save(tee);
+        assertEquals(1, replenishment.refresh().lowStockCount());
+
+        // lowering only the reorder point moves no stock, and still takes the row out
+        tee.setReorderPoint(3);
+        itemService.save(tee);
+        assertEquals(0, replenishment.refresh().lowStockCount());
+    }
+
+    @Test
+    void surplusElsewhereIsTransferredBeforeBuying() {
+        Item low = itemService.save(new Item("Tee", "GV-T-1", null, "M", 1, null, main));
+        Item spare = itemService.save(new Item("Tee", "GV-T-1", null, "M", 14, null, overflow));
+
+        ReplenishmentReport report = replenishment.refresh();
+        // overflow keeps its own target of 10, so 4 can move; the other 5 are bought
+        assertEquals(1, report.transfers().size());
+        ReplenishmentReport.Transfer transfer = report.transfers().get(0);
+        assertEquals(spare.getId(), transfer.fromItemId());
+        assertEquals(low.getId(), transfer.toItemId());
+        assertEquals(4, transfer.quantity());
+        assertEquals(1, report.purchaseOrders().size());
+        assertEquals(5, report.purchaseOrders().get(0).quantity());
+    }
+
+    @Test
+    void purchaseOrdersStopAtWarehouseCapacity() {
+        Warehouse small = fixtures.warehouse("Local Warehouse", 10);
+        Item tee = new Item("Tee", "GV-T-1", null, "M", 8, null, small);
+        tee.setReorderPoint(20);
+        itemService.save(tee);
+
+        ReplenishmentReport.PurchaseOrder order = replenishment.refresh().purchaseOrders().get(0);
+        assertEquals(2, order.quantity());
+        assertTrue(order.capacityLimited());
+    }
+}
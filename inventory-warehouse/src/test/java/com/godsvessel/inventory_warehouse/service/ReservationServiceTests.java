@@ -0,0 +1,157 @@
+package com.godsvessel.inventory_warehouse.service;
+
+import com.godsvessel.inventory_warehouse.TestFixtures;
+import com.godsvessel.inventory_warehouse.dto.ReservationRequest;
+import com.godsvessel.inventory_warehouse.model.Item;
+import com.godsvessel.inventory_warehouse.model.Reservation;
+import com.godsvessel.inventory_warehouse.model.Warehouse;
+import com.godsvessel.inventory_warehouse.repository.ReservationRepository;
+import com.godsvessel.inventory_warehouse.repository.WarehouseRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(TestFixtures.class)
+class ReservationServiceTests {
+
+    @Autowired TestFixtures fixtures;
+    @Autowired ReservationService reservations;
+    @Autowired ItemService itemService;
+    @Autowired ReservationRepository reservationRepo;
+    @Autowired WarehouseRepository warehouseRepo;
+    @Autowired EntityManagerFactory entityManagerFactory;
+
+    Warehouse main;
+    Warehouse overflow;
+
+    @BeforeEach
+    void seed() {
+        fixtures.clearStock();
+        main = fixtures.warehouse("Main Warehouse");
+        overflow = fixtures.warehouse("Overflow Warehouse");
+    }
+
+    @Test
+    void holdsReduceAvailabilityUntilConfirmed() {
+        Item tee = itemService.save(new Item("Tee", "GV-T-1", null, "M", 10, null, main));
+
+        Reservation held = reservations.reserve(new ReservationRequest("GV-T-1", main.getId(), 4, null));
+        assertEquals(Reservation.Status.HELD, held.getStatus());
+        assertEquals(6, reservations.getAvailability("GV-T-1", main.getId()).available());
+        assertEquals(10, itemService.getById(tee.getId()).getQuantity());
+
+        assertThrows(InsufficientStockException.class,
+                () -> reservations.reserve(new ReservationRequest("GV-T-1", main.getId(), 7, null)));
+
+        assertEquals(Reservation.Status.CONFIRMED, reservations.confirm(held.getId()).getStatus());
+        Item sold = itemService.getById(tee.getId());
+        assertEquals(6, sold.getQuantity());
+        assertEquals(0, sold.getReserved());
+        assertEquals(6, warehouseRepo.findById(main.getId()).orElseThrow().getUsedCapacity());
+        assertThrows(IllegalStateException.class, () -> reservations.release(held.getId()));
+    }
+
+    @Test
+    void releaseAndExpiryGiveStockBack() {
+        itemService.save(new Item("Tee", "GV-T-1", null, "M", 5, null, main));
+        Reservation a = reservations.reserve(new ReservationRequest("GV-T-1", main.getId(), 3, null));
+        Reservation b = reservations.reserve(new ReservationRequest("GV-T-1", main.getId(), 2, 60));
+        assertThrows(InsufficientStockException.class,
+                () -> reservations.reserve(new ReservationRequest("GV-T-1", main.getId(), 1, null)));
+
+        reservations.release(a.getId());
+        assertEquals(Reservation.Status.RELEASED, reservations.release(a.getId()).getStatus());
+        assertEquals(3, reservations.getAvailability("GV-T-1", main.getId()).available());
+
+        // b is due first (60s), the new one only at the default 10 minutes
+        Reservation c = reservations.reserve(new ReservationRequest("GV-T-1", main.getId(), 3, null));
+        assertEquals(1, reservations.sweepExpired(Instant.now().plus(Duration.ofMinutes(2))));
+        assertEquals(Reservation.Status.EXPIRED, reservations.getById(b.getId()).getStatus());
+        assertEquals(Reservation.Status.HELD, reservations.getById(c.getId()).getStatus());
+        assertEquals(2, reservations.getAvailability("GV-T-1", main.getId()).available());
+        assertThrows(IllegalStateException.class, () -> reservations.confirm(b.getId()));
+    }
+
+    @Test
+    void soldOutHoldsFailWithoutADatabaseTrip() {
+        itemService.save(new Item("Tee", "GV-T-1", null, "M", 2, null, main));
+        Reservation a = reservations.reserve(new ReservationRequest("GV-T-1", main.getId(), 2, null));
+        assertThrows(InsufficientStockException.class,
+                () -> reservations.reserve(new ReservationRequest("GV-T-1", main.getId(), 1, null)));
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        for (int i = 0; i < 5; i++) {
+            assertThrows(InsufficientStockException.class,
+                    () -> reservations.reserve(new ReservationRequest("GV-T-1", main.getId(), 1, null)));
+        }
+        assertEquals(0, stats.getPrepareStatementCount());
+
+        // a release clears the memo straight away
+        reservations.release(a.getId());
+        assertEquals(Reservation.Status.HELD,
+                reservations.reserve(new ReservationRequest("GV-T-1", main.getId(), 1, null)).getStatus());
+    }
+
+    @Test
+    void reservedUnitsCantBeMovedOrEditedAway() {
+        Item tee = itemService.save(new Item("Tee", "GV-T-1", null, "M", 10, null, main));
+        reservations.reserve(new ReservationRequest("GV-T-1", main.getId(), 8, null));
+
+        assertThrows(IllegalArgumentException.class, () -> itemService.transfer(tee.getId(), overflow.getId(), 3));
+        assertEquals(2, itemService.transfer(tee.getId(), overflow.getId(), 2).getQuantity());
+
+        Item edited = itemService.getById(tee.getId());
+        edited.setQuantity(7);
+        assertThrows(IllegalStateException.class, () -> itemService.save(edited));
+        assertThrows(IllegalStateException.class, () -> itemService.delete(tee.getId()));
+    }
+
+    // flash sale: many concurrent single-unit holds on one SKU sell exactly what is there
+    @Test
+    void concurrentHoldsNeverOversell() throws Exception {
+        Item tee = itemService.save(new Item("Tee", "GV-T-1", null, "M", 150, null, main));
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Boolean>> attempts = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                attempts.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        reservations.reserve(new ReservationRequest("GV-T-1", main.getId(), 1, null));
+                        return true;
+                    } catch (InsufficientStockException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            int held = 0;
+            for (Future<Boolean> f : attempts) if (f.get()) held++;
+
+            assertEquals(150, held);
+            assertEquals(150, itemService.getById(tee.getId()).getReserved());
+            assertEquals(150, reservationRepo.count());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.godsvessel.inventory_warehouse.service;
+
+import com.godsvessel.inventory_warehouse.TestFixtures;
+import com.godsvessel.inventory_warehouse.dto.ItemView;
+import com.godsvessel.inventory_warehouse.model.Item;
+import com.godsvessel.inventory_warehouse.model.Product;
+import com.godsvessel.inventory_warehouse.model.Warehouse;
+import com.godsvessel.inventory_warehouse.repository.ItemRepository;
+import com.godsvessel.inventory_warehouse.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// runs the H2 (LIKE) flavour of the queries; the PostgreSQL one only differs in how q is matched/ranked
+@SpringBootTest
+@Import(TestFixtures.class)
+class SearchServiceTests {
+
+    @Autowired TestFixtures fixtures;
+    @Autowired SearchService search;
+    @Autowired ItemRepository itemRepo;
+    @Autowired ProductRepository productRepo;
+
+    Warehouse main;
+    Warehouse overflow;
+
+    @BeforeEach
+    void seed() {
+        fixtures.clearStock();
+        productRepo.deleteAllInBatch();
+
+        main = fixtures.warehouse("Main Warehouse");
+        overflow = fixtures.warehouse("Overflow Warehouse");
+
+        // catalog first: item rows only carry the sku, search matches the name and description here
+        productRepo.saveAll(List.of(
+                product("Jehovah Jireh Definition Tee", "GV-JJ-BLK-M", "Black tee, provider print"),
+                product("Jehovah Jireh Definition Tee", "GV-JJ-BLK-L", "Black tee, provider print"),
+                product("Grace Hoodie", "GV-HS-GRY-XL", "Heavyweight grey hoodie"),
+                product("100% Faith Cap", "GV_CAP-1", null)));
+
+        itemRepo.saveAll(List.of(
+                new Item(null, "GV-JJ-BLK-M", null, "M", 10, null, main),
+                new Item(null, "GV-JJ-BLK-L", null, "L", 4, null, main),
+                new Item(null, "GV-JJ-BLK-M", null, "M", 6, null, overflow),
+                new Item(null, "GV-HS-GRY-XL", null, "XL", 1, null, overflow),
+                new Item(null, "GV_CAP-1", null, "OS", 3, null, main)));
+    }
+
+    @Test
+    void freeTextMatchesNameAndDescriptionCaseInsensitively() {
+        assertEquals(3, search.searchItems("jireh", null, null, null, null, null).size());
+        assertEquals(1, search.searchItems("GREY hoodie", null, null, null, null, null).size());
+        assertEquals(3, search.searchItems("provider tee", null, null, null, null, null).size());
+        assertTrue(search.searchItems("jireh hoodie", null, null, null, null, null).isEmpty());
+    }
+
+    @Test
+    void filtersCombine() {
+        List<ItemView> found = search.searchItems("tee", "GV-JJ", "m", main.getId(), null, null);
+
+        assertEquals(1, found.size());
+        assertEquals("GV-JJ-BLK-M", found.get(0).sku());
+        assertEquals(main.getId(), found.get(0).warehouseId());
+    }
+
+    @Test
+    void likeWildcardsInInputAreLiteral() {
+        assertEquals(List.of("GV_CAP-1"), skus(search.searchItems(null, "GV_", null, null, null, null)));
+        assertEquals(List.of("GV_CAP-1"), skus(search.searchItems("100%", null, null, null, null, null)));
+    }
+
+    @Test
+    void pagesByOffsetInStableOrder() {
+        List<ItemView> all = search.searchItems(null, "GV-", null, null, null, null);
+        List<ItemView> first = search.searchItems(null, "GV-", null, null, 0, 2);
+        List<ItemView> second = search.searchItems(null, "GV-", null, null, 2, 2);
+
+        assertEquals(4, all.size());
+        assertEquals(skus(all.subList(0, 2)), skus(first));
+        assertEquals(skus(all.subList(2, 4)), skus(second));
+        assertThrows(IllegalArgumentException.class, () -> search.searchItems(null, null, null, null, -1, 10));
+        assertThrows(IllegalArgumentException.class, () -> search.searchItems(null, null, null, null, 0, 0));
+    }
+
+    @Test
+    void productSearch() {
+        List<Product> found = search.searchProducts("hoodie", "GV-HS", null, null);
+
+        assertEquals(1, found.size());
+        assertEquals("GV-HS-GRY-XL", found.get(0).getSku());
+        assertEquals(4, search.searchProducts(null, null, null, null).size());
+    }
+
+    private static List<String> skus(List<ItemView> items) {
+        return items.stream().map(ItemView::sku).toList();
+    }
+
+    private static Product product(String name, String sku, String description) {
+        Product p = new Product();
+        p.setName(name);
+        p.setSku(sku);
+        p.setDescription(description);
+        return p;
+    }
+}
@@ -0,0 +1,111 @@
+package com.godsvessel.inventory_warehouse.service;
+
+import com.godsvessel.inventory_warehouse.dto.StockChange;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockBroadcasterTests {
+
+    StockBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new StockBroadcaster(new SimpleMeterRegistry(), 3, 4, 100, 2, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void subscribersOnlySeeTheirWarehouse() throws Exception {
+        Recording main = new Recording();
+        Recording all = new Recording();
+        broadcaster.subscribe(1L, main);
+        broadcaster.subscribe(null, all);
+
+        broadcaster.publish(List.of(new StockChange(10L, 1L, 5, 1), new StockChange(11L, 2L, 3, 2)));
+
+        assertEquals(List.of(new StockChange(10L, 1L, 5, 1)), main.await(1));
+        assertEquals(List.of(new StockChange(10L, 1L, 5, 1), new StockChange(11L, 2L, 3, 2)), all.await(2));
+    }
+
+    @Test
+    void slowSubscriberIsEvictedWithoutHoldingBackOthers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Recording stuck = new Recording() {
+            @Override
+            public void send(List<StockChange> changes) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        Recording fast = new Recording();
+        StockBroadcaster.Subscription stuckSub = broadcaster.subscribe(1L, stuck);
+        broadcaster.subscribe(1L, fast);
+
+        // buffer is 4: the stuck client takes one batch into its send, then falls behind
+        for (int i = 0; i < 12; i++) {
+            broadcaster.publish(List.of(new StockChange(10L, 1L, i, i)));
+            Thread.sleep(2);
+        }
+
+        assertTrue(stuckSub.isClosed());
+        assertTrue(stuck.closed.await(1, TimeUnit.SECONDS));
+        assertEquals(11, fast.await(12).get(11).quantity());
+        assertEquals(1, broadcaster.subscriberCount());
+        release.countDown();
+    }
+
+    @Test
+    void refusesSubscribersOverTheLimit() {
+        StockBroadcaster.Subscription first = broadcaster.subscribe(null, new Recording());
+        broadcaster.subscribe(2L, new Recording());
+        broadcaster.subscribe(null, new Recording());
+        assertThrows(IllegalStateException.class, () -> broadcaster.subscribe(null, new Recording()));
+
+        first.cancel();
+        first.cancel();
+        assertFalse(broadcaster.subscribe(1L, new Recording()).isClosed());
+        assertEquals(3, broadcaster.subscriberCount());
+    }
+
+    static class Recording implements StockBroadcaster.Sink {
+        final List<StockChange> received = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch closed = new CountDownLatch(1);
+
+        @Override
+        public void send(List<StockChange> changes) {
+            received.addAll(changes);
+        }
+
+        @Override
+        public void heartbeat() {
+        }
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+
+        List<StockChange> await(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 2000;
+            while (received.size() < count && System.currentTimeMillis() < deadline) Thread.sleep(5);
+            return List.copyOf(received);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.godsvessel.inventory_warehouse.service;
+
+import com.godsvessel.inventory_warehouse.TestFixtures;
+import com.godsvessel.inventory_warehouse.dto.StockAt;
+import com.godsvessel.inventory_warehouse.model.Item;
+import com.godsvessel.inventory_warehouse.model.Warehouse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(TestFixtures.class)
+class StockHistoryServiceTests {
+
+    @Autowired TestFixtures fixtures;
+    @Autowired StockHistoryService history;
+    @Autowired ItemService service;
+    @Autowired StockLedger ledger;
+    @Autowired JdbcTemplate jdbc;
+
+    Warehouse main;
+    Warehouse overflow;
+
+    @BeforeEach
+    void seed() {
+        fixtures.clearStock();
+        ledger.flush();
+        jdbc.update("delete from stock_movement");
+        jdbc.update("delete from stock_snapshot_line");
+        jdbc.update("delete from stock_snapshot");
+
+        main = fixtures.warehouse("Main Warehouse");
+        overflow = fixtures.warehouse("Overflow Warehouse");
+    }
+
+    @Test
+    void reconstructsStockAtEarlierTimes() throws Exception {
+        Instant empty = tick();
+        Item tee = service.save(new Item("Tee", "GV-T-1", null, "M", 10, null, main));
+        Item cap = service.save(new Item("Cap", "GV-C-1", null, null, 5, null, main));
+        Instant stocked = tick();
+
+        Item landed = service.transfer(tee.getId(), overflow.getId(), 4);
+        Item edited = service.getById(cap.getId());
+        edited.setQuantity(9);
+        service.save(edited);
+        Instant edited9 = tick();
+
+        service.delete(cap.getId());
+        Item renamed = service.getById(tee.getId());
+        renamed.setSku("GV-T-2");
+        renamed.setQuantity(7);
+        service.save(renamed);
+
+        assertEquals(Map.of(), quantities(main, empty));
+        assertEquals(Map.of("GV-T-1", 10, "GV-C-1", 5), quantities(main, stocked));
+        assertEquals(Map.of("GV-T-1", 6, "GV-C-1", 9), quantities(main, edited9));
+        assertEquals(Map.of("GV-T-2", 7), quantities(main, null));
+        assertEquals(Map.of("GV-T-1", 4), quantities(overflow, null));
+        assertEquals(landed.getId(), history.stockAt(overflow.getId(), null).lines().get(0).itemId());
+    }
+
+    // a snapshot changes where the replay starts, never the answer
+    @Test
+    void snapshotsAreCompactedIncrementally() throws Exception {
+        Item tee = service.save(new Item("Tee", "GV-T-1", null, "M", 10, null, main));
+        service.save(new Item("Mug", "GV-M-1", null, null, 3, null, overflow));
+        Instant first = tick();
+
+        assertEquals(2, history.takeSnapshots(first));
+        assertEquals(0, history.takeSnapshots(first));
+
+        service.transfer(tee.getId(), overflow.getId(), 6);
+        Instant second = tick();
+        ledger.flush();
+        Map<String, Integer> replayed = quantities(main, second);
+
+        assertEquals(2, history.takeSnapshots(second));
+        StockAt fromSnapshot = history.stockAt(main.getId(), second);
+        assertEquals(second, fromSnapshot.snapshotAt());
+        assertEquals(replayed, quantities(main, second));
+        assertEquals(Map.of("GV-T-1", 4), replayed);
+        assertEquals(first, history.stockAt(main.getId(), second.minusNanos(1000)).snapshotAt());
+
+        // nothing moved since: no new snapshot for either warehouse
+        assertEquals(0, history.takeSnapshots(tick()));
+    }
+
+    @Test
+    void unknownWarehouseIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> history.stockAt(-1L, null));
+    }
+
+    private Map<String, Integer> quantities(Warehouse wh, Instant at) {
+        List<StockAt.Line> lines = history.stockAt(wh.getId(), at).lines();
+        return lines.stream().collect(Collectors.toMap(StockAt.Line::sku, StockAt.Line::quantity));
+    }
+
+    // a point in time strictly between the writes around it
+    private static Instant tick() throws InterruptedException {
+        Thread.sleep(5);
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        Thread.sleep(5);
+        return now;
+    }
+}
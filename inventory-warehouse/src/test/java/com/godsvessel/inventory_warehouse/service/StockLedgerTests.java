@@ -0,0 +1,160 @@
+package com.godsvessel.inventory_warehouse.service;
+
+import com.godsvessel.inventory_warehouse.TestFixtures;
+import com.godsvessel.inventory_warehouse.dto.StockChange;
+import com.godsvessel.inventory_warehouse.dto.TransferBatchRequest;
+import com.godsvessel.inventory_warehouse.model.Item;
+import com.godsvessel.inventory_warehouse.model.Warehouse;
+import com.godsvessel.inventory_warehouse.repository.ItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(TestFixtures.class)
+class StockLedgerTests {
+
+    @Autowired TestFixtures fixtures;
+    @Autowired ItemService service;
+    @Autowired ImportService importService;
+    @Autowired StockLedger ledger;
+    @Autowired StockBroadcaster broadcaster;
+    @Autowired ItemRepository itemRepo;
+    @Autowired JdbcTemplate jdbc;
+
+    Warehouse main;
+    Warehouse overflow;
+
+    @BeforeEach
+    void seed() {
+        fixtures.clearStock();
+        ledger.flush();
+        jdbc.update("delete from stock_movement");
+
+        main = fixtures.warehouse("Main Warehouse");
+        overflow = fixtures.warehouse("Overflow Warehouse");
+    }
+
+    @Test
+    void transferLegsShareACorrelationId() {
+        Item tee = service.save(new Item("Tee", "GV-T-1", null, "M", 10, null, main));
+        Item landed = service.transfer(tee.getId(), overflow.getId(), 4);
+        ledger.flush();
+
+        List<Map<String, Object>> legs = jdbc.queryForList(
+                "select item_id, warehouse_id, delta, correlation_id from stock_movement " +
+                "where reason like 'TRANSFER%' order by delta");
+        assertEquals(2, legs.size());
+        assertEquals(tee.getId(), legs.get(0).get("item_id"));
+        assertEquals(-4, legs.get(0).get("delta"));
+        assertEquals(landed.getId(), legs.get(1).get("item_id"));
+        assertEquals(overflow.getId(), legs.get(1).get("warehouse_id"));
+        assertEquals(legs.get(0).get("correlation_id"), legs.get(1).get("correlation_id"));
+        assertEquals(0, jdbc.queryForObject("select count(*) from stock_movement_outbox", Integer.class));
+    }
+
+    // replaying the ledger has to land exactly on the current quantities, whatever path changed them
+    @Test
+    void ledgerSumsToCurrentStock() {
+        Item tee = service.save(new Item("Tee", "GV-T-1", null, "M", 10, null, main));
+        Item cap = service.save(new Item("Cap", "GV-C-1", null, null, 5, null, main));
+        Item gone = service.save(new Item("Mug", "GV-M-1", null, null, 2, null, overflow));
+
+        service.transfer(tee.getId(), overflow.getId(), 3);
+        service.transferBatch(new TransferBatchRequest(TransferBatchRequest.Mode.PARTIAL, List.of(
+                new TransferBatchRequest.Line(tee.getId(), overflow.getId(), 2),
+                new TransferBatchRequest.Line(cap.getId(), overflow.getId(), 1))));
+
+        Item edited = service.getById(cap.getId());
+        edited.setQuantity(9);
+        service.save(edited);
+
+        Item moved = service.getById(tee.getId());
+        moved.setWarehouse(overflow);
+        moved.setSku("GV-T-2");
+        service.save(moved);
+
+        service.delete(gone.getId());
+        importService.importItems(new ByteArrayInputStream("""
+                name,sku,description,size,quantity,imageUrl,warehouseId
+                Pin,GV-P-1,,,7,,%d
+                """.formatted(main.getId()).getBytes(StandardCharsets.UTF_8)), MediaType.parseMediaType("text/csv"));
+
+        ledger.flush();
+
+        for (Item item : itemRepo.findAll()) {
+            Integer replayed = jdbc.queryForObject(
+                    "select coalesce(sum(delta), 0) from stock_movement where item_id = ? and warehouse_id = ?",
+                    Integer.class, item.getId(), item.getWarehouse().getId());
+            assertEquals(item.getQuantity(), replayed, item.getSku());
+        }
+        assertEquals(0, jdbc.queryForObject(
+                "select coalesce(sum(delta), 0) from stock_movement where item_id = ?", Integer.class, gone.getId()));
+    }
+
+    @Test
+    void rolledBackWritesLeaveNoMovement() {
+        Item tee = service.save(new Item("Tee", "GV-T-1", null, "M", 10, null, main));
+        ledger.flush();
+        int before = jdbc.queryForObject("select count(*) from stock_movement", Integer.class);
+
+        service.transferBatch(new TransferBatchRequest(TransferBatchRequest.Mode.ALL_OR_NOTHING, List.of(
+                new TransferBatchRequest.Line(tee.getId(), overflow.getId(), 2),
+                new TransferBatchRequest.Line(tee.getId(), overflow.getId(), 500))));
+        assertThrows(IllegalArgumentException.class, () -> service.transfer(tee.getId(), overflow.getId(), 11));
+        ledger.flush();
+
+        assertEquals(before, jdbc.queryForObject("select count(*) from stock_movement", Integer.class));
+    }
+
+    // the live stream gets the committed quantities, and nothing from a rolled-back write
+    @Test
+    void committedChangesReachTheStream() throws Exception {
+        List<StockChange> seen = Collections.synchronizedList(new ArrayList<>());
+        StockBroadcaster.Subscription sub = broadcaster.subscribe(overflow.getId(), new StockBroadcaster.Sink() {
+            @Override
+            public void send(List<StockChange> changes) {
+                seen.addAll(changes);
+            }
+
+            @Override
+            public void heartbeat() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        try {
+            Item tee = service.save(new Item("Tee", "GV-T-1", null, "M", 10, null, main));
+            Item landed = service.transfer(tee.getId(), overflow.getId(), 4);
+            assertThrows(IllegalArgumentException.class, () -> service.transfer(tee.getId(), overflow.getId(), 50));
+            service.delete(landed.getId());
+
+            long deadline = System.currentTimeMillis() + 2000;
+            while (seen.size() < 2 && System.currentTimeMillis() < deadline) Thread.sleep(5);
+            assertEquals(2, seen.size());
+            assertEquals(List.of(landed.getId(), landed.getId()), seen.stream().map(StockChange::itemId).toList());
+            assertEquals(List.of(overflow.getId(), overflow.getId()), seen.stream().map(StockChange::warehouseId).toList());
+            assertEquals(4, seen.get(0).quantity());
+            assertNull(seen.get(1).quantity());
+            // the later state carries the higher ledger id
+            assertTrue(seen.get(0).movementId() < seen.get(1).movementId());
+        } finally {
+            sub.cancel();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+-- staging tables for bulk import (not JPA entities, so ddl-auto doesn't create them)
+CREATE TABLE IF NOT EXISTS item_import (
+    import_id     UUID         NOT NULL,
+    line_no       BIGINT       NOT NULL,
+    name          VARCHAR(150),
+    sku           VARCHAR(50),
+    description   TEXT,
+    size          VARCHAR(10),
+    quantity      INTEGER,
+    image_url     TEXT,
+    warehouse_id  BIGINT,
+    reject_reason TEXT
+);
+
+CREATE TABLE IF NOT EXISTS product_import (
+    import_id     UUID         NOT NULL,
+    line_no       BIGINT       NOT NULL,
+    name          VARCHAR(150),
+    sku           VARCHAR(50),
+    description   TEXT,
+    image_url     VARCHAR(255),
+    reject_reason TEXT
+);
+
+-- stock movement ledger (the outbox is an entity; the ledger is only written with SQL)
+CREATE TABLE IF NOT EXISTS stock_movement (
+    id             BIGINT      PRIMARY KEY,
+    item_id        BIGINT      NOT NULL,
+    warehouse_id   BIGINT      NOT NULL,
+    sku            VARCHAR(50) NOT NULL,
+    delta          INTEGER     NOT NULL,
+    reason         VARCHAR(20) NOT NULL,
+    correlation_id UUID,
+    occurred_at    TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+-- point-in-time snapshots (StockHistoryService)
+CREATE SEQUENCE IF NOT EXISTS stock_snapshot_id_seq;
+
+CREATE TABLE IF NOT EXISTS stock_snapshot (
+    id           BIGINT      PRIMARY KEY,
+    warehouse_id BIGINT      NOT NULL,
+    taken_at     TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS stock_snapshot_line (
+    snapshot_id BIGINT      NOT NULL REFERENCES stock_snapshot (id) ON DELETE CASCADE,
+    item_id     BIGINT      NOT NULL,
+    sku         VARCHAR(50) NOT NULL,
+    quantity    INTEGER     NOT NULL,
+    PRIMARY KEY (snapshot_id, item_id)
+);
+
+-- Idempotency-Key store (IdempotencyService)
+CREATE TABLE IF NOT EXISTS idempotency_key (
+    idem_key      VARCHAR(100) PRIMARY KEY,
+    fingerprint   CHAR(64)     NOT NULL,
+    response_body TEXT,
+    created_at    TIMESTAMP WITH TIME ZONE NOT NULL,
+    expires_at    TIMESTAMP WITH TIME ZONE NOT NULL
+);